@@ -273,6 +273,33 @@ public interface JMThread {
         return scheduledExecutorService;
     }
 
+    /**
+     * Gets shared scheduler.
+     * <p>
+     * A single daemon thread scheduler shared by the timers that only hand work over, like delayed requests and
+     * retries, so they cost no thread of their own. The scheduled tasks must not block.
+     *
+     * @return the shared scheduler
+     */
+    static ScheduledExecutorService getSharedScheduler() {
+        return SharedSchedulerHolder.SHARED_SCHEDULER;
+    }
+
+    /**
+     * The type Shared scheduler holder.
+     */
+    final class SharedSchedulerHolder {
+        private static final ScheduledExecutorService SHARED_SCHEDULER =
+                Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "JMThread-SharedScheduler");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        private SharedSchedulerHolder() {
+        }
+    }
+
     /**
      * Build callable with logging callable.
      *
@@ -8,12 +8,16 @@ import java.io.StringWriter;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
 
 /**
  * The type Error history manager.
+ * <p>
+ * Keeps the last throwables and turns them into stack trace strings only when the history is read, so recording an
+ * error costs no string building.
  */
 public class ErrorHistoryManager {
-    private final LastTimestampDataManager<String> lastTimestampDataManager;
+    private final LastTimestampDataManager<Throwable> lastTimestampDataManager;
     private final LongAdder totalErrorCount;
 
     /**
@@ -31,10 +35,8 @@ public class ErrorHistoryManager {
      * @param throwable the throwable
      */
     public void recordErrorMessageHistory(Throwable throwable) {
-        synchronized (totalErrorCount) {
-            this.lastTimestampDataManager.addData(getStackTraceString(throwable));
-            this.totalErrorCount.increment();
-        }
+        this.lastTimestampDataManager.addData(throwable);
+        this.totalErrorCount.increment();
     }
 
     private String getStackTraceString(Throwable throwable) {
@@ -49,7 +51,9 @@ public class ErrorHistoryManager {
      * @return the error message history list
      */
     public List<TimestampData<String>> getErrorMessageHistoryList() {
-        return this.lastTimestampDataManager.getTimestampDataList();
+        return this.lastTimestampDataManager.getTimestampDataList().stream()
+                .map(timestampData -> new TimestampData<>(timestampData.getTimestamp(),
+                        getStackTraceString(timestampData.getData()))).collect(Collectors.toList());
     }
 
     /**
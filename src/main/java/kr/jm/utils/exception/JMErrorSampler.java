@@ -0,0 +1,100 @@
+package kr.jm.utils.exception;
+
+import kr.jm.utils.helper.JMLog;
+import org.slf4j.Logger;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The type Jm error sampler.
+ * <p>
+ * Handles exceptions like Jm exception handle exception but logs at most one of them per sampling interval, with
+ * the number of the exceptions suppressed since the last one logged. Every exception is still counted and recorded
+ * to the error history when it is enabled. A sampling interval of 0 logs every exception.
+ */
+public class JMErrorSampler {
+
+    private final Logger log;
+    private final long samplingIntervalMillis;
+    private final LongAdder errorCount;
+    private final AtomicLong suppressedCount;
+    private final AtomicLong lastLoggedMillis;
+
+    /**
+     * Instantiates a new Jm error sampler.
+     *
+     * @param log                    the log
+     * @param samplingIntervalMillis the sampling interval millis
+     */
+    public JMErrorSampler(Logger log, long samplingIntervalMillis) {
+        this.log = log;
+        this.samplingIntervalMillis = Math.max(samplingIntervalMillis, 0);
+        this.errorCount = new LongAdder();
+        this.suppressedCount = new AtomicLong();
+        this.lastLoggedMillis = new AtomicLong();
+    }
+
+    /**
+     * Handle exception.
+     *
+     * @param throwable  the throwable
+     * @param methodName the method name
+     * @param params     the params
+     */
+    public void handleException(Throwable throwable, String methodName, Object... params) {
+        this.errorCount.increment();
+        JMException.getErrorHistoryManagerOptional()
+                .ifPresent(errorHistoryManager -> errorHistoryManager.recordErrorMessageHistory(throwable));
+        if (!tryToSample()) {
+            this.suppressedCount.incrementAndGet();
+            return;
+        }
+        long suppressedCount = this.suppressedCount.getAndSet(0);
+        if (suppressedCount == 0)
+            JMLog.errorForException(this.log, throwable, methodName, params);
+        else {
+            Object[] sampledParams = Arrays.copyOf(params, params.length + 1);
+            sampledParams[params.length] = "suppressed=" + suppressedCount;
+            JMLog.errorForException(this.log, throwable, methodName, sampledParams);
+        }
+    }
+
+    private boolean tryToSample() {
+        if (this.samplingIntervalMillis == 0)
+            return true;
+        long nowMillis = System.currentTimeMillis();
+        long lastLoggedMillis = this.lastLoggedMillis.get();
+        return nowMillis - lastLoggedMillis >= this.samplingIntervalMillis &&
+                this.lastLoggedMillis.compareAndSet(lastLoggedMillis, nowMillis);
+    }
+
+    /**
+     * Gets sampling interval millis.
+     *
+     * @return the sampling interval millis
+     */
+    public long getSamplingIntervalMillis() {
+        return this.samplingIntervalMillis;
+    }
+
+    /**
+     * Gets error count.
+     *
+     * @return the error count
+     */
+    public long getErrorCount() {
+        return this.errorCount.sum();
+    }
+
+    /**
+     * Gets suppressed count.
+     *
+     * @return the number of exceptions not logged since the last one logged
+     */
+    public long getSuppressedCount() {
+        return this.suppressedCount.get();
+    }
+
+}
@@ -0,0 +1,116 @@
+package kr.jm.utils.flow;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The interface Jm drainable.
+ * <p>
+ * A flow component that can be closed after what it holds has been handed over: pending batches are flushed, the
+ * items in flight are waited for until the timeout, and the number of items that were still held when the timeout
+ * passed is returned.
+ */
+public interface JMDrainable extends AutoCloseable {
+
+    /**
+     * Close and drain long.
+     *
+     * @param timeout the timeout
+     * @return the number of items lost, 0 when everything was drained
+     */
+    long closeAndDrain(Duration timeout);
+
+    /**
+     * Close.
+     * <p>
+     * Closes without waiting for what is held, so no checked exception is thrown.
+     */
+    @Override
+    void close();
+
+    /**
+     * Gets deadline nanos.
+     *
+     * @param timeout the timeout
+     * @return the deadline nanos
+     */
+    static long getDeadlineNanos(Duration timeout) {
+        return System.nanoTime() + Math.max(Math.min(timeout.toNanos(), Long.MAX_VALUE / 2), 0);
+    }
+
+    /**
+     * Gets remaining.
+     *
+     * @param deadlineNanos the deadline nanos
+     * @return the remaining
+     */
+    static Duration getRemaining(long deadlineNanos) {
+        return Duration.ofNanos(Math.max(deadlineNanos - System.nanoTime(), 0));
+    }
+
+    /**
+     * Decrement and signal int.
+     * <p>
+     * Decrements the in flight count and wakes up the threads in await zero when it reaches 0.
+     *
+     * @param inFlightCount the in flight count
+     * @param count         the count
+     * @return the in flight count
+     */
+    static int decrementAndSignal(AtomicInteger inFlightCount, int count) {
+        int remainingCount = inFlightCount.addAndGet(-count);
+        if (remainingCount == 0)
+            synchronized (inFlightCount) {
+                inFlightCount.notifyAll();
+            }
+        return remainingCount;
+    }
+
+    /**
+     * Await zero boolean.
+     * <p>
+     * Waits until the in flight count, decremented with decrement and signal, reaches 0 or the deadline passes.
+     *
+     * @param inFlightCount the in flight count
+     * @param deadlineNanos the deadline nanos
+     * @return the boolean
+     */
+    static boolean awaitZero(AtomicInteger inFlightCount, long deadlineNanos) {
+        synchronized (inFlightCount) {
+            long remainingNanos;
+            while (inFlightCount.get() > 0 && (remainingNanos = deadlineNanos - System.nanoTime()) > 0)
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(inFlightCount, remainingNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            return inFlightCount.get() <= 0;
+        }
+    }
+
+    /**
+     * Await until boolean.
+     * <p>
+     * For the buffers that give no completion signal, like the ones of Submission publisher, checks the condition
+     * with a back off from 50 micros to 10 millis until it holds or the deadline passes.
+     *
+     * @param condition     the condition
+     * @param deadlineNanos the deadline nanos
+     * @return the boolean
+     */
+    static boolean awaitUntil(BooleanSupplier condition, long deadlineNanos) {
+        long parkNanos = 50_000;
+        while (!condition.getAsBoolean()) {
+            long remainingNanos = deadlineNanos - System.nanoTime();
+            if (remainingNanos <= 0 || Thread.currentThread().isInterrupted())
+                return false;
+            LockSupport.parkNanos(Math.min(parkNanos, remainingNanos));
+            parkNanos = Math.min(parkNanos * 2, 10_000_000);
+        }
+        return true;
+    }
+}
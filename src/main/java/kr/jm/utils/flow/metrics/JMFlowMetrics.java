@@ -0,0 +1,343 @@
+package kr.jm.utils.flow.metrics;
+
+import kr.jm.utils.exception.JMException;
+import kr.jm.utils.helper.JMLog;
+import org.slf4j.Logger;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * The type Jm flow metrics.
+ * <p>
+ * Counters are LongAdders and the processing time histogram uses power of two nanosecond buckets, so recording is
+ * cheap from many threads. Flow components only hold an instance after metrics are enabled on them, which keeps the
+ * disabled path to a single null check.
+ */
+public class JMFlowMetrics implements JMFlowMetricsMXBean {
+
+    /**
+     * The constant JMX_DOMAIN.
+     */
+    public static final String JMX_DOMAIN = "kr.jm.utils.flow";
+
+    private static final Logger log = org.slf4j.LoggerFactory.getLogger(JMFlowMetrics.class);
+    private static final int HISTOGRAM_BUCKETS = 64;
+    private static final long RATE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final String name;
+    private final LongAdder inCount;
+    private final LongAdder outCount;
+    private final LongAdder processingNanos;
+    private final LongAdder[] processingHistogram;
+    private final AtomicLong maxProcessingNanos;
+    private final LongAdder blockedCount;
+    private final LongAdder blockedNanos;
+    private LongSupplier lagSupplier;
+    private LongSupplier bufferCapacitySupplier;
+    private ObjectName objectName;
+    private long windowStartNanos;
+    private long windowStartInCount;
+    private long windowStartOutCount;
+    private double[] completedWindowRates;
+
+    /**
+     * Instantiates a new Jm flow metrics.
+     *
+     * @param name the name
+     */
+    public JMFlowMetrics(String name) {
+        this.name = name;
+        this.inCount = new LongAdder();
+        this.outCount = new LongAdder();
+        this.processingNanos = new LongAdder();
+        this.processingHistogram = new LongAdder[HISTOGRAM_BUCKETS];
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++)
+            this.processingHistogram[i] = new LongAdder();
+        this.maxProcessingNanos = new AtomicLong();
+        this.blockedCount = new LongAdder();
+        this.blockedNanos = new LongAdder();
+        this.lagSupplier = () -> 0;
+        this.bufferCapacitySupplier = () -> 0;
+        this.windowStartNanos = System.nanoTime();
+    }
+
+    /**
+     * With lag supplier jm flow metrics.
+     *
+     * @param lagSupplier            the lag supplier
+     * @param bufferCapacitySupplier the buffer capacity supplier
+     * @return the jm flow metrics
+     */
+    public JMFlowMetrics withLagSupplier(LongSupplier lagSupplier, LongSupplier bufferCapacitySupplier) {
+        this.lagSupplier = lagSupplier;
+        this.bufferCapacitySupplier = bufferCapacitySupplier;
+        return this;
+    }
+
+    /**
+     * Record in.
+     */
+    public void recordIn() {
+        this.inCount.increment();
+    }
+
+    /**
+     * Record in.
+     *
+     * @param count the count
+     */
+    public void recordIn(long count) {
+        this.inCount.add(count);
+    }
+
+    /**
+     * Record out.
+     */
+    public void recordOut() {
+        this.outCount.increment();
+    }
+
+    /**
+     * Record out.
+     *
+     * @param count the count
+     */
+    public void recordOut(long count) {
+        this.outCount.add(count);
+    }
+
+    /**
+     * Record processing nanos.
+     *
+     * @param nanos the nanos
+     */
+    public void recordProcessingNanos(long nanos) {
+        this.processingNanos.add(nanos);
+        this.processingHistogram[bucketOf(nanos)].increment();
+        this.maxProcessingNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Record processing since.
+     *
+     * @param startNanos the start nanos
+     */
+    public void recordProcessingSince(long startNanos) {
+        recordProcessingNanos(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Record blocked nanos.
+     *
+     * @param nanos the nanos
+     */
+    public void recordBlockedNanos(long nanos) {
+        this.blockedCount.increment();
+        this.blockedNanos.add(nanos);
+    }
+
+    private static int bucketOf(long nanos) {
+        return nanos <= 0 ? 0 : HISTOGRAM_BUCKETS - 1 - Long.numberOfLeadingZeros(nanos);
+    }
+
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    @Override
+    public long getInCount() {
+        return this.inCount.sum();
+    }
+
+    @Override
+    public long getOutCount() {
+        return this.outCount.sum();
+    }
+
+    /**
+     * Gets in per second.
+     * <p>
+     * The rates are the ones of the last completed rate window of at least one second, so reading them does not
+     * change them and the in and out rates always come from the same window. Before the first window completes, the
+     * rates since the creation are returned.
+     *
+     * @return the in per second
+     */
+    @Override
+    public double getInPerSecond() {
+        return getRates()[0];
+    }
+
+    @Override
+    public double getOutPerSecond() {
+        return getRates()[1];
+    }
+
+    private synchronized double[] getRates() {
+        long nowNanos = System.nanoTime();
+        long elapsedNanos = nowNanos - this.windowStartNanos;
+        if (elapsedNanos < RATE_WINDOW_NANOS)
+            return Objects.nonNull(this.completedWindowRates) ? this.completedWindowRates :
+                    calRates(elapsedNanos, getInCount(), getOutCount());
+        long inCount = getInCount();
+        long outCount = getOutCount();
+        this.completedWindowRates = calRates(elapsedNanos, inCount, outCount);
+        this.windowStartNanos = nowNanos;
+        this.windowStartInCount = inCount;
+        this.windowStartOutCount = outCount;
+        return this.completedWindowRates;
+    }
+
+    private double[] calRates(long elapsedNanos, long inCount, long outCount) {
+        double seconds = elapsedNanos / 1_000_000_000d;
+        return seconds > 0 ? new double[]{(inCount - this.windowStartInCount) / seconds,
+                (outCount - this.windowStartOutCount) / seconds} : new double[]{0, 0};
+    }
+
+    @Override
+    public long getLag() {
+        return this.lagSupplier.getAsLong();
+    }
+
+    @Override
+    public long getBufferCapacity() {
+        return this.bufferCapacitySupplier.getAsLong();
+    }
+
+    @Override
+    public double getBufferOccupancy() {
+        long bufferCapacity = getBufferCapacity();
+        return bufferCapacity > 0 ? (double) getLag() / bufferCapacity : 0;
+    }
+
+    @Override
+    public long getProcessingCount() {
+        long count = 0;
+        for (LongAdder bucket : this.processingHistogram)
+            count += bucket.sum();
+        return count;
+    }
+
+    @Override
+    public double getProcessingMeanMicros() {
+        long processingCount = getProcessingCount();
+        return processingCount > 0 ? this.processingNanos.sum() / 1000d / processingCount : 0;
+    }
+
+    @Override
+    public double getProcessingP99Micros() {
+        return getProcessingPercentileMicros(0.99);
+    }
+
+    /**
+     * Gets processing percentile micros.
+     * <p>
+     * The value is the upper bound of the histogram bucket holding the percentile, so it is accurate to within a
+     * factor of two.
+     *
+     * @param percentile the percentile
+     * @return the processing percentile micros
+     */
+    public double getProcessingPercentileMicros(double percentile) {
+        long[] bucketCounts = new long[HISTOGRAM_BUCKETS];
+        long count = 0;
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++)
+            count += bucketCounts[i] = this.processingHistogram[i].sum();
+        long rank = (long) Math.ceil(count * percentile);
+        long cumulative = 0;
+        for (int i = 0; i < HISTOGRAM_BUCKETS && count > 0; i++)
+            if ((cumulative += bucketCounts[i]) >= rank)
+                return Math.min((i == HISTOGRAM_BUCKETS - 1 ? Long.MAX_VALUE : (1L << (i + 1)) - 1),
+                        this.maxProcessingNanos.get()) / 1000d;
+        return 0;
+    }
+
+    @Override
+    public double getProcessingMaxMicros() {
+        return this.maxProcessingNanos.get() / 1000d;
+    }
+
+    @Override
+    public long getBlockedCount() {
+        return this.blockedCount.sum();
+    }
+
+    @Override
+    public double getBlockedMillis() {
+        return this.blockedNanos.sum() / 1_000_000d;
+    }
+
+    @Override
+    public synchronized void reset() {
+        this.inCount.reset();
+        this.outCount.reset();
+        this.processingNanos.reset();
+        for (LongAdder bucket : this.processingHistogram)
+            bucket.reset();
+        this.maxProcessingNanos.set(0);
+        this.blockedCount.reset();
+        this.blockedNanos.reset();
+        this.windowStartNanos = System.nanoTime();
+        this.windowStartInCount = 0;
+        this.windowStartOutCount = 0;
+        this.completedWindowRates = null;
+    }
+
+    /**
+     * Gets snapshot.
+     *
+     * @return the snapshot
+     */
+    public JMFlowMetricsSnapshot getSnapshot() {
+        double[] rates = getRates();
+        return new JMFlowMetricsSnapshot(this.name, System.currentTimeMillis(), getInCount(), getOutCount(),
+                rates[0], rates[1], getLag(), getBufferCapacity(), getBufferOccupancy(), getProcessingCount(),
+                getProcessingMeanMicros(), getProcessingP99Micros(), getProcessingMaxMicros(), getBlockedCount(),
+                getBlockedMillis());
+    }
+
+    /**
+     * Register mx bean jm flow metrics.
+     *
+     * @return the jm flow metrics
+     */
+    public synchronized JMFlowMetrics registerMXBean() {
+        if (Objects.nonNull(this.objectName))
+            return this;
+        try {
+            ObjectName objectName = new ObjectName(JMX_DOMAIN, "name", ObjectName.quote(this.name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            this.objectName = objectName;
+            JMLog.info(log, "registerMXBean", objectName);
+        } catch (Exception e) {
+            JMException.handleException(log, e, "registerMXBean", this.name);
+        }
+        return this;
+    }
+
+    /**
+     * Unregister mx bean.
+     */
+    public synchronized void unregisterMXBean() {
+        if (Objects.isNull(this.objectName))
+            return;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.objectName);
+        } catch (Exception e) {
+            JMException.handleException(log, e, "unregisterMXBean", this.objectName);
+        }
+        this.objectName = null;
+    }
+
+    @Override
+    public String toString() {
+        return getSnapshot().toString();
+    }
+}
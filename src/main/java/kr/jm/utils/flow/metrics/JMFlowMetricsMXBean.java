@@ -0,0 +1,110 @@
+package kr.jm.utils.flow.metrics;
+
+/**
+ * The interface Jm flow metrics mx bean.
+ */
+public interface JMFlowMetricsMXBean {
+
+    /**
+     * Gets name.
+     *
+     * @return the name
+     */
+    String getName();
+
+    /**
+     * Gets in count.
+     *
+     * @return the in count
+     */
+    long getInCount();
+
+    /**
+     * Gets out count.
+     *
+     * @return the out count
+     */
+    long getOutCount();
+
+    /**
+     * Gets in per second.
+     *
+     * @return the in per second
+     */
+    double getInPerSecond();
+
+    /**
+     * Gets out per second.
+     *
+     * @return the out per second
+     */
+    double getOutPerSecond();
+
+    /**
+     * Gets lag.
+     *
+     * @return the lag
+     */
+    long getLag();
+
+    /**
+     * Gets buffer capacity.
+     *
+     * @return the buffer capacity
+     */
+    long getBufferCapacity();
+
+    /**
+     * Gets buffer occupancy.
+     *
+     * @return the buffer occupancy
+     */
+    double getBufferOccupancy();
+
+    /**
+     * Gets processing count.
+     *
+     * @return the processing count
+     */
+    long getProcessingCount();
+
+    /**
+     * Gets processing mean micros.
+     *
+     * @return the processing mean micros
+     */
+    double getProcessingMeanMicros();
+
+    /**
+     * Gets processing p 99 micros.
+     *
+     * @return the processing p 99 micros
+     */
+    double getProcessingP99Micros();
+
+    /**
+     * Gets processing max micros.
+     *
+     * @return the processing max micros
+     */
+    double getProcessingMaxMicros();
+
+    /**
+     * Gets blocked count.
+     *
+     * @return the blocked count
+     */
+    long getBlockedCount();
+
+    /**
+     * Gets blocked millis.
+     *
+     * @return the blocked millis
+     */
+    double getBlockedMillis();
+
+    /**
+     * Reset.
+     */
+    void reset();
+}
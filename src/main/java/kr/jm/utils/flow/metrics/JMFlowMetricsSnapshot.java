@@ -0,0 +1,209 @@
+package kr.jm.utils.flow.metrics;
+
+/**
+ * The type Jm flow metrics snapshot.
+ */
+public class JMFlowMetricsSnapshot {
+
+    private final String name;
+    private final long timestamp;
+    private final long inCount;
+    private final long outCount;
+    private final double inPerSecond;
+    private final double outPerSecond;
+    private final long lag;
+    private final long bufferCapacity;
+    private final double bufferOccupancy;
+    private final long processingCount;
+    private final double processingMeanMicros;
+    private final double processingP99Micros;
+    private final double processingMaxMicros;
+    private final long blockedCount;
+    private final double blockedMillis;
+
+    /**
+     * Instantiates a new Jm flow metrics snapshot.
+     *
+     * @param name                 the name
+     * @param timestamp            the timestamp
+     * @param inCount              the in count
+     * @param outCount             the out count
+     * @param inPerSecond          the in per second
+     * @param outPerSecond         the out per second
+     * @param lag                  the lag
+     * @param bufferCapacity       the buffer capacity
+     * @param bufferOccupancy      the buffer occupancy
+     * @param processingCount      the processing count
+     * @param processingMeanMicros the processing mean micros
+     * @param processingP99Micros  the processing p 99 micros
+     * @param processingMaxMicros  the processing max micros
+     * @param blockedCount         the blocked count
+     * @param blockedMillis        the blocked millis
+     */
+    public JMFlowMetricsSnapshot(String name, long timestamp, long inCount, long outCount, double inPerSecond,
+            double outPerSecond, long lag, long bufferCapacity, double bufferOccupancy, long processingCount,
+            double processingMeanMicros, double processingP99Micros, double processingMaxMicros, long blockedCount,
+            double blockedMillis) {
+        this.name = name;
+        this.timestamp = timestamp;
+        this.inCount = inCount;
+        this.outCount = outCount;
+        this.inPerSecond = inPerSecond;
+        this.outPerSecond = outPerSecond;
+        this.lag = lag;
+        this.bufferCapacity = bufferCapacity;
+        this.bufferOccupancy = bufferOccupancy;
+        this.processingCount = processingCount;
+        this.processingMeanMicros = processingMeanMicros;
+        this.processingP99Micros = processingP99Micros;
+        this.processingMaxMicros = processingMaxMicros;
+        this.blockedCount = blockedCount;
+        this.blockedMillis = blockedMillis;
+    }
+
+    /**
+     * Gets name.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets timestamp.
+     *
+     * @return the timestamp
+     */
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    /**
+     * Gets in count.
+     *
+     * @return the in count
+     */
+    public long getInCount() {
+        return this.inCount;
+    }
+
+    /**
+     * Gets out count.
+     *
+     * @return the out count
+     */
+    public long getOutCount() {
+        return this.outCount;
+    }
+
+    /**
+     * Gets in per second.
+     *
+     * @return the in per second
+     */
+    public double getInPerSecond() {
+        return this.inPerSecond;
+    }
+
+    /**
+     * Gets out per second.
+     *
+     * @return the out per second
+     */
+    public double getOutPerSecond() {
+        return this.outPerSecond;
+    }
+
+    /**
+     * Gets lag.
+     *
+     * @return the lag
+     */
+    public long getLag() {
+        return this.lag;
+    }
+
+    /**
+     * Gets buffer capacity.
+     *
+     * @return the buffer capacity
+     */
+    public long getBufferCapacity() {
+        return this.bufferCapacity;
+    }
+
+    /**
+     * Gets buffer occupancy.
+     *
+     * @return the buffer occupancy
+     */
+    public double getBufferOccupancy() {
+        return this.bufferOccupancy;
+    }
+
+    /**
+     * Gets processing count.
+     *
+     * @return the processing count
+     */
+    public long getProcessingCount() {
+        return this.processingCount;
+    }
+
+    /**
+     * Gets processing mean micros.
+     *
+     * @return the processing mean micros
+     */
+    public double getProcessingMeanMicros() {
+        return this.processingMeanMicros;
+    }
+
+    /**
+     * Gets processing p 99 micros.
+     *
+     * @return the processing p 99 micros
+     */
+    public double getProcessingP99Micros() {
+        return this.processingP99Micros;
+    }
+
+    /**
+     * Gets processing max micros.
+     *
+     * @return the processing max micros
+     */
+    public double getProcessingMaxMicros() {
+        return this.processingMaxMicros;
+    }
+
+    /**
+     * Gets blocked count.
+     *
+     * @return the blocked count
+     */
+    public long getBlockedCount() {
+        return this.blockedCount;
+    }
+
+    /**
+     * Gets blocked millis.
+     *
+     * @return the blocked millis
+     */
+    public double getBlockedMillis() {
+        return this.blockedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{name=%s, timestamp=%d, inCount=%d, outCount=%d, inPerSecond=%f, outPerSecond=%f, " +
+                        "lag=%d, bufferCapacity=%d, bufferOccupancy=%f, processingCount=%d, processingMeanMicros=%f, " +
+                        "processingP99Micros=%f, processingMaxMicros=%f, blockedCount=%d, blockedMillis=%f}",
+                getClass().getSimpleName(), this.name, this.timestamp, this.inCount, this.outCount, this.inPerSecond,
+                this.outPerSecond, this.lag, this.bufferCapacity, this.bufferOccupancy, this.processingCount,
+                this.processingMeanMicros, this.processingP99Micros, this.processingMaxMicros, this.blockedCount,
+                this.blockedMillis);
+    }
+}
@@ -0,0 +1,191 @@
+package kr.jm.utils.flow.processor;
+
+import kr.jm.utils.exception.JMException;
+import kr.jm.utils.flow.JMDrainable;
+import kr.jm.utils.helper.JMLog;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * The type Jm async processor.
+ * <p>
+ * Maps every item to a completable future and keeps at most max concurrency futures in flight: upstream demand
+ * starts at max concurrency and one more item is requested whenever a future completes, so no thread waits on the
+ * result. In ordered mode, results are resequenced to the input order before they are published and demand is only
+ * returned once a result has been published. A failed future, or a function that throws, is handed to the error
+ * handler with its input item instead of being published. Like a bounded Jm concurrent processor, it closes its
+ * output once the upstream has completed and every future in flight has been handled.
+ *
+ * @param <T> the type parameter
+ * @param <R> the type parameter
+ */
+public class JMAsyncProcessor<T, R> extends JMProcessor<T, R> {
+
+    private Function<T, CompletableFuture<R>> asyncFunction;
+    private int maxConcurrency;
+    private boolean ordered;
+    private BiConsumer<T, Throwable> errorHandler;
+    private Flow.Subscription subscription;
+    private long inputSequence;
+    private final JMResequencer<R> resequencer;
+    private final AtomicInteger inFlightCount;
+    private final AtomicLong errorCount;
+    private volatile boolean upstreamCompleted;
+
+    /**
+     * Instantiates a new Jm async processor.
+     *
+     * @param maxConcurrency the max concurrency
+     * @param asyncFunction  the async function
+     */
+    public JMAsyncProcessor(int maxConcurrency, Function<T, CompletableFuture<R>> asyncFunction) {
+        this(maxConcurrency, false, asyncFunction, null);
+    }
+
+    /**
+     * Instantiates a new Jm async processor.
+     * <p>
+     * A null error handler logs the failures. The transform function of the processor, used only when an item is
+     * processed directly instead of through on next, waits for the future of the item.
+     *
+     * @param maxConcurrency the max concurrency
+     * @param ordered        the ordered
+     * @param asyncFunction  the async function
+     * @param errorHandler   the error handler
+     */
+    public JMAsyncProcessor(int maxConcurrency, boolean ordered, Function<T, CompletableFuture<R>> asyncFunction,
+            BiConsumer<T, Throwable> errorHandler) {
+        super(item -> asyncFunction.apply(item).join());
+        this.asyncFunction = asyncFunction;
+        this.maxConcurrency = Math.max(maxConcurrency, 1);
+        this.ordered = ordered;
+        this.errorHandler = Objects.nonNull(errorHandler) ? errorHandler :
+                (item, throwable) -> JMException.handleException(log, throwable, "onNext", item);
+        this.resequencer = new JMResequencer<>();
+        this.inFlightCount = new AtomicInteger();
+        this.errorCount = new AtomicLong();
+    }
+
+    /**
+     * Is ordered boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isOrdered() {
+        return this.ordered;
+    }
+
+    /**
+     * Gets max concurrency.
+     *
+     * @return the max concurrency
+     */
+    public int getMaxConcurrency() {
+        return this.maxConcurrency;
+    }
+
+    /**
+     * Gets in flight count.
+     *
+     * @return the in flight count
+     */
+    public int getInFlightCount() {
+        return this.inFlightCount.get();
+    }
+
+    /**
+     * Gets error count.
+     *
+     * @return the error count
+     */
+    public long getErrorCount() {
+        return this.errorCount.get();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        JMLog.info(log, "onSubscribe", subscription, this.maxConcurrency, this.ordered);
+        (this.subscription = subscription).request(this.maxConcurrency);
+    }
+
+    @Override
+    public void onNext(T item) {
+        JMLog.debug(log, "onNext", item);
+        long sequence = this.inputSequence++;
+        this.inFlightCount.incrementAndGet();
+        applyAsyncFunction(item).whenComplete((output, throwable) -> {
+            if (Objects.nonNull(throwable))
+                handleError(item, throwable);
+            if (this.ordered)
+                resequenceAndPublish(sequence, Objects.isNull(throwable) ? output : null);
+            else {
+                if (Objects.isNull(throwable) && Objects.nonNull(output))
+                    publish(output);
+                completeInFlight(1);
+            }
+        });
+    }
+
+    private void completeInFlight(int count) {
+        if (JMDrainable.decrementAndSignal(this.inFlightCount, count) == 0 && this.upstreamCompleted)
+            closeOutput();
+        else
+            this.subscription.request(count);
+    }
+
+    private synchronized void closeOutput() {
+        JMLog.info(log, "closeOutput");
+        super.close();
+    }
+
+    @Override
+    public void onComplete() {
+        JMLog.info(log, "onComplete", this.inFlightCount.get());
+        this.upstreamCompleted = true;
+        if (this.inFlightCount.get() == 0)
+            closeOutput();
+    }
+
+    private CompletableFuture<R> applyAsyncFunction(T item) {
+        try {
+            return Objects.requireNonNull(this.asyncFunction.apply(item));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void handleError(T item, Throwable throwable) {
+        this.errorCount.incrementAndGet();
+        try {
+            this.errorHandler.accept(item, throwable instanceof CompletionException &&
+                    Objects.nonNull(throwable.getCause()) ? throwable.getCause() : throwable);
+        } catch (Exception e) {
+            JMException.handleException(log, e, "handleError", item);
+        }
+    }
+
+    private void resequenceAndPublish(long sequence, R output) {
+        int releasedCount = this.resequencer.release(sequence, output, this::publish);
+        if (releasedCount > 0)
+            completeInFlight(releasedCount);
+    }
+
+    @Override
+    protected long drainInFlight(long deadlineNanos) {
+        JMDrainable.awaitZero(this.inFlightCount, deadlineNanos);
+        return this.inFlightCount.get() + super.drainInFlight(deadlineNanos);
+    }
+
+    @Override
+    public void close() {
+        JMLog.info(log, "close", this.inFlightCount.get());
+        closeAndDrain(getCloseTimeout());
+    }
+}
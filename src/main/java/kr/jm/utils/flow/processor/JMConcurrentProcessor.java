@@ -1,13 +1,24 @@
 package kr.jm.utils.flow.processor;
 
 import kr.jm.utils.JMThread;
+import kr.jm.utils.flow.JMDrainable;
 import kr.jm.utils.helper.JMLog;
 
+import java.util.Objects;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 /**
  * The type Jm concurrent processor.
+ * <p>
+ * With a positive max in flight, upstream demand is limited to the free in-flight slots, so the thread pool queue
+ * never holds more than max in flight items. In ordered mode, results are resequenced to the input order before
+ * they are published and demand is only returned once a result has been published. In both modes the processor
+ * closes its output once the upstream has completed and every item in flight has been published.
  *
  * @param <T> the type parameter
  * @param <R> the type parameter
@@ -16,6 +27,13 @@ public class JMConcurrentProcessor<T, R> extends
         JMProcessor<T, R> {
 
     private ExecutorService executorService;
+    private int maxInFlight;
+    private boolean ordered;
+    private Flow.Subscription subscription;
+    private long inputSequence;
+    private final JMResequencer<R> resequencer;
+    private final AtomicInteger inFlightCount;
+    private volatile boolean upstreamCompleted;
 
     /**
      * Instantiates a new Jm concurrent processor.
@@ -25,18 +43,155 @@ public class JMConcurrentProcessor<T, R> extends
      */
     public JMConcurrentProcessor(int workers,
             Function<T, R> transformerFunction) {
+        this(workers, 0, false, transformerFunction);
+    }
+
+    /**
+     * Instantiates a new Jm concurrent processor.
+     *
+     * @param workers             the workers
+     * @param maxInFlight         the max in flight
+     * @param ordered             the ordered
+     * @param transformerFunction the transformer function
+     */
+    public JMConcurrentProcessor(int workers, int maxInFlight, boolean ordered,
+            Function<T, R> transformerFunction) {
+        this(JMThread.newThreadPool(workers), maxInFlight, ordered, transformerFunction);
+    }
+
+    /**
+     * Instantiates a new Jm concurrent processor.
+     *
+     * @param executorService     the executor service
+     * @param maxInFlight         the max in flight
+     * @param ordered             the ordered
+     * @param transformerFunction the transformer function
+     */
+    public JMConcurrentProcessor(ExecutorService executorService, int maxInFlight, boolean ordered,
+            Function<T, R> transformerFunction) {
         super(transformerFunction);
-        this.executorService = JMThread.newThreadPool(workers);
+        this.executorService = executorService;
+        this.maxInFlight = maxInFlight;
+        this.ordered = maxInFlight > 0 && ordered;
+        this.resequencer = new JMResequencer<>();
+        this.inFlightCount = new AtomicInteger();
+    }
+
+    /**
+     * Is bounded boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isBounded() {
+        return this.maxInFlight > 0;
+    }
+
+    /**
+     * Is ordered boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isOrdered() {
+        return this.ordered;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (!isBounded()) {
+            super.onSubscribe(subscription);
+            return;
+        }
+        JMLog.info(log, "onSubscribe", subscription, this.maxInFlight, this.ordered);
+        (this.subscription = subscription).request(this.maxInFlight);
+    }
+
+    @Override
+    public void onNext(T item) {
+        if (!isBounded()) {
+            super.onNext(item);
+            return;
+        }
+        JMLog.debug(log, "onNext", item);
+        long sequence = this.inputSequence++;
+        this.inFlightCount.incrementAndGet();
+        this.executorService.execute(() -> transform(item, output -> {
+            if (this.ordered)
+                resequenceAndPublish(sequence, output);
+            else {
+                if (Objects.nonNull(output))
+                    publish(output);
+                completeInFlight(1);
+            }
+        }));
+    }
+
+    private void completeInFlight(int count) {
+        if (JMDrainable.decrementAndSignal(this.inFlightCount, count) == 0 && this.upstreamCompleted)
+            closeOutput();
+        else if (isBounded())
+            this.subscription.request(count);
+    }
+
+    private synchronized void closeOutput() {
+        JMLog.info(log, "closeOutput");
+        super.close();
+    }
+
+    @Override
+    public void onComplete() {
+        JMLog.info(log, "onComplete", this.inFlightCount.get());
+        this.upstreamCompleted = true;
+        if (this.inFlightCount.get() == 0)
+            closeOutput();
+    }
+
+    /**
+     * Gets in flight count.
+     *
+     * @return the in flight count
+     */
+    public int getInFlightCount() {
+        return this.inFlightCount.get();
+    }
+
+    private void resequenceAndPublish(long sequence, R output) {
+        int releasedCount = this.resequencer.release(sequence, output, this::publish);
+        if (releasedCount > 0)
+            completeInFlight(releasedCount);
     }
 
     @Override
     protected void process(T input) {
-        this.executorService.submit(() -> super.process(input));
+        this.inFlightCount.incrementAndGet();
+        this.executorService.execute(() -> transform(input, output -> {
+            if (Objects.nonNull(output))
+                publish(output);
+            completeInFlight(1);
+        }));
+    }
+
+    @Override
+    protected long drainInFlight(long deadlineNanos) {
+        long lostCount = 0;
+        if (!JMDrainable.awaitZero(this.inFlightCount, deadlineNanos))
+            lostCount = this.inFlightCount.get();
+        if (!(this.executorService instanceof ForkJoinPool)) {
+            this.executorService.shutdown();
+            try {
+                if (!this.executorService.awaitTermination(Math.max(deadlineNanos - System.nanoTime(), 0),
+                        TimeUnit.NANOSECONDS))
+                    this.executorService.shutdownNow();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return lostCount + super.drainInFlight(deadlineNanos);
     }
 
     @Override
     public void close() {
         JMLog.info(log, "close");
+        this.executorService.shutdown();
         JMThread.awaitTermination(this.executorService, 3000);
         super.close();
     }
@@ -0,0 +1,252 @@
+package kr.jm.utils.flow.processor;
+
+import kr.jm.utils.exception.JMException;
+import kr.jm.utils.helper.JMLog;
+import org.slf4j.Logger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * The type Jm conflating processor.
+ * <p>
+ * Keeps only the latest pending item per key for every subscriber and emits it when the subscriber has demand, so
+ * a slow subscriber skips the stale updates instead of buffering them and the memory it holds is bounded by the
+ * number of keys. Upstream is requested without bound and never waits on the subscribers. Keys are emitted in the
+ * order they became pending, and a key updated again before it is emitted keeps its place with the newer item.
+ *
+ * @param <T> the type parameter
+ * @param <K> the type parameter
+ */
+public class JMConflatingProcessor<T, K> implements JMProcessorInterface<T, T>, AutoCloseable {
+
+    /**
+     * The Log.
+     */
+    protected final Logger log = org.slf4j.LoggerFactory.getLogger(getClass());
+
+    private final Function<T, K> keyFunction;
+    private final Executor executor;
+    private final List<ConflatingSubscription> subscriptionList;
+    private final LongAdder conflatedCount;
+    private volatile boolean completed;
+    private volatile Throwable terminalThrowable;
+    private Flow.Subscription subscription;
+
+    /**
+     * Instantiates a new Jm conflating processor.
+     *
+     * @param keyFunction the key function
+     */
+    public JMConflatingProcessor(Function<T, K> keyFunction) {
+        this(keyFunction, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Instantiates a new Jm conflating processor.
+     *
+     * @param keyFunction the key function
+     * @param executor    the executor
+     */
+    public JMConflatingProcessor(Function<T, K> keyFunction, Executor executor) {
+        this.keyFunction = Objects.requireNonNull(keyFunction);
+        this.executor = Objects.requireNonNull(executor);
+        this.subscriptionList = new CopyOnWriteArrayList<>();
+        this.conflatedCount = new LongAdder();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        JMLog.info(log, "onSubscribe", subscription);
+        (this.subscription = subscription).request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(T item) {
+        JMLog.debug(log, "onNext", item);
+        K key;
+        try {
+            key = Objects.requireNonNull(this.keyFunction.apply(item));
+        } catch (Exception e) {
+            JMException.handleException(log, e, "onNext", item);
+            return;
+        }
+        for (ConflatingSubscription conflatingSubscription : this.subscriptionList)
+            conflatingSubscription.offer(key, item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        JMException.handleException(log, throwable, "onError");
+        this.terminalThrowable = throwable;
+        this.completed = true;
+        this.subscriptionList.forEach(ConflatingSubscription::signal);
+    }
+
+    @Override
+    public void onComplete() {
+        JMLog.info(log, "onComplete");
+        this.completed = true;
+        this.subscriptionList.forEach(ConflatingSubscription::signal);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber);
+        JMLog.info(log, "subscribe", subscriber);
+        ConflatingSubscription conflatingSubscription = new ConflatingSubscription(subscriber);
+        this.subscriptionList.add(conflatingSubscription);
+        subscriber.onSubscribe(conflatingSubscription);
+        if (this.completed)
+            conflatingSubscription.signal();
+    }
+
+    /**
+     * Gets pending count.
+     *
+     * @return the largest number of keys pending for a subscriber
+     */
+    public int getPendingCount() {
+        return this.subscriptionList.stream().mapToInt(ConflatingSubscription::getPendingCount).max().orElse(0);
+    }
+
+    /**
+     * Gets conflated count.
+     *
+     * @return the number of items replaced by a newer item before they were emitted
+     */
+    public long getConflatedCount() {
+        return this.conflatedCount.sum();
+    }
+
+    /**
+     * Gets number of subscribers.
+     *
+     * @return the number of subscribers
+     */
+    public int getNumberOfSubscribers() {
+        return this.subscriptionList.size();
+    }
+
+    /**
+     * Close.
+     * <p>
+     * Cancels the upstream subscription, and subscribers receive their pending items and then on complete.
+     */
+    @Override
+    public void close() {
+        JMLog.info(log, "close", getPendingCount(), getConflatedCount());
+        if (Objects.nonNull(this.subscription))
+            this.subscription.cancel();
+        onComplete();
+    }
+
+    private class ConflatingSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final Map<K, T> pendingMap;
+        private final Queue<K> pendingKeyQueue;
+        private final AtomicLong demand;
+        private final AtomicInteger drainRequestCount;
+        private final AtomicBoolean terminated;
+
+        private ConflatingSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+            this.pendingMap = new ConcurrentHashMap<>();
+            this.pendingKeyQueue = new ConcurrentLinkedQueue<>();
+            this.demand = new AtomicLong();
+            this.drainRequestCount = new AtomicInteger();
+            this.terminated = new AtomicBoolean();
+        }
+
+        private void offer(K key, T item) {
+            if (Objects.isNull(this.pendingMap.put(key, item)))
+                this.pendingKeyQueue.offer(key);
+            else
+                conflatedCount.increment();
+            signal();
+        }
+
+        private int getPendingCount() {
+            return this.pendingMap.size();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                terminate(new IllegalArgumentException("non-positive subscription request - " + n));
+                return;
+            }
+            this.demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE :
+                    current + added);
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            if (this.terminated.compareAndSet(false, true)) {
+                subscriptionList.remove(this);
+                this.pendingMap.clear();
+                this.pendingKeyQueue.clear();
+            }
+        }
+
+        private void signal() {
+            if (this.drainRequestCount.getAndIncrement() == 0)
+                executor.execute(this::drain);
+        }
+
+        private void drain() {
+            int drainRequests = this.drainRequestCount.get();
+            do {
+                emitPending();
+                if (this.terminated.get())
+                    return;
+                if (completed && this.pendingKeyQueue.isEmpty()) {
+                    terminate(terminalThrowable);
+                    return;
+                }
+            } while ((drainRequests = this.drainRequestCount.addAndGet(-drainRequests)) != 0);
+        }
+
+        private void emitPending() {
+            K key;
+            while (!this.terminated.get() && this.demand.get() > 0 &&
+                    Objects.nonNull(key = this.pendingKeyQueue.poll())) {
+                T item = this.pendingMap.remove(key);
+                if (Objects.isNull(item))
+                    continue;
+                this.demand.decrementAndGet();
+                try {
+                    this.subscriber.onNext(item);
+                } catch (Exception e) {
+                    JMException.handleException(log, e, "emitPending", item);
+                    terminate(e);
+                }
+            }
+        }
+
+        private void terminate(Throwable throwable) {
+            if (!this.terminated.compareAndSet(false, true))
+                return;
+            subscriptionList.remove(this);
+            if (Objects.isNull(throwable))
+                this.subscriber.onComplete();
+            else
+                this.subscriber.onError(throwable);
+        }
+    }
+
+}
@@ -0,0 +1,72 @@
+package kr.jm.utils.flow.processor;
+
+/**
+ * The type Jm dead letter.
+ * <p>
+ * An item that still failed after its retries, with the last throwable and the number of attempts.
+ *
+ * @param <T> the type parameter
+ */
+public class JMDeadLetter<T> {
+
+    private final T item;
+    private final Throwable throwable;
+    private final int attempts;
+    private final long timestamp;
+
+    /**
+     * Instantiates a new Jm dead letter.
+     *
+     * @param item      the item
+     * @param throwable the throwable
+     * @param attempts  the attempts
+     */
+    public JMDeadLetter(T item, Throwable throwable, int attempts) {
+        this.item = item;
+        this.throwable = throwable;
+        this.attempts = attempts;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    /**
+     * Gets item.
+     *
+     * @return the item
+     */
+    public T getItem() {
+        return this.item;
+    }
+
+    /**
+     * Gets throwable.
+     *
+     * @return the throwable
+     */
+    public Throwable getThrowable() {
+        return this.throwable;
+    }
+
+    /**
+     * Gets attempts.
+     *
+     * @return the attempts
+     */
+    public int getAttempts() {
+        return this.attempts;
+    }
+
+    /**
+     * Gets timestamp.
+     *
+     * @return the timestamp
+     */
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "JMDeadLetter{" + "item=" + item + ", throwable=" + throwable + ", attempts=" + attempts +
+                ", timestamp=" + timestamp + '}';
+    }
+}
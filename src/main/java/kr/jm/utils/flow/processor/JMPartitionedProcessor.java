@@ -0,0 +1,164 @@
+package kr.jm.utils.flow.processor;
+
+import kr.jm.utils.JMThread;
+import kr.jm.utils.flow.JMDrainable;
+import kr.jm.utils.helper.JMLog;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The type Jm partitioned processor.
+ * <p>
+ * Items are routed by the hash of their key to one of the single threaded lanes, so items with the same key are
+ * transformed and published in arrival order while different keys run in parallel. On next only buffers the item in
+ * its lane and never blocks, so a hot lane cannot stall the others. Lane queue size items per lane are requested up
+ * front and a lane gives its demand back when it finishes an item while it has a free slot; a lane that is over its
+ * lane queue size keeps the demand until it drains below it, so the items buffered in all lanes never exceed the
+ * lanes times the lane queue size.
+ *
+ * @param <T> the type parameter
+ * @param <R> the type parameter
+ */
+public class JMPartitionedProcessor<T, R> extends JMProcessor<T, R> {
+
+    /**
+     * The constant DEFAULT_LANE_QUEUE_SIZE.
+     */
+    public static final int DEFAULT_LANE_QUEUE_SIZE = Flow.defaultBufferSize();
+
+    private Function<T, ?> keyFunction;
+    private List<Lane> lanes;
+    private int laneQueueSize;
+    private int maxInFlight;
+    private Flow.Subscription subscription;
+
+    /**
+     * Instantiates a new Jm partitioned processor.
+     *
+     * @param lanes               the lanes
+     * @param laneQueueSize       the lane queue size
+     * @param keyFunction         the key function
+     * @param transformerFunction the transformer function
+     */
+    public JMPartitionedProcessor(int lanes, int laneQueueSize, Function<T, ?> keyFunction,
+            Function<T, R> transformerFunction) {
+        super(transformerFunction);
+        this.keyFunction = keyFunction;
+        this.laneQueueSize = Math.max(laneQueueSize, 1);
+        this.lanes = IntStream.range(0, Math.max(lanes, 1)).mapToObj(i -> new Lane()).collect(Collectors.toList());
+        this.maxInFlight = this.lanes.size() * this.laneQueueSize;
+    }
+
+    /**
+     * Gets lane count.
+     *
+     * @return the lane count
+     */
+    public int getLaneCount() {
+        return this.lanes.size();
+    }
+
+    /**
+     * Gets lane index.
+     *
+     * @param item the item
+     * @return the lane index
+     */
+    public int getLaneIndex(T item) {
+        int hash = Objects.hashCode(this.keyFunction.apply(item));
+        return Math.floorMod(hash ^ (hash >>> 16), this.lanes.size());
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        JMLog.info(log, "onSubscribe", subscription, this.lanes.size(), this.maxInFlight);
+        (this.subscription = subscription).request(this.maxInFlight);
+    }
+
+    @Override
+    public void onNext(T item) {
+        JMLog.debug(log, "onNext", item);
+        this.lanes.get(getLaneIndex(item)).buffer(item);
+    }
+
+    /**
+     * Gets lane buffered count.
+     *
+     * @param laneIndex the lane index
+     * @return the lane buffered count
+     */
+    public int getLaneBufferedCount(int laneIndex) {
+        return this.lanes.get(laneIndex).bufferedCount.get();
+    }
+
+    @Override
+    protected long drainInFlight(long deadlineNanos) {
+        long lostCount = 0;
+        for (Lane lane : this.lanes)
+            lane.executorService.shutdown();
+        for (Lane lane : this.lanes)
+            try {
+                if (!lane.executorService.awaitTermination(Math.max(deadlineNanos - System.nanoTime(), 0),
+                        TimeUnit.NANOSECONDS))
+                    lostCount += lane.executorService.shutdownNow().size();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                lostCount += lane.executorService.shutdownNow().size();
+            }
+        return lostCount + super.drainInFlight(deadlineNanos);
+    }
+
+    @Override
+    public void close() {
+        JMLog.info(log, "close");
+        for (Lane lane : this.lanes) {
+            lane.executorService.shutdown();
+            JMThread.awaitTermination(lane.executorService, 3000);
+        }
+        super.close();
+    }
+
+    private class Lane {
+        private final ExecutorService executorService = JMThread.newThreadPool(1);
+        private final AtomicInteger bufferedCount = new AtomicInteger();
+        private int keptDemand;
+
+        private void buffer(T item) {
+            this.bufferedCount.incrementAndGet();
+            this.executorService.execute(() -> {
+                CompletableFuture<Void> processedFuture = new CompletableFuture<>();
+                try {
+                    transform(item, output -> {
+                        try {
+                            if (Objects.nonNull(output))
+                                publish(output);
+                        } finally {
+                            processedFuture.complete(null);
+                        }
+                    });
+                    processedFuture.join();
+                } finally {
+                    complete();
+                }
+            });
+        }
+
+        private void complete() {
+            if (this.bufferedCount.decrementAndGet() >= laneQueueSize) {
+                this.keptDemand++;
+                return;
+            }
+            subscription.request(1 + this.keptDemand);
+            this.keptDemand = 0;
+        }
+    }
+}
@@ -1,23 +1,43 @@
 package kr.jm.utils.flow.processor;
 
-import kr.jm.utils.exception.JMException;
+import kr.jm.utils.JMThread;
+import kr.jm.utils.exception.JMErrorSampler;
+import kr.jm.utils.flow.JMDrainable;
+import kr.jm.utils.flow.metrics.JMFlowMetrics;
 import kr.jm.utils.flow.publisher.JMSubmissionPublisher;
 import kr.jm.utils.flow.subscriber.JMSubscriber;
 import kr.jm.utils.flow.subscriber.JMSubscriberBuilder;
 import kr.jm.utils.helper.JMLog;
 import org.slf4j.Logger;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
  * The type Jm processor.
+ * <p>
+ * When a plain Jm processor subscribes another plain Jm processor, the two stages are fused: the downstream
+ * transform runs inline on the upstream thread instead of going through a second submission publisher, so a chain
+ * of synchronous map stages costs a single hop.
+ * <p>
+ * An item whose transform throws is retried with the retry policy when one is enabled. The retries wait on the
+ * shared scheduler and run on the common pool, so no worker blocks on a backoff, and a retried result is published
+ * when it is ready, out of the input order. An item that still fails is logged through the error sampler and
+ * submitted to the dead letter publisher when one is enabled.
  *
  * @param <T> the type parameter
  * @param <R> the type parameter
  */
-public class JMProcessor<T, R> implements JMProcessorInterface<T, R>, AutoCloseable {
+public class JMProcessor<T, R> implements JMProcessorInterface<T, R>, JMDrainable {
     /**
      * The Log.
      */
@@ -26,6 +46,13 @@ public class JMProcessor<T, R> implements JMProcessorInterface<T, R>, AutoClosea
     private Function<T, R> transformFunction;
     private JMSubmissionPublisher<R> outputPublisher;
     private JMSubscriber<T> inputSubscriber;
+    private List<JMProcessor<? super R, ?>> fusedProcessorList;
+    private JMFlowMetrics metrics;
+    private JMRetryPolicy retryPolicy;
+    private JMSubmissionPublisher<JMDeadLetter<T>> deadLetterPublisher;
+    private JMErrorSampler errorSampler;
+    private final AtomicInteger retryingCount = new AtomicInteger();
+    private Duration closeTimeout = Duration.ofSeconds(3);
 
     /**
      * Instantiates a new Jm processor.
@@ -36,6 +63,8 @@ public class JMProcessor<T, R> implements JMProcessorInterface<T, R>, AutoClosea
         this.transformFunction = transformFunction;
         this.outputPublisher = new JMSubmissionPublisher<>();
         this.inputSubscriber = JMSubscriberBuilder.build(this::process);
+        this.fusedProcessorList = new CopyOnWriteArrayList<>();
+        this.errorSampler = new JMErrorSampler(log, 0);
     }
 
     /**
@@ -44,12 +73,85 @@ public class JMProcessor<T, R> implements JMProcessorInterface<T, R>, AutoClosea
      * @param input the input
      */
     protected void process(T input) {
+        transform(input, output -> Optional.ofNullable(output).ifPresent(this::publish));
+    }
+
+    /**
+     * Transform.
+     * <p>
+     * Hands the output to the output consumer exactly once: right away when the transform succeeds, after the last
+     * retry when it is retried, and as null when the item was given up, so the caller can keep the slot or the
+     * sequence of the item until its final result.
+     *
+     * @param input          the input
+     * @param outputConsumer the output consumer
+     */
+    protected void transform(T input, Consumer<R> outputConsumer) {
+        R output;
+        long startNanos = 0;
+        if (Objects.nonNull(this.metrics)) {
+            this.metrics.recordIn();
+            startNanos = System.nanoTime();
+        }
         try {
-            Optional.ofNullable(this.transformFunction.apply(input))
-                    .ifPresent(this.outputPublisher::submit);
+            output = this.transformFunction.apply(input);
         } catch (Exception e) {
-            JMException.handleException(log, e, "process", input);
+            handleFailure(input, e, 0, outputConsumer);
+            return;
+        } finally {
+            if (Objects.nonNull(this.metrics))
+                this.metrics.recordProcessingSince(startNanos);
         }
+        outputConsumer.accept(output);
+    }
+
+    private void handleFailure(T input, Exception exception, int retries, Consumer<R> outputConsumer) {
+        if (Objects.nonNull(this.retryPolicy) && this.retryPolicy.isRetryable(retries, exception)) {
+            scheduleRetry(input, retries + 1, outputConsumer);
+            return;
+        }
+        this.errorSampler.handleException(exception, "process", input);
+        if (Objects.nonNull(this.deadLetterPublisher))
+            this.deadLetterPublisher.submit(new JMDeadLetter<>(input, exception, retries + 1));
+        outputConsumer.accept(null);
+    }
+
+    private void scheduleRetry(T input, int retry, Consumer<R> outputConsumer) {
+        long backoffMillis = this.retryPolicy.getBackoffMillis(retry);
+        JMLog.debug(log, "scheduleRetry", input, retry, backoffMillis);
+        this.retryingCount.incrementAndGet();
+        JMThread.getSharedScheduler().schedule(
+                () -> ForkJoinPool.commonPool().execute(() -> retry(input, retry, outputConsumer)), backoffMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    private void retry(T input, int retry, Consumer<R> outputConsumer) {
+        try {
+            R output;
+            try {
+                output = this.transformFunction.apply(input);
+            } catch (Exception e) {
+                handleFailure(input, e, retry, outputConsumer);
+                return;
+            }
+            outputConsumer.accept(output);
+        } finally {
+            JMDrainable.decrementAndSignal(this.retryingCount, 1);
+        }
+    }
+
+    /**
+     * Publish.
+     *
+     * @param output the output
+     */
+    protected void publish(R output) {
+        if (Objects.nonNull(this.metrics))
+            this.metrics.recordOut();
+        for (JMProcessor<? super R, ?> fusedProcessor : this.fusedProcessorList)
+            fusedProcessor.process(output);
+        if (this.fusedProcessorList.isEmpty() || this.outputPublisher.hasSubscribers())
+            this.outputPublisher.submit(output);
     }
 
     @Override
@@ -77,13 +179,173 @@ public class JMProcessor<T, R> implements JMProcessorInterface<T, R>, AutoClosea
 
     @Override
     public void subscribe(Flow.Subscriber<? super R> subscriber) {
+        if (isFusible(subscriber)) {
+            JMLog.info(log, "fuse", subscriber);
+            this.fusedProcessorList.add((JMProcessor<? super R, ?>) subscriber);
+            return;
+        }
         JMLog.info(log, "subscribe", subscriber);
         this.outputPublisher.subscribe(subscriber);
     }
 
+    private boolean isFusible(Flow.Subscriber<? super R> subscriber) {
+        return getClass() == JMProcessor.class && subscriber.getClass() == JMProcessor.class;
+    }
+
+    /**
+     * Enable metrics jm flow metrics.
+     *
+     * @param name the name
+     * @return the jm flow metrics
+     */
+    public synchronized JMFlowMetrics enableMetrics(String name) {
+        if (Objects.isNull(this.metrics))
+            this.metrics = new JMFlowMetrics(name)
+                    .withLagSupplier(this.outputPublisher::estimateMaximumLag,
+                            this.outputPublisher::getMaxBufferCapacity);
+        return this.metrics;
+    }
+
+    /**
+     * Gets metrics optional.
+     *
+     * @return the metrics optional
+     */
+    public Optional<JMFlowMetrics> getMetricsOptional() {
+        return Optional.ofNullable(this.metrics);
+    }
+
+    /**
+     * Enable retry jm retry policy.
+     * <p>
+     * A retried item keeps its place until its last retry: a bounded concurrent processor keeps its in flight slot,
+     * an ordered one holds back the later results, and a partitioned processor holds its lane.
+     *
+     * @param retryPolicy the retry policy
+     * @return the jm retry policy
+     */
+    public synchronized JMRetryPolicy enableRetry(JMRetryPolicy retryPolicy) {
+        return this.retryPolicy = Objects.requireNonNull(retryPolicy);
+    }
+
+    /**
+     * Gets retry policy optional.
+     *
+     * @return the retry policy optional
+     */
+    public Optional<JMRetryPolicy> getRetryPolicyOptional() {
+        return Optional.ofNullable(this.retryPolicy);
+    }
+
+    /**
+     * Gets retrying count.
+     *
+     * @return the number of items waiting for or running a retry
+     */
+    public int getRetryingCount() {
+        return this.retryingCount.get();
+    }
+
+    /**
+     * Enable dead letter jm submission publisher.
+     *
+     * @return the jm submission publisher
+     */
+    public synchronized JMSubmissionPublisher<JMDeadLetter<T>> enableDeadLetter() {
+        if (Objects.isNull(this.deadLetterPublisher))
+            this.deadLetterPublisher = new JMSubmissionPublisher<>();
+        return this.deadLetterPublisher;
+    }
+
+    /**
+     * Gets dead letter publisher optional.
+     *
+     * @return the dead letter publisher optional
+     */
+    public Optional<JMSubmissionPublisher<JMDeadLetter<T>>> getDeadLetterPublisherOptional() {
+        return Optional.ofNullable(this.deadLetterPublisher);
+    }
+
+    /**
+     * Enable error sampling jm error sampler.
+     *
+     * @param samplingIntervalMillis the sampling interval millis
+     * @return the jm error sampler
+     */
+    public synchronized JMErrorSampler enableErrorSampling(long samplingIntervalMillis) {
+        return this.errorSampler = new JMErrorSampler(log, samplingIntervalMillis);
+    }
+
+    /**
+     * Gets error sampler.
+     *
+     * @return the error sampler
+     */
+    public JMErrorSampler getErrorSampler() {
+        return this.errorSampler;
+    }
+
+    /**
+     * Gets close timeout.
+     *
+     * @return the close timeout
+     */
+    public Duration getCloseTimeout() {
+        return this.closeTimeout;
+    }
+
+    /**
+     * Sets close timeout.
+     * <p>
+     * The timeout close and drain is given when close is called on a processor that waits for its items in flight,
+     * 3 seconds by default.
+     *
+     * @param closeTimeout the close timeout
+     */
+    public void setCloseTimeout(Duration closeTimeout) {
+        this.closeTimeout = Objects.requireNonNull(closeTimeout);
+    }
+
+    /**
+     * Close and drain long.
+     * <p>
+     * Waits for the items in flight, including the ones waiting for a retry, then drains the output and the dead
+     * letter publishers.
+     *
+     * @param timeout the timeout
+     * @return the number of items lost
+     */
+    @Override
+    public long closeAndDrain(Duration timeout) {
+        JMLog.info(log, "closeAndDrain", timeout);
+        long deadlineNanos = JMDrainable.getDeadlineNanos(timeout);
+        long lostCount = drainInFlight(deadlineNanos);
+        lostCount += this.outputPublisher.closeAndDrain(JMDrainable.getRemaining(deadlineNanos));
+        if (Objects.nonNull(this.deadLetterPublisher))
+            lostCount += this.deadLetterPublisher.closeAndDrain(JMDrainable.getRemaining(deadlineNanos));
+        if (lostCount > 0)
+            JMLog.warn(log, "closeAndDrain", timeout, lostCount);
+        return lostCount;
+    }
+
+    /**
+     * Drain in flight long.
+     * <p>
+     * Waits until the items accepted but not yet published are done or the deadline passes.
+     *
+     * @param deadlineNanos the deadline nanos
+     * @return the number of items still in flight
+     */
+    protected long drainInFlight(long deadlineNanos) {
+        JMDrainable.awaitZero(this.retryingCount, deadlineNanos);
+        return this.retryingCount.get();
+    }
+
     @Override
     public void close() {
         JMLog.info(log, "close");
         this.outputPublisher.close();
+        if (Objects.nonNull(this.deadLetterPublisher))
+            this.deadLetterPublisher.close();
     }
 }
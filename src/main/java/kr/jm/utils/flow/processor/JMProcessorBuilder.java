@@ -2,9 +2,13 @@ package kr.jm.utils.flow.processor;
 
 import kr.jm.utils.enums.OS;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Flow;
 import java.util.concurrent.Flow.Processor;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
 /**
  * The type Jm processor builder.
@@ -88,4 +92,273 @@ public class JMProcessorBuilder {
             int workers, Function<I, O> transformerFunction) {
         return new JMConcurrentProcessor<>(workers, transformerFunction);
     }
+
+    /**
+     * Build with thread pool jm concurrent processor.
+     *
+     * @param <I>                 the type parameter
+     * @param <O>                 the type parameter
+     * @param workers             the workers
+     * @param maxInFlight         the max in flight
+     * @param ordered             the ordered
+     * @param transformerFunction the transformer function
+     * @return the jm concurrent processor
+     */
+    public static <I, O> JMConcurrentProcessor<I, O> buildWithThreadPool(int workers, int maxInFlight,
+            boolean ordered, Function<I, O> transformerFunction) {
+        return new JMConcurrentProcessor<>(workers, maxInFlight, ordered, transformerFunction);
+    }
+
+    /**
+     * Build partitioned jm partitioned processor.
+     *
+     * @param <I>                 the type parameter
+     * @param <O>                 the type parameter
+     * @param keyFunction         the key function
+     * @param transformerFunction the transformer function
+     * @return the jm partitioned processor
+     */
+    public static <I, O> JMPartitionedProcessor<I, O> buildPartitioned(Function<I, ?> keyFunction,
+            Function<I, O> transformerFunction) {
+        return buildPartitioned(OS.getAvailableProcessors(), JMPartitionedProcessor.DEFAULT_LANE_QUEUE_SIZE,
+                keyFunction, transformerFunction);
+    }
+
+    /**
+     * Build partitioned jm partitioned processor.
+     *
+     * @param <I>                 the type parameter
+     * @param <O>                 the type parameter
+     * @param lanes               the lanes
+     * @param laneQueueSize       the lane queue size
+     * @param keyFunction         the key function
+     * @param transformerFunction the transformer function
+     * @return the jm partitioned processor
+     */
+    public static <I, O> JMPartitionedProcessor<I, O> buildPartitioned(int lanes, int laneQueueSize,
+            Function<I, ?> keyFunction, Function<I, O> transformerFunction) {
+        return new JMPartitionedProcessor<>(lanes, laneQueueSize, keyFunction, transformerFunction);
+    }
+
+    /**
+     * Build async jm async processor.
+     *
+     * @param <I>            the type parameter
+     * @param <O>            the type parameter
+     * @param maxConcurrency the max concurrency
+     * @param asyncFunction  the async function
+     * @return the jm async processor
+     */
+    public static <I, O> JMAsyncProcessor<I, O> buildAsync(int maxConcurrency,
+            Function<I, CompletableFuture<O>> asyncFunction) {
+        return new JMAsyncProcessor<>(maxConcurrency, asyncFunction);
+    }
+
+    /**
+     * Build async jm async processor.
+     *
+     * @param <I>            the type parameter
+     * @param <O>            the type parameter
+     * @param maxConcurrency the max concurrency
+     * @param ordered        the ordered
+     * @param asyncFunction  the async function
+     * @param errorHandler   the error handler
+     * @return the jm async processor
+     */
+    public static <I, O> JMAsyncProcessor<I, O> buildAsync(int maxConcurrency, boolean ordered,
+            Function<I, CompletableFuture<O>> asyncFunction, BiConsumer<I, Throwable> errorHandler) {
+        return new JMAsyncProcessor<>(maxConcurrency, ordered, asyncFunction, errorHandler);
+    }
+
+    /**
+     * Build conflating jm conflating processor.
+     *
+     * @param <I>         the type parameter
+     * @param <K>         the type parameter
+     * @param keyFunction the key function
+     * @return the jm conflating processor
+     */
+    public static <I, K> JMConflatingProcessor<I, K> buildConflating(Function<I, K> keyFunction) {
+        return new JMConflatingProcessor<>(keyFunction);
+    }
+
+    /**
+     * Build conflating jm conflating processor.
+     *
+     * @param <I>         the type parameter
+     * @param <K>         the type parameter
+     * @param keyFunction the key function
+     * @param executor    the executor
+     * @return the jm conflating processor
+     */
+    public static <I, K> JMConflatingProcessor<I, K> buildConflating(Function<I, K> keyFunction,
+            Executor executor) {
+        return new JMConflatingProcessor<>(keyFunction, executor);
+    }
+
+    /**
+     * Build throttling jm throttling processor.
+     *
+     * @param <I>           the type parameter
+     * @param ratePerSecond the rate per second
+     * @param burstCapacity the burst capacity
+     * @return the jm throttling processor
+     */
+    public static <I> JMThrottlingProcessor<I> buildThrottling(double ratePerSecond, int burstCapacity) {
+        return new JMThrottlingProcessor<>(ratePerSecond, burstCapacity);
+    }
+
+    /**
+     * Build throttling jm throttling processor.
+     *
+     * @param <I>              the type parameter
+     * @param ratePerSecond    the rate per second
+     * @param burstCapacity    the burst capacity
+     * @param keyFunction      the key function
+     * @param keyRatePerSecond the key rate per second
+     * @param keyBurstCapacity the key burst capacity
+     * @return the jm throttling processor
+     */
+    public static <I> JMThrottlingProcessor<I> buildThrottling(double ratePerSecond, int burstCapacity,
+            Function<I, ?> keyFunction, double keyRatePerSecond, int keyBurstCapacity) {
+        return new JMThrottlingProcessor<>(ratePerSecond, burstCapacity, keyFunction, keyRatePerSecond,
+                keyBurstCapacity);
+    }
+
+    /**
+     * Build tumbling window jm window processor.
+     *
+     * @param <I>         the type parameter
+     * @param <A>         the type parameter
+     * @param <O>         the type parameter
+     * @param sizeMillis  the size millis
+     * @param accumulator the accumulator
+     * @return the jm window processor
+     */
+    public static <I, A, O> JMWindowProcessor<I, A, O> buildTumblingWindow(long sizeMillis,
+            JMWindowAccumulator<I, A, O> accumulator) {
+        return buildTumblingWindow(sizeMillis, null, 0, accumulator);
+    }
+
+    /**
+     * Build tumbling window jm window processor.
+     *
+     * @param <I>                   the type parameter
+     * @param <A>                   the type parameter
+     * @param <O>                   the type parameter
+     * @param sizeMillis            the size millis
+     * @param timestampFunction     the timestamp function
+     * @param allowedLatenessMillis the allowed lateness millis
+     * @param accumulator           the accumulator
+     * @return the jm window processor
+     */
+    public static <I, A, O> JMWindowProcessor<I, A, O> buildTumblingWindow(long sizeMillis,
+            ToLongFunction<I> timestampFunction, long allowedLatenessMillis,
+            JMWindowAccumulator<I, A, O> accumulator) {
+        return new JMWindowProcessor<>(JMWindowProcessor.WindowType.TUMBLING, sizeMillis, sizeMillis,
+                timestampFunction, allowedLatenessMillis, accumulator);
+    }
+
+    /**
+     * Build sliding window jm window processor.
+     *
+     * @param <I>         the type parameter
+     * @param <A>         the type parameter
+     * @param <O>         the type parameter
+     * @param sizeMillis  the size millis
+     * @param slideMillis the slide millis
+     * @param accumulator the accumulator
+     * @return the jm window processor
+     */
+    public static <I, A, O> JMWindowProcessor<I, A, O> buildSlidingWindow(long sizeMillis, long slideMillis,
+            JMWindowAccumulator<I, A, O> accumulator) {
+        return buildSlidingWindow(sizeMillis, slideMillis, null, 0, accumulator);
+    }
+
+    /**
+     * Build sliding window jm window processor.
+     *
+     * @param <I>                   the type parameter
+     * @param <A>                   the type parameter
+     * @param <O>                   the type parameter
+     * @param sizeMillis            the size millis
+     * @param slideMillis           the slide millis
+     * @param timestampFunction     the timestamp function
+     * @param allowedLatenessMillis the allowed lateness millis
+     * @param accumulator           the accumulator
+     * @return the jm window processor
+     */
+    public static <I, A, O> JMWindowProcessor<I, A, O> buildSlidingWindow(long sizeMillis, long slideMillis,
+            ToLongFunction<I> timestampFunction, long allowedLatenessMillis,
+            JMWindowAccumulator<I, A, O> accumulator) {
+        return new JMWindowProcessor<>(JMWindowProcessor.WindowType.SLIDING, sizeMillis, slideMillis,
+                timestampFunction, allowedLatenessMillis, accumulator);
+    }
+
+    /**
+     * Build session window jm window processor.
+     *
+     * @param <I>         the type parameter
+     * @param <A>         the type parameter
+     * @param <O>         the type parameter
+     * @param gapMillis   the gap millis
+     * @param accumulator the accumulator
+     * @return the jm window processor
+     */
+    public static <I, A, O> JMWindowProcessor<I, A, O> buildSessionWindow(long gapMillis,
+            JMWindowAccumulator<I, A, O> accumulator) {
+        return buildSessionWindow(gapMillis, null, 0, accumulator);
+    }
+
+    /**
+     * Build session window jm window processor.
+     *
+     * @param <I>                   the type parameter
+     * @param <A>                   the type parameter
+     * @param <O>                   the type parameter
+     * @param gapMillis             the gap millis
+     * @param timestampFunction     the timestamp function
+     * @param allowedLatenessMillis the allowed lateness millis
+     * @param accumulator           the accumulator
+     * @return the jm window processor
+     */
+    public static <I, A, O> JMWindowProcessor<I, A, O> buildSessionWindow(long gapMillis,
+            ToLongFunction<I> timestampFunction, long allowedLatenessMillis,
+            JMWindowAccumulator<I, A, O> accumulator) {
+        return new JMWindowProcessor<>(JMWindowProcessor.WindowType.SESSION, gapMillis, gapMillis,
+                timestampFunction, allowedLatenessMillis, accumulator);
+    }
+
+    /**
+     * Build count tumbling window jm window processor.
+     *
+     * @param <I>         the type parameter
+     * @param <A>         the type parameter
+     * @param <O>         the type parameter
+     * @param size        the size
+     * @param accumulator the accumulator
+     * @return the jm window processor
+     */
+    public static <I, A, O> JMWindowProcessor<I, A, O> buildCountTumblingWindow(long size,
+            JMWindowAccumulator<I, A, O> accumulator) {
+        return new JMWindowProcessor<>(JMWindowProcessor.WindowType.COUNT_TUMBLING, size, size, null, 0,
+                accumulator);
+    }
+
+    /**
+     * Build count sliding window jm window processor.
+     *
+     * @param <I>         the type parameter
+     * @param <A>         the type parameter
+     * @param <O>         the type parameter
+     * @param size        the size
+     * @param slide       the slide
+     * @param accumulator the accumulator
+     * @return the jm window processor
+     */
+    public static <I, A, O> JMWindowProcessor<I, A, O> buildCountSlidingWindow(long size, long slide,
+            JMWindowAccumulator<I, A, O> accumulator) {
+        return new JMWindowProcessor<>(JMWindowProcessor.WindowType.COUNT_SLIDING, size, slide, null, 0,
+                accumulator);
+    }
 }
@@ -2,7 +2,9 @@ package kr.jm.utils.flow.processor;
 
 import kr.jm.utils.flow.publisher.JMPublisherInterface;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Flow;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -46,7 +48,36 @@ public interface JMProcessorInterface<T, R> extends Flow.Processor<T, R>, JMPubl
      */
     default <O> JMProcessorInterface<R, O> subscribeAndReturnProcessorWithThreadPool(
             Function<R, O> transformerFunction) {
-        return subscribeAndReturnProcessor(JMProcessorBuilder.build(transformerFunction));
+        return subscribeAndReturnProcessor(JMProcessorBuilder.buildWithThreadPool(transformerFunction));
+    }
+
+    /**
+     * Subscribe and return async processor jm async processor.
+     *
+     * @param <O>            the type parameter
+     * @param asyncFunction  the async function
+     * @param maxConcurrency the max concurrency
+     * @return the jm async processor
+     */
+    default <O> JMAsyncProcessor<R, O> subscribeAndReturnAsyncProcessor(Function<R, CompletableFuture<O>> asyncFunction,
+            int maxConcurrency) {
+        return subscribeAndReturnProcessor(JMProcessorBuilder.buildAsync(maxConcurrency, asyncFunction));
+    }
+
+    /**
+     * Subscribe and return async processor jm async processor.
+     *
+     * @param <O>            the type parameter
+     * @param asyncFunction  the async function
+     * @param maxConcurrency the max concurrency
+     * @param ordered        the ordered
+     * @param errorHandler   the error handler
+     * @return the jm async processor
+     */
+    default <O> JMAsyncProcessor<R, O> subscribeAndReturnAsyncProcessor(Function<R, CompletableFuture<O>> asyncFunction,
+            int maxConcurrency, boolean ordered, BiConsumer<R, Throwable> errorHandler) {
+        return subscribeAndReturnProcessor(
+                JMProcessorBuilder.buildAsync(maxConcurrency, ordered, asyncFunction, errorHandler));
     }
 
     @SuppressWarnings("unchecked")
@@ -0,0 +1,64 @@
+package kr.jm.utils.flow.processor;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * The type Jm resequencer.
+ * <p>
+ * Puts the results completed out of order back into the input order: a result is held until the results of every
+ * earlier sequence have been released, and a null result, for an input that gave none, still takes its place in the
+ * sequence.
+ *
+ * @param <R> the type parameter
+ */
+public class JMResequencer<R> {
+
+    private final Map<Long, R> resequenceMap;
+    private long nextSequence;
+
+    /**
+     * Instantiates a new Jm resequencer.
+     */
+    public JMResequencer() {
+        this.resequenceMap = new TreeMap<>();
+    }
+
+    /**
+     * Release int.
+     * <p>
+     * Puts the output of the sequence and hands every non null output now in order to the output consumer, under the
+     * lock of the resequencer so the outputs are consumed one at a time.
+     *
+     * @param sequence       the sequence
+     * @param output         the output, null when the input gave no result
+     * @param outputConsumer the output consumer
+     * @return the number of sequences released
+     */
+    public int release(long sequence, R output, Consumer<R> outputConsumer) {
+        int releasedCount = 0;
+        synchronized (this.resequenceMap) {
+            this.resequenceMap.put(sequence, output);
+            while (this.resequenceMap.containsKey(this.nextSequence)) {
+                R nextOutput = this.resequenceMap.remove(this.nextSequence++);
+                if (Objects.nonNull(nextOutput))
+                    outputConsumer.accept(nextOutput);
+                releasedCount++;
+            }
+        }
+        return releasedCount;
+    }
+
+    /**
+     * Gets held count.
+     *
+     * @return the number of outputs waiting for an earlier sequence
+     */
+    public int getHeldCount() {
+        synchronized (this.resequenceMap) {
+            return this.resequenceMap.size();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package kr.jm.utils.flow.processor;
+
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * The type Jm retry policy.
+ * <p>
+ * Retries a failed item up to max retries times, waiting the initial backoff before the first retry and multiplying
+ * the backoff by the backoff multiplier for each next retry, up to the max backoff. Only the throwables that match
+ * the retry predicate are retried, all of them by default.
+ */
+public class JMRetryPolicy {
+
+    private final int maxRetries;
+    private final long initialBackoffMillis;
+    private final double backoffMultiplier;
+    private final long maxBackoffMillis;
+    private Predicate<Throwable> retryPredicate;
+
+    /**
+     * Instantiates a new Jm retry policy.
+     *
+     * @param maxRetries           the max retries
+     * @param initialBackoffMillis the initial backoff millis
+     * @param backoffMultiplier    the backoff multiplier
+     * @param maxBackoffMillis     the max backoff millis
+     */
+    public JMRetryPolicy(int maxRetries, long initialBackoffMillis, double backoffMultiplier, long maxBackoffMillis) {
+        this.maxRetries = Math.max(maxRetries, 0);
+        this.initialBackoffMillis = Math.max(initialBackoffMillis, 0);
+        this.backoffMultiplier = Math.max(backoffMultiplier, 1);
+        this.maxBackoffMillis = Math.max(maxBackoffMillis, this.initialBackoffMillis);
+        this.retryPredicate = throwable -> true;
+    }
+
+    /**
+     * Build fixed backoff jm retry policy.
+     *
+     * @param maxRetries    the max retries
+     * @param backoffMillis the backoff millis
+     * @return the jm retry policy
+     */
+    public static JMRetryPolicy buildFixedBackoff(int maxRetries, long backoffMillis) {
+        return new JMRetryPolicy(maxRetries, backoffMillis, 1, backoffMillis);
+    }
+
+    /**
+     * Build exponential backoff jm retry policy.
+     *
+     * @param maxRetries           the max retries
+     * @param initialBackoffMillis the initial backoff millis
+     * @param maxBackoffMillis     the max backoff millis
+     * @return the jm retry policy
+     */
+    public static JMRetryPolicy buildExponentialBackoff(int maxRetries, long initialBackoffMillis,
+            long maxBackoffMillis) {
+        return new JMRetryPolicy(maxRetries, initialBackoffMillis, 2, maxBackoffMillis);
+    }
+
+    /**
+     * Retry on jm retry policy.
+     *
+     * @param retryPredicate the retry predicate
+     * @return the jm retry policy
+     */
+    public JMRetryPolicy retryOn(Predicate<Throwable> retryPredicate) {
+        this.retryPredicate = Objects.requireNonNull(retryPredicate);
+        return this;
+    }
+
+    /**
+     * Is retryable boolean.
+     *
+     * @param retries   the retries already done
+     * @param throwable the throwable
+     * @return the boolean
+     */
+    public boolean isRetryable(int retries, Throwable throwable) {
+        return retries < this.maxRetries && this.retryPredicate.test(throwable);
+    }
+
+    /**
+     * Gets backoff millis.
+     *
+     * @param retry the retry starting from 1
+     * @return the backoff millis
+     */
+    public long getBackoffMillis(int retry) {
+        return (long) Math.min(this.maxBackoffMillis,
+                this.initialBackoffMillis * Math.pow(this.backoffMultiplier, Math.max(retry - 1, 0)));
+    }
+
+    /**
+     * Gets max retries.
+     *
+     * @return the max retries
+     */
+    public int getMaxRetries() {
+        return this.maxRetries;
+    }
+
+    @Override
+    public String toString() {
+        return "JMRetryPolicy{" + "maxRetries=" + maxRetries + ", initialBackoffMillis=" + initialBackoffMillis +
+                ", backoffMultiplier=" + backoffMultiplier + ", maxBackoffMillis=" + maxBackoffMillis + '}';
+    }
+}
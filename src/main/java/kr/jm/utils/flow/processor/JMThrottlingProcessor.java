@@ -0,0 +1,295 @@
+package kr.jm.utils.flow.processor;
+
+import kr.jm.utils.JMThread;
+import kr.jm.utils.exception.JMException;
+import kr.jm.utils.flow.JMDrainable;
+import kr.jm.utils.helper.JMLog;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * The type Jm throttling processor.
+ * <p>
+ * Limits the rate of the items it publishes with a token bucket that refills at the rate per second and holds up
+ * to the burst capacity tokens. The limit is expressed as upstream demand: burst capacity items are requested on
+ * subscribe and one more item is requested each time a token is available for it, with the request delayed on the
+ * shared scheduler when the bucket is empty, so throttling blocks no thread.
+ * <p>
+ * With a key function, every key also gets its own token bucket. An item over its key rate waits for its token on
+ * the shared scheduler and is then published in key order, and the upstream demand it used is returned only after
+ * it is published, so at most burst capacity items wait. A key bucket that has refilled to its burst capacity with no
+ * item waiting is the same as a new one, so such idle buckets are evicted by a sweep on on next, run at most once
+ * per key bucket sweep interval, by default the key refill time and at least a second, and the buckets kept are only
+ * the ones of the recent keys.
+ *
+ * @param <T> the type parameter
+ */
+public class JMThrottlingProcessor<T> extends JMProcessor<T, T> {
+
+    private final TokenBucket tokenBucket;
+    private final Function<T, ?> keyFunction;
+    private final double keyRatePerSecond;
+    private final int keyBurstCapacity;
+    private final Map<Object, TokenBucket> keyTokenBucketMap;
+    private volatile long keyBucketSweepIntervalNanos;
+    private long lastKeyBucketSweepNanos;
+    private final Queue<Runnable> readyQueue;
+    private final AtomicInteger drainRequestCount;
+    private final AtomicInteger delayedCount;
+    private final AtomicLong throttledCount;
+    private Flow.Subscription subscription;
+
+    /**
+     * Instantiates a new Jm throttling processor.
+     *
+     * @param ratePerSecond the rate per second
+     * @param burstCapacity the burst capacity
+     */
+    public JMThrottlingProcessor(double ratePerSecond, int burstCapacity) {
+        this(ratePerSecond, burstCapacity, null, 0, 0);
+    }
+
+    /**
+     * Instantiates a new Jm throttling processor.
+     *
+     * @param ratePerSecond    the rate per second
+     * @param burstCapacity    the burst capacity
+     * @param keyFunction      the key function
+     * @param keyRatePerSecond the key rate per second
+     * @param keyBurstCapacity the key burst capacity
+     */
+    public JMThrottlingProcessor(double ratePerSecond, int burstCapacity, Function<T, ?> keyFunction,
+            double keyRatePerSecond, int keyBurstCapacity) {
+        super(Function.identity());
+        this.tokenBucket = new TokenBucket(ratePerSecond, burstCapacity);
+        this.keyFunction = keyFunction;
+        this.keyRatePerSecond = keyRatePerSecond;
+        this.keyBurstCapacity = keyBurstCapacity;
+        this.keyTokenBucketMap = new ConcurrentHashMap<>();
+        this.keyBucketSweepIntervalNanos = Math.max(TimeUnit.SECONDS.toNanos(1),
+                keyRatePerSecond > 0 ? (long) (Math.max(keyBurstCapacity, 1) * 1_000_000_000d / keyRatePerSecond) :
+                        0);
+        this.lastKeyBucketSweepNanos = System.nanoTime();
+        this.readyQueue = new ConcurrentLinkedQueue<>();
+        this.drainRequestCount = new AtomicInteger();
+        this.delayedCount = new AtomicInteger();
+        this.throttledCount = new AtomicLong();
+    }
+
+    /**
+     * Gets rate per second.
+     *
+     * @return the rate per second
+     */
+    public double getRatePerSecond() {
+        return this.tokenBucket.ratePerSecond;
+    }
+
+    /**
+     * Gets burst capacity.
+     *
+     * @return the burst capacity
+     */
+    public int getBurstCapacity() {
+        return this.tokenBucket.capacity;
+    }
+
+    /**
+     * Is key limited boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isKeyLimited() {
+        return Objects.nonNull(this.keyFunction);
+    }
+
+    /**
+     * Gets key bucket count.
+     *
+     * @return the number of key token buckets kept
+     */
+    public int getKeyBucketCount() {
+        return this.keyTokenBucketMap.size();
+    }
+
+    /**
+     * Gets key bucket sweep interval.
+     *
+     * @return the key bucket sweep interval
+     */
+    public Duration getKeyBucketSweepInterval() {
+        return Duration.ofNanos(this.keyBucketSweepIntervalNanos);
+    }
+
+    /**
+     * Sets key bucket sweep interval.
+     * <p>
+     * The minimum time between two sweeps of the idle key buckets, zero to sweep on every on next.
+     *
+     * @param keyBucketSweepInterval the key bucket sweep interval
+     */
+    public void setKeyBucketSweepInterval(Duration keyBucketSweepInterval) {
+        this.keyBucketSweepIntervalNanos = Math.max(keyBucketSweepInterval.toNanos(), 0);
+    }
+
+    /**
+     * Gets delayed count.
+     *
+     * @return the number of items waiting for a key token
+     */
+    public int getDelayedCount() {
+        return this.delayedCount.get();
+    }
+
+    /**
+     * Gets throttled count.
+     *
+     * @return the number of upstream requests and items that had to wait for a token
+     */
+    public long getThrottledCount() {
+        return this.throttledCount.get();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        JMLog.info(log, "onSubscribe", subscription, this.tokenBucket.ratePerSecond, this.tokenBucket.capacity);
+        (this.subscription = subscription).request(this.tokenBucket.capacity);
+        this.tokenBucket.reserve(this.tokenBucket.capacity);
+    }
+
+    @Override
+    public void onNext(T item) {
+        JMLog.debug(log, "onNext", item);
+        TokenBucket keyTokenBucket = isKeyLimited() ? getKeyTokenBucket(item) : null;
+        long waitNanos = Objects.isNull(keyTokenBucket) ? -1 : keyTokenBucket.reserveInOrder();
+        if (waitNanos < 0) {
+            process(item);
+            requestNext();
+            return;
+        }
+        this.throttledCount.incrementAndGet();
+        this.delayedCount.incrementAndGet();
+        JMThread.getSharedScheduler().schedule(() -> publishDelayed(keyTokenBucket, item), waitNanos,
+                TimeUnit.NANOSECONDS);
+    }
+
+    private TokenBucket getKeyTokenBucket(T item) {
+        long nowNanos = System.nanoTime();
+        if (nowNanos - this.lastKeyBucketSweepNanos >= this.keyBucketSweepIntervalNanos) {
+            this.lastKeyBucketSweepNanos = nowNanos;
+            this.keyTokenBucketMap.values().removeIf(TokenBucket::isIdle);
+        }
+        try {
+            return this.keyTokenBucketMap.computeIfAbsent(this.keyFunction.apply(item),
+                    key -> new TokenBucket(this.keyRatePerSecond, this.keyBurstCapacity));
+        } catch (Exception e) {
+            return JMException.handleExceptionAndReturnNull(log, e, "getKeyTokenBucket", item);
+        }
+    }
+
+    private void publishDelayed(TokenBucket keyTokenBucket, T item) {
+        this.readyQueue.offer(() -> {
+            process(item);
+            keyTokenBucket.releaseDelayed();
+        });
+        if (this.drainRequestCount.getAndIncrement() == 0)
+            ForkJoinPool.commonPool().execute(this::drainReadyQueue);
+    }
+
+    private void drainReadyQueue() {
+        int drainRequests = this.drainRequestCount.get();
+        do {
+            Runnable publishTask;
+            while (Objects.nonNull(publishTask = this.readyQueue.poll())) {
+                publishTask.run();
+                JMDrainable.decrementAndSignal(this.delayedCount, 1);
+                requestNext();
+            }
+        } while ((drainRequests = this.drainRequestCount.addAndGet(-drainRequests)) != 0);
+    }
+
+    private void requestNext() {
+        long waitNanos = this.tokenBucket.reserve(1);
+        if (waitNanos <= 0) {
+            this.subscription.request(1);
+            return;
+        }
+        this.throttledCount.incrementAndGet();
+        JMThread.getSharedScheduler().schedule(() -> this.subscription.request(1), waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    protected long drainInFlight(long deadlineNanos) {
+        JMDrainable.awaitZero(this.delayedCount, deadlineNanos);
+        return this.delayedCount.get() + super.drainInFlight(deadlineNanos);
+    }
+
+    @Override
+    public void close() {
+        JMLog.info(log, "close", this.delayedCount.get(), this.throttledCount.get());
+        closeAndDrain(getCloseTimeout());
+    }
+
+    private static class TokenBucket {
+        private final double ratePerSecond;
+        private final int capacity;
+        private double tokens;
+        private long lastRefillNanos;
+        private int delayedItems;
+
+        private TokenBucket(double ratePerSecond, int capacity) {
+            this.ratePerSecond = ratePerSecond > 0 ? ratePerSecond : Double.MAX_VALUE;
+            this.capacity = Math.max(capacity, 1);
+            this.tokens = this.capacity;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        /**
+         * Takes the tokens, going into debt when there are not enough of them, and returns the nanos until the debt
+         * is paid back.
+         */
+        private synchronized long reserve(int permits) {
+            long nowNanos = System.nanoTime();
+            this.tokens = Math.min(this.capacity,
+                    this.tokens + (nowNanos - this.lastRefillNanos) * this.ratePerSecond / 1_000_000_000d);
+            this.lastRefillNanos = nowNanos;
+            this.tokens -= permits;
+            return this.tokens >= 0 ? 0 : (long) Math.ceil(-this.tokens * 1_000_000_000d / this.ratePerSecond);
+        }
+
+        /**
+         * Returns -1 when the item can go now, or the nanos to delay it, which also keeps it behind the items of
+         * the bucket that are still delayed.
+         */
+        private synchronized long reserveInOrder() {
+            long waitNanos = reserve(1);
+            if (waitNanos == 0 && this.delayedItems == 0)
+                return -1;
+            this.delayedItems++;
+            return waitNanos;
+        }
+
+        private synchronized void releaseDelayed() {
+            this.delayedItems--;
+        }
+
+        /**
+         * Tells whether the bucket has refilled to its capacity with no delayed item, so a new bucket would be the
+         * same.
+         */
+        private synchronized boolean isIdle() {
+            return this.delayedItems == 0 && reserve(0) == 0 && this.tokens >= this.capacity;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package kr.jm.utils.flow.processor;
+
+/**
+ * The type Jm window.
+ *
+ * @param <R> the type parameter
+ */
+public class JMWindow<R> {
+
+    private final long startTimestamp;
+    private final long endTimestamp;
+    private final long itemCount;
+    private final R result;
+
+    /**
+     * Instantiates a new Jm window.
+     *
+     * @param startTimestamp the start timestamp
+     * @param endTimestamp   the end timestamp
+     * @param itemCount      the item count
+     * @param result         the result
+     */
+    public JMWindow(long startTimestamp, long endTimestamp, long itemCount, R result) {
+        this.startTimestamp = startTimestamp;
+        this.endTimestamp = endTimestamp;
+        this.itemCount = itemCount;
+        this.result = result;
+    }
+
+    /**
+     * Gets start timestamp.
+     *
+     * @return the start timestamp
+     */
+    public long getStartTimestamp() {
+        return this.startTimestamp;
+    }
+
+    /**
+     * Gets end timestamp.
+     *
+     * @return the end timestamp
+     */
+    public long getEndTimestamp() {
+        return this.endTimestamp;
+    }
+
+    /**
+     * Gets item count.
+     *
+     * @return the item count
+     */
+    public long getItemCount() {
+        return this.itemCount;
+    }
+
+    /**
+     * Gets result.
+     *
+     * @return the result
+     */
+    public R getResult() {
+        return this.result;
+    }
+
+    @Override
+    public String toString() {
+        return "JMWindow{" + "startTimestamp=" + startTimestamp + ", endTimestamp=" + endTimestamp +
+                ", itemCount=" + itemCount + ", result=" + result + '}';
+    }
+}
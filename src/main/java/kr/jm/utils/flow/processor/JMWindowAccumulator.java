@@ -0,0 +1,139 @@
+package kr.jm.utils.flow.processor;
+
+import kr.jm.utils.stats.CountMap;
+import kr.jm.utils.stats.StatsField;
+import kr.jm.utils.stats.StatsMap;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * The interface Jm window accumulator.
+ * <p>
+ * Aggregates the items of a window incrementally, so a window keeps only its accumulation instead of the raw items.
+ * Merge is used when session windows are joined.
+ *
+ * @param <T> the type parameter
+ * @param <A> the type parameter
+ * @param <R> the type parameter
+ */
+public interface JMWindowAccumulator<T, A, R> {
+
+    /**
+     * New accumulation a.
+     *
+     * @return the a
+     */
+    A newAccumulation();
+
+    /**
+     * Accumulate.
+     *
+     * @param accumulation the accumulation
+     * @param item         the item
+     */
+    void accumulate(A accumulation, T item);
+
+    /**
+     * Merge a.
+     *
+     * @param accumulation      the accumulation
+     * @param otherAccumulation the other accumulation
+     * @return the a
+     */
+    A merge(A accumulation, A otherAccumulation);
+
+    /**
+     * Finish r.
+     *
+     * @param accumulation the accumulation
+     * @return the r
+     */
+    R finish(A accumulation);
+
+    /**
+     * Build jm window accumulator.
+     *
+     * @param <T>                  the type parameter
+     * @param <A>                  the type parameter
+     * @param accumulationSupplier the accumulation supplier
+     * @param accumulator          the accumulator
+     * @param merger               the merger
+     * @return the jm window accumulator
+     */
+    static <T, A> JMWindowAccumulator<T, A, A> build(Supplier<A> accumulationSupplier, BiConsumer<A, T> accumulator,
+            BinaryOperator<A> merger) {
+        return new JMWindowAccumulator<>() {
+            @Override
+            public A newAccumulation() {
+                return accumulationSupplier.get();
+            }
+
+            @Override
+            public void accumulate(A accumulation, T item) {
+                accumulator.accept(accumulation, item);
+            }
+
+            @Override
+            public A merge(A accumulation, A otherAccumulation) {
+                return merger.apply(accumulation, otherAccumulation);
+            }
+
+            @Override
+            public A finish(A accumulation) {
+                return accumulation;
+            }
+        };
+    }
+
+    /**
+     * Build stats map jm window accumulator.
+     *
+     * @param <T>            the type parameter
+     * @param numberFunction the number function
+     * @return the jm window accumulator
+     */
+    static <T> JMWindowAccumulator<T, DoubleSummaryStatistics, StatsMap> buildStatsMap(
+            ToDoubleFunction<T> numberFunction) {
+        return new JMWindowAccumulator<>() {
+            @Override
+            public DoubleSummaryStatistics newAccumulation() {
+                return new DoubleSummaryStatistics();
+            }
+
+            @Override
+            public void accumulate(DoubleSummaryStatistics accumulation, T item) {
+                accumulation.accept(numberFunction.applyAsDouble(item));
+            }
+
+            @Override
+            public DoubleSummaryStatistics merge(DoubleSummaryStatistics accumulation,
+                    DoubleSummaryStatistics otherAccumulation) {
+                accumulation.combine(otherAccumulation);
+                return accumulation;
+            }
+
+            @Override
+            public StatsMap finish(DoubleSummaryStatistics accumulation) {
+                return new StatsMap(StatsField.calStatsMap(accumulation));
+            }
+        };
+    }
+
+    /**
+     * Build count map jm window accumulator.
+     *
+     * @param <T>         the type parameter
+     * @param <V>         the type parameter
+     * @param keyFunction the key function
+     * @return the jm window accumulator
+     */
+    static <T, V> JMWindowAccumulator<T, CountMap<V>, CountMap<V>> buildCountMap(Function<T, V> keyFunction) {
+        return build(CountMap::new, (countMap, item) -> countMap.incrementAndGet(keyFunction.apply(item)),
+                CountMap::merge);
+    }
+}
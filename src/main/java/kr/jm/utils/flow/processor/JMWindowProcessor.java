@@ -0,0 +1,316 @@
+package kr.jm.utils.flow.processor;
+
+import kr.jm.utils.JMThread;
+import kr.jm.utils.helper.JMLog;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * The type Jm window processor.
+ * <p>
+ * Aggregates items into tumbling, sliding or session windows and publishes one Jm window per window when it closes.
+ * Items are folded into the accumulation of their windows as they arrive, so no raw item is kept. With a timestamp
+ * function the windows follow event time: the watermark is the highest timestamp seen or the one given to advance
+ * watermark, a window closes once the watermark passes its end plus the allowed lateness, and items for closed
+ * windows are dropped and counted as late. Without it the windows follow processing time and a timer on the shared
+ * scheduler closes them. The count window types measure windows in items instead: the item sequence number stands
+ * in for the timestamp, so the start and end of their Jm windows are item sequence numbers and a window closes as
+ * soon as its last item arrives. The windows left open are published on complete.
+ *
+ * @param <T> the type parameter
+ * @param <A> the type parameter
+ * @param <R> the type parameter
+ */
+public class JMWindowProcessor<T, A, R> extends JMProcessor<T, JMWindow<R>> {
+
+    /**
+     * The constant DEFAULT_TIMER_INTERVAL_MILLIS.
+     */
+    public static final long DEFAULT_TIMER_INTERVAL_MILLIS = 100;
+
+    /**
+     * The enum Window type.
+     */
+    public enum WindowType {
+        /**
+         * Tumbling window type.
+         */
+        TUMBLING,
+        /**
+         * Sliding window type.
+         */
+        SLIDING,
+        /**
+         * Session window type.
+         */
+        SESSION,
+        /**
+         * Count tumbling window type.
+         */
+        COUNT_TUMBLING,
+        /**
+         * Count sliding window type.
+         */
+        COUNT_SLIDING;
+
+        /**
+         * Is count based boolean.
+         *
+         * @return the boolean
+         */
+        public boolean isCountBased() {
+            return this == COUNT_TUMBLING || this == COUNT_SLIDING;
+        }
+
+        /**
+         * Is sliding boolean.
+         *
+         * @return the boolean
+         */
+        public boolean isSliding() {
+            return this == SLIDING || this == COUNT_SLIDING;
+        }
+    }
+
+    private WindowType windowType;
+    private long sizeMillis;
+    private long slideMillis;
+    private ToLongFunction<T> timestampFunction;
+    private long allowedLatenessMillis;
+    private JMWindowAccumulator<T, A, R> accumulator;
+    private TreeMap<Long, WindowState<A>> windowMap;
+    private long watermark;
+    private long lateItemCount;
+    private long itemSequence;
+    private ScheduledFuture<?> timerFuture;
+
+    /**
+     * Instantiates a new Jm window processor.
+     * <p>
+     * The size millis is the session gap for the session window type and the slide millis is used only for the
+     * sliding window types. For the count window types both are item counts and the timestamp function and the
+     * allowed lateness are ignored. Otherwise a null timestamp function means processing time.
+     *
+     * @param windowType            the window type
+     * @param sizeMillis            the size millis
+     * @param slideMillis           the slide millis
+     * @param timestampFunction     the timestamp function
+     * @param allowedLatenessMillis the allowed lateness millis
+     * @param accumulator           the accumulator
+     */
+    public JMWindowProcessor(WindowType windowType, long sizeMillis, long slideMillis,
+            ToLongFunction<T> timestampFunction, long allowedLatenessMillis,
+            JMWindowAccumulator<T, A, R> accumulator) {
+        super(null);
+        this.windowType = windowType;
+        this.sizeMillis = Math.max(sizeMillis, 1);
+        this.slideMillis = windowType.isSliding() ? Math.max(slideMillis, 1) : this.sizeMillis;
+        this.timestampFunction = windowType.isCountBased() ? null : timestampFunction;
+        this.allowedLatenessMillis = isEventTime() ? Math.max(allowedLatenessMillis, 0) : 0;
+        this.accumulator = accumulator;
+        this.windowMap = new TreeMap<>();
+        this.watermark = Long.MIN_VALUE;
+        if (!isEventTime() && !windowType.isCountBased()) {
+            long timerIntervalMillis = Math.min(this.slideMillis, DEFAULT_TIMER_INTERVAL_MILLIS);
+            this.timerFuture = JMThread.getSharedScheduler()
+                    .scheduleAtFixedRate(() -> advanceWatermark(System.currentTimeMillis()), timerIntervalMillis,
+                            timerIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Is event time boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isEventTime() {
+        return Objects.nonNull(this.timestampFunction);
+    }
+
+    @Override
+    protected void process(T input) {
+        if (this.windowType.isCountBased()) {
+            processCount(input);
+            return;
+        }
+        long timestamp =
+                isEventTime() ? this.timestampFunction.applyAsLong(input) : System.currentTimeMillis();
+        synchronized (this.windowMap) {
+            if (!(this.windowType == WindowType.SESSION ? assignSession(input, timestamp) :
+                    assign(input, timestamp))) {
+                this.lateItemCount++;
+                JMLog.debug(log, "late", input, timestamp, this.watermark);
+            }
+            if (timestamp > this.watermark)
+                closeWindows(this.watermark = timestamp);
+        }
+    }
+
+    private void processCount(T input) {
+        synchronized (this.windowMap) {
+            long sequence = this.itemSequence++;
+            assign(input, sequence);
+            closeWindows(this.watermark = sequence + 1);
+        }
+    }
+
+    private boolean assign(T input, long timestamp) {
+        boolean assigned = false;
+        for (long startTimestamp = timestamp - Math.floorMod(timestamp, this.slideMillis);
+             startTimestamp > timestamp - this.sizeMillis; startTimestamp -= this.slideMillis) {
+            if (isClosed(startTimestamp + this.sizeMillis))
+                continue;
+            this.windowMap.computeIfAbsent(startTimestamp,
+                    s -> new WindowState<>(s, s + this.sizeMillis, this.accumulator.newAccumulation()))
+                    .accumulate(this.accumulator, input);
+            assigned = true;
+        }
+        return assigned;
+    }
+
+    private boolean assignSession(T input, long timestamp) {
+        if (isClosed(timestamp + this.sizeMillis))
+            return false;
+        WindowState<A> session =
+                new WindowState<>(timestamp, timestamp + this.sizeMillis, this.accumulator.newAccumulation());
+        session.accumulate(this.accumulator, input);
+        Map.Entry<Long, WindowState<A>> overlappedEntry;
+        while (Objects.nonNull(overlappedEntry = this.windowMap.lowerEntry(session.endTimestamp)) &&
+                overlappedEntry.getValue().endTimestamp >= session.startTimestamp)
+            session = session.merge(this.windowMap.remove(overlappedEntry.getKey()), this.accumulator);
+        this.windowMap.put(session.startTimestamp, session);
+        return true;
+    }
+
+    private boolean isClosed(long endTimestamp) {
+        return endTimestamp + this.allowedLatenessMillis <= this.watermark;
+    }
+
+    private void closeWindows(long watermark) {
+        Map.Entry<Long, WindowState<A>> firstEntry;
+        while (Objects.nonNull(firstEntry = this.windowMap.firstEntry()) &&
+                firstEntry.getValue().endTimestamp + this.allowedLatenessMillis <= watermark)
+            publishWindow(this.windowMap.pollFirstEntry().getValue());
+    }
+
+    private void publishWindow(WindowState<A> windowState) {
+        publish(new JMWindow<>(windowState.startTimestamp, windowState.endTimestamp, windowState.itemCount,
+                this.accumulator.finish(windowState.accumulation)));
+    }
+
+    /**
+     * Advance watermark.
+     *
+     * @param watermark the watermark
+     */
+    public void advanceWatermark(long watermark) {
+        synchronized (this.windowMap) {
+            if (watermark > this.watermark)
+                closeWindows(this.watermark = watermark);
+        }
+    }
+
+    /**
+     * Gets watermark.
+     *
+     * @return the watermark
+     */
+    public long getWatermark() {
+        synchronized (this.windowMap) {
+            return this.watermark;
+        }
+    }
+
+    /**
+     * Gets late item count.
+     *
+     * @return the late item count
+     */
+    public long getLateItemCount() {
+        synchronized (this.windowMap) {
+            return this.lateItemCount;
+        }
+    }
+
+    /**
+     * Gets open window count.
+     *
+     * @return the open window count
+     */
+    public int getOpenWindowCount() {
+        synchronized (this.windowMap) {
+            return this.windowMap.size();
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        JMLog.info(log, "onComplete", getOpenWindowCount());
+        closeAllWindows();
+        super.onComplete();
+    }
+
+    private void closeAllWindows() {
+        synchronized (this.windowMap) {
+            closeWindows(Long.MAX_VALUE - this.allowedLatenessMillis);
+        }
+    }
+
+    private void cancelTimer() {
+        if (Objects.nonNull(this.timerFuture))
+            this.timerFuture.cancel(false);
+    }
+
+    /**
+     * Drain in flight long.
+     * <p>
+     * Stops the timer and publishes the windows left open before the output is drained.
+     *
+     * @param deadlineNanos the deadline nanos
+     * @return the number of items still in flight
+     */
+    @Override
+    protected long drainInFlight(long deadlineNanos) {
+        cancelTimer();
+        long lostCount = super.drainInFlight(deadlineNanos);
+        closeAllWindows();
+        return lostCount;
+    }
+
+    @Override
+    public void close() {
+        cancelTimer();
+        super.close();
+    }
+
+    private static class WindowState<A> {
+        private final long startTimestamp;
+        private final long endTimestamp;
+        private final A accumulation;
+        private long itemCount;
+
+        private WindowState(long startTimestamp, long endTimestamp, A accumulation) {
+            this.startTimestamp = startTimestamp;
+            this.endTimestamp = endTimestamp;
+            this.accumulation = accumulation;
+        }
+
+        private <T> void accumulate(JMWindowAccumulator<T, A, ?> accumulator, T item) {
+            accumulator.accumulate(this.accumulation, item);
+            this.itemCount++;
+        }
+
+        private WindowState<A> merge(WindowState<A> other, JMWindowAccumulator<?, A, ?> accumulator) {
+            WindowState<A> mergedWindowState = new WindowState<>(Math.min(this.startTimestamp, other.startTimestamp),
+                    Math.max(this.endTimestamp, other.endTimestamp),
+                    accumulator.merge(this.accumulation, other.accumulation));
+            mergedWindowState.itemCount = this.itemCount + other.itemCount;
+            return mergedWindowState;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package kr.jm.utils.flow.publisher;
+
+import kr.jm.utils.helper.JMLog;
+
+import java.util.List;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The type Adaptive bulk submission publisher.
+ * <p>
+ * Tunes the bulk size and the flush interval within the given bounds after every bulk. When the downstream falls
+ * behind, seen as earlier bulks still waiting or a submit that blocked, both are doubled so the downstream gets
+ * fewer and bigger bulks. When full bulks go through without delay the bulk size grows by half. When the interval
+ * flushes a partial bulk without delay, traffic is low, so the interval is halved and the bulk size moves halfway
+ * toward the flushed size to cut the latency. The interval timer ticks at the min flush interval. Tuning takes no
+ * lock, since it runs while a bulk buffer is locked; a bulk submitted while another one is being tuned is skipped.
+ *
+ * @param <T> the type parameter
+ */
+public class AdaptiveBulkSubmissionPublisher<T> extends BulkSubmissionPublisher<T> {
+
+    /**
+     * The constant DEFAULT_BLOCKED_THRESHOLD_NANOS.
+     */
+    public static final long DEFAULT_BLOCKED_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final int minBulkSize;
+    private final int maxBulkSize;
+    private final long minFlushIntervalMillis;
+    private final long maxFlushIntervalMillis;
+    private final AtomicBoolean adapting;
+
+    /**
+     * Instantiates a new Adaptive bulk submission publisher.
+     *
+     * @param minBulkSize            the min bulk size
+     * @param maxBulkSize            the max bulk size
+     * @param minFlushIntervalMillis the min flush interval millis
+     * @param maxFlushIntervalMillis the max flush interval millis
+     */
+    public AdaptiveBulkSubmissionPublisher(int minBulkSize, int maxBulkSize, long minFlushIntervalMillis,
+            long maxFlushIntervalMillis) {
+        this(new JMSubmissionPublisher<>(), minBulkSize, maxBulkSize, minFlushIntervalMillis,
+                maxFlushIntervalMillis);
+    }
+
+    /**
+     * Instantiates a new Adaptive bulk submission publisher.
+     *
+     * @param listSubmissionPublisher the list submission publisher
+     * @param minBulkSize             the min bulk size
+     * @param maxBulkSize             the max bulk size
+     * @param minFlushIntervalMillis  the min flush interval millis
+     * @param maxFlushIntervalMillis  the max flush interval millis
+     */
+    public AdaptiveBulkSubmissionPublisher(SubmissionPublisher<List<T>> listSubmissionPublisher, int minBulkSize,
+            int maxBulkSize, long minFlushIntervalMillis, long maxFlushIntervalMillis) {
+        super(listSubmissionPublisher, Math.max(minBulkSize, 1), Math.max(minFlushIntervalMillis, 1));
+        this.minBulkSize = Math.max(minBulkSize, 1);
+        this.maxBulkSize = Math.max(maxBulkSize, this.minBulkSize);
+        this.minFlushIntervalMillis = Math.max(minFlushIntervalMillis, 1);
+        this.maxFlushIntervalMillis = Math.max(maxFlushIntervalMillis, this.minFlushIntervalMillis);
+        this.adapting = new AtomicBoolean();
+        this.bulkSize = clampBulkSize(DEFAULT_BULK_SIZE);
+        this.flushIntervalMillis = clampFlushIntervalMillis(DEFAULT_FLUSH_INTERVAL_Millis);
+    }
+
+    private int clampBulkSize(long bulkSize) {
+        return (int) Math.min(Math.max(bulkSize, this.minBulkSize), this.maxBulkSize);
+    }
+
+    private long clampFlushIntervalMillis(long flushIntervalMillis) {
+        return Math.min(Math.max(flushIntervalMillis, this.minFlushIntervalMillis), this.maxFlushIntervalMillis);
+    }
+
+    @Override
+    protected void onBulkSubmitted(int submittedSize, boolean full, long blockedNanos) {
+        if (!this.adapting.compareAndSet(false, true))
+            return;
+        try {
+            adapt(submittedSize, full, blockedNanos);
+        } finally {
+            this.adapting.set(false);
+        }
+    }
+
+    private void adapt(int submittedSize, boolean full, long blockedNanos) {
+        int oldBulkSize = this.bulkSize;
+        long oldFlushIntervalMillis = this.flushIntervalMillis;
+        if (estimateMaximumLag() > 1 || blockedNanos >= DEFAULT_BLOCKED_THRESHOLD_NANOS) {
+            this.bulkSize = clampBulkSize(oldBulkSize * 2L);
+            this.flushIntervalMillis = clampFlushIntervalMillis(oldFlushIntervalMillis * 2);
+        } else if (full)
+            this.bulkSize = clampBulkSize(oldBulkSize + oldBulkSize / 2 + 1);
+        else {
+            this.bulkSize = clampBulkSize((oldBulkSize + (long) submittedSize) / 2);
+            this.flushIntervalMillis = clampFlushIntervalMillis(oldFlushIntervalMillis / 2);
+        }
+        if (oldBulkSize != this.bulkSize || oldFlushIntervalMillis != this.flushIntervalMillis)
+            JMLog.debug(log, "onBulkSubmitted", submittedSize, full, blockedNanos, this.bulkSize,
+                    this.flushIntervalMillis);
+    }
+
+    /**
+     * Gets min bulk size.
+     *
+     * @return the min bulk size
+     */
+    public int getMinBulkSize() {
+        return this.minBulkSize;
+    }
+
+    /**
+     * Gets max bulk size.
+     *
+     * @return the max bulk size
+     */
+    public int getMaxBulkSize() {
+        return this.maxBulkSize;
+    }
+
+    /**
+     * Gets min flush interval millis.
+     *
+     * @return the min flush interval millis
+     */
+    public long getMinFlushIntervalMillis() {
+        return this.minFlushIntervalMillis;
+    }
+
+    /**
+     * Gets max flush interval millis.
+     *
+     * @return the max flush interval millis
+     */
+    public long getMaxFlushIntervalMillis() {
+        return this.maxFlushIntervalMillis;
+    }
+}
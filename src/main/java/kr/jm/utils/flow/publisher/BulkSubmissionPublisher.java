@@ -2,20 +2,29 @@ package kr.jm.utils.flow.publisher;
 
 import kr.jm.utils.JMOptional;
 import kr.jm.utils.JMThread;
+import kr.jm.utils.flow.JMDrainable;
+import kr.jm.utils.flow.metrics.JMFlowMetrics;
 import kr.jm.utils.helper.JMLog;
 import org.slf4j.Logger;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Flow;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * The type Bulk submission publisher.
  *
  * @param <T> the type parameter
  */
-public class BulkSubmissionPublisher<T> implements JMPublisherInterface<List<T>>, AutoCloseable {
+public class BulkSubmissionPublisher<T> implements JMPublisherInterface<List<T>>, JMDrainable {
     /**
      * The Log.
      */
@@ -33,11 +42,11 @@ public class BulkSubmissionPublisher<T> implements JMPublisherInterface<List<T>>
     /**
      * The Bulk size.
      */
-    protected int bulkSize;
+    protected volatile int bulkSize;
     /**
      * The Flush interval millis.
      */
-    protected long flushIntervalMillis;
+    protected volatile long flushIntervalMillis;
     /**
      * The Data list.
      */
@@ -49,6 +58,24 @@ public class BulkSubmissionPublisher<T> implements JMPublisherInterface<List<T>>
 
     private ScheduledFuture<?> scheduledFuture;
 
+    private List<Stripe<T>> stripes;
+
+    private JMFlowMetrics metrics;
+
+    private ToLongFunction<? super T> weightFunction;
+
+    private long maxBulkWeight;
+
+    private long dataWeight;
+
+    private JMListPool<T> listPool;
+
+    private final List<PooledListSubscriber> pooledListSubscriberList = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong submittedBulkCount = new AtomicLong();
+
+    private AtomicIntegerArray recentBulkSizes;
+
     /**
      * Instantiates a new Bulk submission publisher.
      */
@@ -85,22 +112,165 @@ public class BulkSubmissionPublisher<T> implements JMPublisherInterface<List<T>>
      */
     public BulkSubmissionPublisher(
             SubmissionPublisher<List<T>> listSubmissionPublisher, int bulkSize, long flushIntervalMillis) {
+        this(listSubmissionPublisher, bulkSize, flushIntervalMillis, 1);
+    }
+
+    /**
+     * Instantiates a new Bulk submission publisher.
+     *
+     * @param bulkSize            the bulk size
+     * @param flushIntervalMillis the flush interval millis
+     * @param stripes             the stripes
+     */
+    public BulkSubmissionPublisher(int bulkSize, long flushIntervalMillis, int stripes) {
+        this(new JMSubmissionPublisher<>(), bulkSize, flushIntervalMillis, stripes);
+    }
+
+    /**
+     * Instantiates a new Bulk submission publisher.
+     * <p>
+     * With more than one stripe, each producer thread appends to its own stripe buffer and full batches are handed
+     * to the list submission publisher after the stripe lock is released.
+     *
+     * @param listSubmissionPublisher the list submission publisher
+     * @param bulkSize                the bulk size
+     * @param flushIntervalMillis     the flush interval millis
+     * @param stripes                 the stripes
+     */
+    public BulkSubmissionPublisher(SubmissionPublisher<List<T>> listSubmissionPublisher, int bulkSize,
+            long flushIntervalMillis, int stripes) {
         this.listSubmissionPublisher = listSubmissionPublisher;
         this.bulkSize = bulkSize;
         this.flushIntervalMillis = flushIntervalMillis;
         this.dataList = new ArrayList<>();
         this.lastDataTimestamp = Long.MAX_VALUE;
+        this.recentBulkSizes = new AtomicIntegerArray(Math.max(listSubmissionPublisher.getMaxBufferCapacity(), 1));
+        if (stripes > 1) {
+            this.stripes = IntStream.range(0, stripes).mapToObj(i -> new Stripe<T>())
+                    .collect(Collectors.toUnmodifiableList());
+        }
         this.scheduledFuture =
                 JMThread.runWithScheduleAtFixedRate(this.flushIntervalMillis, this.flushIntervalMillis,
                         this::checkIntervalAndFlush);
     }
 
+    /**
+     * Is striped boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isStriped() {
+        return Objects.nonNull(this.stripes);
+    }
+
     private void checkIntervalAndFlush() {
+        if (isStriped()) {
+            checkIntervalAndFlushStripes(System.currentTimeMillis() - this.flushIntervalMillis);
+            return;
+        }
         if (this.lastDataTimestamp <
                 System.currentTimeMillis() - this.flushIntervalMillis && this.dataList.size() > 0) {
             JMLog.debug(log, "checkIntervalAndFlush", this.lastDataTimestamp, this.flushIntervalMillis);
-            flush();
+            flush(false);
+        }
+    }
+
+    /**
+     * Enable weight limit bulk submission publisher.
+     * <p>
+     * A bulk is also handed over as soon as the summed weight of its items reaches the max bulk weight, for example
+     * with the estimated serialized size as the weight.
+     *
+     * @param weightFunction the weight function
+     * @param maxBulkWeight  the max bulk weight
+     * @return the bulk submission publisher
+     */
+    public BulkSubmissionPublisher<T> enableWeightLimit(ToLongFunction<? super T> weightFunction,
+            long maxBulkWeight) {
+        this.maxBulkWeight = Math.max(maxBulkWeight, 1);
+        this.weightFunction = weightFunction;
+        return this;
+    }
+
+    /**
+     * Enable list pool jm list pool.
+     * <p>
+     * Bulks are then Jm pooled lists taken from a Jm list pool of up to max pooled lists pre-sized to the bulk size,
+     * and every subscriber gives a bulk back with Jm pooled list release once it is done with it. A bulk goes back
+     * to the pool when all the subscribers it was submitted to have released it; the bulks still buffered for a
+     * subscriber that cancels or fails are released for it, and a bulk submitted without subscribers is recycled
+     * right away. Only the subscribers subscribed through this publisher hold bulks, so it must be enabled before
+     * anyone subscribes, and a subscriber of the list submission publisher itself has to copy a bulk in on next.
+     *
+     * @param maxPooledLists the max pooled lists
+     * @return the jm list pool
+     */
+    @SuppressWarnings("SynchronizeOnNonFinalField")
+    public synchronized JMListPool<T> enableListPool(int maxPooledLists) {
+        if (Objects.isNull(this.listPool) && this.listSubmissionPublisher.hasSubscribers())
+            throw new IllegalStateException("List Pool Must Be Enabled Before Subscribing !!!");
+        if (Objects.isNull(this.listPool)) {
+            this.listPool = new JMListPool<>(maxPooledLists, this.bulkSize);
+            if (isStriped())
+                for (Stripe<T> stripe : this.stripes)
+                    synchronized (stripe) {
+                        stripe.dataList = swapDataList(stripe.dataList);
+                    }
+            else
+                synchronized (this.dataList) {
+                    this.dataList = swapDataList(this.dataList);
+                }
         }
+        return this.listPool;
+    }
+
+    private List<T> swapDataList(List<T> dataList) {
+        List<T> pooledList = newDataList();
+        pooledList.addAll(dataList);
+        return pooledList;
+    }
+
+    /**
+     * Gets list pool optional.
+     *
+     * @return the list pool optional
+     */
+    public Optional<JMListPool<T>> getListPoolOptional() {
+        return Optional.ofNullable(this.listPool);
+    }
+
+    private List<T> newDataList() {
+        if (Objects.isNull(this.listPool))
+            return new ArrayList<>();
+        this.listPool.setListCapacity(this.bulkSize);
+        return this.listPool.acquire();
+    }
+
+    /**
+     * Is weight limited boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isWeightLimited() {
+        return Objects.nonNull(this.weightFunction);
+    }
+
+    /**
+     * Gets bulk size.
+     *
+     * @return the bulk size
+     */
+    public int getBulkSize() {
+        return this.bulkSize;
+    }
+
+    /**
+     * Gets flush interval millis.
+     *
+     * @return the flush interval millis
+     */
+    public long getFlushIntervalMillis() {
+        return this.flushIntervalMillis;
     }
 
     /**
@@ -125,10 +295,14 @@ public class BulkSubmissionPublisher<T> implements JMPublisherInterface<List<T>>
 
     @SuppressWarnings("SynchronizeOnNonFinalField")
     private int submitBulk(List<T> dataList) {
+        if (isStriped())
+            return submitBulkToStripe(dataList);
         synchronized (this.dataList) {
-            if (this.dataList.size() + dataList.size() < this.bulkSize) {
+            if (!isWeightLimited() && this.dataList.size() + dataList.size() < this.bulkSize) {
                 this.dataList.addAll(dataList);
                 setLastDataTimestamp();
+                if (Objects.nonNull(this.metrics))
+                    this.metrics.recordIn(dataList.size());
             } else
                 for (T data : dataList)
                     submitSingle(data);
@@ -146,11 +320,16 @@ public class BulkSubmissionPublisher<T> implements JMPublisherInterface<List<T>>
     public int submitSingle(T item) {
         if (Objects.isNull(item))
             return 0;
+        if (Objects.nonNull(this.metrics))
+            this.metrics.recordIn();
+        if (isStriped())
+            return submitSingleToStripe(item);
         synchronized (this.dataList) {
             this.dataList.add(item);
             setLastDataTimestamp();
-            if (this.dataList.size() >= this.bulkSize)
-                flush();
+            if (this.dataList.size() >= this.bulkSize || isWeightLimited() &&
+                    (this.dataWeight += this.weightFunction.applyAsLong(item)) >= this.maxBulkWeight)
+                flush(true);
             return 1;
         }
     }
@@ -159,16 +338,184 @@ public class BulkSubmissionPublisher<T> implements JMPublisherInterface<List<T>>
         this.lastDataTimestamp = System.currentTimeMillis();
     }
 
+    private Stripe<T> getStripe() {
+        return this.stripes.get((int) (Thread.currentThread().getId() % this.stripes.size()));
+    }
+
+    private int submitSingleToStripe(T item) {
+        List<T> fullList;
+        Stripe<T> stripe = getStripe();
+        synchronized (stripe) {
+            fullList = addToStripe(stripe, item) ? stripe.swap(newDataList()) : null;
+        }
+        if (Objects.nonNull(fullList))
+            submitToListPublisher(fullList, true);
+        return 1;
+    }
+
+    private int submitBulkToStripe(List<T> dataList) {
+        List<List<T>> fullLists = new ArrayList<>();
+        Stripe<T> stripe = getStripe();
+        int size;
+        int addedCount = 0;
+        synchronized (stripe) {
+            for (T data : dataList) {
+                if (Objects.isNull(data))
+                    continue;
+                addedCount++;
+                if (addToStripe(stripe, data))
+                    fullLists.add(stripe.swap(newDataList()));
+            }
+            size = stripe.dataList.size();
+        }
+        if (Objects.nonNull(this.metrics))
+            this.metrics.recordIn(addedCount);
+        fullLists.forEach(fullList -> submitToListPublisher(fullList, true));
+        return size;
+    }
+
+    private boolean addToStripe(Stripe<T> stripe, T data) {
+        stripe.add(data);
+        return stripe.dataList.size() >= this.bulkSize || isWeightLimited() &&
+                (stripe.dataWeight += this.weightFunction.applyAsLong(data)) >= this.maxBulkWeight;
+    }
+
+    private void checkIntervalAndFlushStripes(long expiredTimestamp) {
+        for (Stripe<T> stripe : this.stripes) {
+            List<T> staleList;
+            synchronized (stripe) {
+                staleList = stripe.lastDataTimestamp < expiredTimestamp && stripe.dataList.size() > 0 ?
+                        stripe.swap(newDataList()) : null;
+            }
+            if (Objects.nonNull(staleList)) {
+                JMLog.debug(log, "checkIntervalAndFlush", expiredTimestamp, this.flushIntervalMillis);
+                submitToListPublisher(staleList, false);
+            }
+        }
+    }
+
+    private void flushStripes() {
+        for (Stripe<T> stripe : this.stripes) {
+            List<T> pendingList;
+            synchronized (stripe) {
+                pendingList = stripe.dataList.size() > 0 ? stripe.swap(newDataList()) : null;
+            }
+            if (Objects.nonNull(pendingList))
+                submitToListPublisher(pendingList, false);
+        }
+    }
+
+    private void submitToListPublisher(List<T> bulkList, boolean full) {
+        int submittedSize = bulkList.size();
+        long startNanos = System.nanoTime();
+        recordBulkSize(submittedSize);
+        if (bulkList instanceof JMPooledList)
+            submitPooledList((JMPooledList<T>) bulkList);
+        else
+            this.listSubmissionPublisher.submit(bulkList);
+        long blockedNanos = System.nanoTime() - startNanos;
+        if (Objects.nonNull(this.metrics)) {
+            this.metrics.recordBlockedNanos(blockedNanos);
+            this.metrics.recordOut(submittedSize);
+        }
+        onBulkSubmitted(submittedSize, full, blockedNanos);
+    }
+
+    private void submitPooledList(JMPooledList<T> pooledList) {
+        pooledList.retain(1);
+        try {
+            for (PooledListSubscriber pooledListSubscriber : this.pooledListSubscriberList)
+                pooledListSubscriber.hold(pooledList);
+            this.listSubmissionPublisher.submit(pooledList);
+        } finally {
+            pooledList.release();
+        }
+    }
+
+    private void recordBulkSize(int bulkSize) {
+        this.recentBulkSizes.set((int) (this.submittedBulkCount.getAndIncrement() % this.recentBulkSizes.length()),
+                bulkSize);
+    }
+
+    /**
+     * Sums the sizes of the last bulks submitted, the ones a lagging subscriber has not received yet, counting the
+     * bulks older than the recorded ones at the bulk size.
+     */
+    private long sumRecentBulkSizes(long bulkCount) {
+        long submittedBulkCount = this.submittedBulkCount.get();
+        long recordedCount = Math.min(Math.min(bulkCount, this.recentBulkSizes.length()), submittedBulkCount);
+        long itemCount = (bulkCount - recordedCount) * this.bulkSize;
+        for (long sequence = submittedBulkCount - recordedCount; sequence < submittedBulkCount; sequence++)
+            itemCount += this.recentBulkSizes.get((int) (sequence % this.recentBulkSizes.length()));
+        return itemCount;
+    }
+
+    /**
+     * On bulk submitted.
+     * <p>
+     * Called after every bulk was handed to the list submission publisher, with full false when the bulk was
+     * flushed by the interval or by flush.
+     *
+     * @param submittedSize the submitted size
+     * @param full          the full
+     * @param blockedNanos  the blocked nanos
+     */
+    protected void onBulkSubmitted(int submittedSize, boolean full, long blockedNanos) {
+    }
+
+    /**
+     * Estimate maximum lag int.
+     *
+     * @return the int
+     */
+    public int estimateMaximumLag() {
+        return this.listSubmissionPublisher.estimateMaximumLag();
+    }
+
+    /**
+     * Enable metrics jm flow metrics.
+     *
+     * @param name the name
+     * @return the jm flow metrics
+     */
+    public synchronized JMFlowMetrics enableMetrics(String name) {
+        if (Objects.isNull(this.metrics))
+            this.metrics = new JMFlowMetrics(name)
+                    .withLagSupplier(this.listSubmissionPublisher::estimateMaximumLag,
+                            this.listSubmissionPublisher::getMaxBufferCapacity);
+        return this.metrics;
+    }
+
+    /**
+     * Gets metrics optional.
+     *
+     * @return the metrics optional
+     */
+    public Optional<JMFlowMetrics> getMetricsOptional() {
+        return Optional.ofNullable(this.metrics);
+    }
+
     /**
      * Flush.
      */
-    @SuppressWarnings("SynchronizeOnNonFinalField")
     public void flush() {
+        flush(false);
+    }
+
+    @SuppressWarnings("SynchronizeOnNonFinalField")
+    private void flush(boolean full) {
+        if (isStriped()) {
+            JMLog.debug(log, "flush", this.stripes.size());
+            flushStripes();
+            return;
+        }
         JMLog.debug(log, "flush", this.dataList.size());
         synchronized (this.dataList) {
             if (this.dataList.size() > 0) {
-                this.listSubmissionPublisher.submit(this.dataList);
-                this.dataList = new ArrayList<>();
+                List<T> bulkList = this.dataList;
+                this.dataList = newDataList();
+                this.dataWeight = 0;
+                submitToListPublisher(bulkList, full);
             }
         }
     }
@@ -177,18 +524,155 @@ public class BulkSubmissionPublisher<T> implements JMPublisherInterface<List<T>>
     public void close() {
         JMLog.info(log, "close");
         this.scheduledFuture.cancel(false);
+        flush();
         this.listSubmissionPublisher.close();
     }
 
+    /**
+     * Close and drain long.
+     * <p>
+     * Flushes the pending bulk and waits until the subscribers have received every bulk, then closes.
+     *
+     * @param timeout the timeout
+     * @return the number of items in the bulks still not received by the slowest subscriber
+     */
+    @Override
+    public long closeAndDrain(Duration timeout) {
+        JMLog.info(log, "closeAndDrain", timeout);
+        long deadlineNanos = JMDrainable.getDeadlineNanos(timeout);
+        this.scheduledFuture.cancel(false);
+        flush();
+        long lostBulkCount;
+        if (this.listSubmissionPublisher instanceof JMDrainable)
+            lostBulkCount = ((JMDrainable) this.listSubmissionPublisher)
+                    .closeAndDrain(JMDrainable.getRemaining(deadlineNanos));
+        else {
+            JMDrainable.awaitUntil(() -> this.listSubmissionPublisher.estimateMaximumLag() == 0, deadlineNanos);
+            lostBulkCount = this.listSubmissionPublisher.estimateMaximumLag();
+            this.listSubmissionPublisher.close();
+        }
+        long lostCount = sumRecentBulkSizes(lostBulkCount);
+        if (lostCount > 0)
+            JMLog.warn(log, "closeAndDrain", timeout, lostCount);
+        return lostCount;
+    }
+
     @Override
     public String toString() {
         return "BulkSubmissionPublisher(listSubmissionPublisher=" + listSubmissionPublisher.toString() + ", bulkSize=" +
                 this.bulkSize + ", flushIntervalMillis=" + this.flushIntervalMillis + ", dataList=" + this.dataList +
-                ")";
+                ", stripes=" + (isStriped() ? this.stripes.size() : 1) + ")";
     }
 
     @Override
     public void subscribe(Flow.Subscriber<? super List<T>> subscriber) {
-        this.listSubmissionPublisher.subscribe(subscriber);
+        if (Objects.isNull(this.listPool)) {
+            this.listSubmissionPublisher.subscribe(subscriber);
+            return;
+        }
+        PooledListSubscriber pooledListSubscriber = new PooledListSubscriber(subscriber);
+        this.listSubmissionPublisher.subscribe(pooledListSubscriber);
+        this.pooledListSubscriberList.add(pooledListSubscriber);
+    }
+
+    /**
+     * Holds a reference on every pooled list submitted while it is subscribed and gives it back when the list is
+     * delivered, so the subscriber owns the delivered list, or when the subscription ends with lists still buffered.
+     * A pooled list it holds no reference on, submitted while it was joining, is not delivered.
+     */
+    private class PooledListSubscriber implements Flow.Subscriber<List<T>>, Flow.Subscription {
+        private final Flow.Subscriber<? super List<T>> subscriber;
+        private final Queue<JMPooledList<T>> heldQueue;
+        private boolean terminated;
+        private Flow.Subscription subscription;
+
+        private PooledListSubscriber(Flow.Subscriber<? super List<T>> subscriber) {
+            this.subscriber = subscriber;
+            this.heldQueue = new ArrayDeque<>();
+        }
+
+        private synchronized void hold(JMPooledList<T> pooledList) {
+            if (this.terminated)
+                return;
+            pooledList.retain(1);
+            this.heldQueue.add(pooledList);
+        }
+
+        /**
+         * Takes the held reference on the delivered list, releasing the ones held before it, which were never
+         * delivered, and returns false when the list is not held.
+         */
+        private synchronized boolean take(JMPooledList<T> pooledList) {
+            if (this.terminated || this.heldQueue.stream().noneMatch(heldList -> heldList == pooledList))
+                return false;
+            JMPooledList<T> heldList;
+            while ((heldList = this.heldQueue.poll()) != pooledList)
+                heldList.release();
+            return true;
+        }
+
+        private void terminate() {
+            synchronized (this) {
+                this.terminated = true;
+                JMPooledList<T> pooledList;
+                while (Objects.nonNull(pooledList = this.heldQueue.poll()))
+                    pooledList.release();
+            }
+            pooledListSubscriberList.remove(this);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            this.subscriber.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(List<T> item) {
+            if (item instanceof JMPooledList && !take((JMPooledList<T>) item))
+                return;
+            this.subscriber.onNext(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            terminate();
+            this.subscriber.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            terminate();
+            this.subscriber.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            this.subscription.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            terminate();
+            this.subscription.cancel();
+        }
+    }
+
+    private static class Stripe<T> {
+        private List<T> dataList = new ArrayList<>();
+        private long lastDataTimestamp = Long.MAX_VALUE;
+        private long dataWeight;
+
+        private void add(T data) {
+            this.dataList.add(data);
+            this.lastDataTimestamp = System.currentTimeMillis();
+        }
+
+        private List<T> swap(List<T> newDataList) {
+            List<T> fullList = this.dataList;
+            this.dataList = newDataList;
+            this.dataWeight = 0;
+            return fullList;
+        }
     }
 }
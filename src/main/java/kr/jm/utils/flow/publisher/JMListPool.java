@@ -0,0 +1,103 @@
+package kr.jm.utils.flow.publisher;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The type Jm list pool.
+ * <p>
+ * Keeps up to max pooled lists of released Jm pooled lists for reuse. Acquire takes a pooled list when there is one
+ * and creates a new one with the list capacity otherwise, so lists that are never released only cost the allocation
+ * the pool would have saved.
+ *
+ * @param <T> the type parameter
+ */
+public class JMListPool<T> {
+
+    private final BlockingQueue<JMPooledList<T>> pooledListQueue;
+    private volatile int listCapacity;
+    private final LongAdder createdCount;
+    private final LongAdder recycledCount;
+
+    /**
+     * Instantiates a new Jm list pool.
+     *
+     * @param maxPooledLists the max pooled lists
+     * @param listCapacity   the list capacity
+     */
+    public JMListPool(int maxPooledLists, int listCapacity) {
+        this.pooledListQueue = new ArrayBlockingQueue<>(Math.max(maxPooledLists, 1));
+        this.listCapacity = Math.max(listCapacity, 1);
+        this.createdCount = new LongAdder();
+        this.recycledCount = new LongAdder();
+    }
+
+    /**
+     * Acquire jm pooled list.
+     *
+     * @return the jm pooled list
+     */
+    public JMPooledList<T> acquire() {
+        JMPooledList<T> pooledList = this.pooledListQueue.poll();
+        if (Objects.isNull(pooledList)) {
+            this.createdCount.increment();
+            return new JMPooledList<>(this, this.listCapacity);
+        }
+        pooledList.ensureCapacity(this.listCapacity);
+        return pooledList;
+    }
+
+    /**
+     * Recycle.
+     *
+     * @param pooledList the pooled list
+     */
+    void recycle(JMPooledList<T> pooledList) {
+        if (this.pooledListQueue.offer(pooledList))
+            this.recycledCount.increment();
+    }
+
+    /**
+     * Sets list capacity.
+     *
+     * @param listCapacity the list capacity
+     */
+    public void setListCapacity(int listCapacity) {
+        this.listCapacity = Math.max(listCapacity, 1);
+    }
+
+    /**
+     * Gets pooled count.
+     *
+     * @return the pooled count
+     */
+    public int getPooledCount() {
+        return this.pooledListQueue.size();
+    }
+
+    /**
+     * Gets created count.
+     *
+     * @return the created count
+     */
+    public long getCreatedCount() {
+        return this.createdCount.sum();
+    }
+
+    /**
+     * Gets recycled count.
+     *
+     * @return the recycled count
+     */
+    public long getRecycledCount() {
+        return this.recycledCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "JMListPool{" + "pooledCount=" + pooledListQueue.size() + ", listCapacity=" + listCapacity +
+                ", createdCount=" + createdCount + ", recycledCount=" + recycledCount + '}';
+    }
+}
@@ -0,0 +1,80 @@
+package kr.jm.utils.flow.publisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The type Jm pooled list.
+ * <p>
+ * A batch list that goes back to its Jm list pool once every subscriber it was submitted to has released it. A
+ * subscriber must not use the list after releasing it.
+ *
+ * @param <T> the type parameter
+ */
+public class JMPooledList<T> extends ArrayList<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient JMListPool<T> listPool;
+    private final transient AtomicInteger referenceCount;
+
+    /**
+     * Instantiates a new Jm pooled list.
+     *
+     * @param listPool        the list pool
+     * @param initialCapacity the initial capacity
+     */
+    JMPooledList(JMListPool<T> listPool, int initialCapacity) {
+        super(initialCapacity);
+        this.listPool = listPool;
+        this.referenceCount = new AtomicInteger();
+    }
+
+    /**
+     * Retain.
+     *
+     * @param references the references to add
+     */
+    void retain(int references) {
+        this.referenceCount.addAndGet(references);
+    }
+
+    /**
+     * Release.
+     * <p>
+     * Gives one reference back and recycles the list when it was the last one.
+     *
+     * @throws IllegalStateException if the list holds no reference anymore
+     */
+    public void release() {
+        int references;
+        do {
+            if ((references = this.referenceCount.get()) <= 0)
+                throw new IllegalStateException("JMPooledList released more times than retained");
+        } while (!this.referenceCount.compareAndSet(references, references - 1));
+        if (references == 1)
+            recycle();
+    }
+
+    /**
+     * Recycle.
+     */
+    void recycle() {
+        clear();
+        this.listPool.recycle(this);
+    }
+
+    /**
+     * Release.
+     * <p>
+     * Releases the list if it is a Jm pooled list and does nothing otherwise.
+     *
+     * @param list the list
+     */
+    public static void release(List<?> list) {
+        if (list instanceof JMPooledList)
+            ((JMPooledList<?>) list).release();
+    }
+
+}
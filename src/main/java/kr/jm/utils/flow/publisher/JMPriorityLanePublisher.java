@@ -0,0 +1,454 @@
+package kr.jm.utils.flow.publisher;
+
+import kr.jm.utils.exception.JMException;
+import kr.jm.utils.flow.JMDrainable;
+import kr.jm.utils.flow.metrics.JMFlowMetrics;
+import kr.jm.utils.helper.JMLog;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The type Jm priority lane publisher.
+ * <p>
+ * A publisher with several lanes, lane 0 having the highest priority. Every subscriber has its own buffer per lane
+ * with the capacity of the lane, and submit waits only when the buffer of its lane is full, so a full data lane never
+ * holds back a control lane. Each time a subscriber has demand, the next item is taken from the lanes by the
+ * priority mode: strict always takes the highest priority lane that has items, weighted takes up to the weight of
+ * each lane in turn, so the lower priority lanes are never starved. Like Submission publisher, a subscriber receives
+ * only the items submitted after it subscribed.
+ *
+ * @param <T> the type parameter
+ */
+public class JMPriorityLanePublisher<T> implements JMPublisherInterface<T>, JMDrainable {
+
+    /**
+     * The enum Priority mode.
+     */
+    public enum PriorityMode {
+        /**
+         * Always drains the highest priority lane first.
+         */
+        STRICT,
+        /**
+         * Drains the lanes in priority order, up to the weight of each lane per round.
+         */
+        WEIGHTED
+    }
+
+    /**
+     * The Log.
+     */
+    protected final Logger log = org.slf4j.LoggerFactory.getLogger(getClass());
+
+    private final int[] laneCapacities;
+    private final PriorityMode priorityMode;
+    private final int[] laneWeights;
+    private final Executor executor;
+    private final List<LaneSubscription> subscriptionList;
+    private volatile boolean closed;
+    private volatile List<JMFlowMetrics> laneMetricsList;
+
+    /**
+     * Instantiates a new Jm priority lane publisher.
+     * <p>
+     * Strict priority over lanes of the given capacities.
+     *
+     * @param laneCapacities the lane capacities
+     */
+    public JMPriorityLanePublisher(int... laneCapacities) {
+        this(PriorityMode.STRICT, laneCapacities, null);
+    }
+
+    /**
+     * Instantiates a new Jm priority lane publisher.
+     *
+     * @param priorityMode   the priority mode
+     * @param laneCapacities the lane capacities
+     * @param laneWeights    the lane weights, used by the weighted mode
+     */
+    public JMPriorityLanePublisher(PriorityMode priorityMode, int[] laneCapacities, int[] laneWeights) {
+        this(priorityMode, laneCapacities, laneWeights, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Instantiates a new Jm priority lane publisher.
+     *
+     * @param priorityMode   the priority mode
+     * @param laneCapacities the lane capacities
+     * @param laneWeights    the lane weights, used by the weighted mode
+     * @param executor       the executor
+     */
+    public JMPriorityLanePublisher(PriorityMode priorityMode, int[] laneCapacities, int[] laneWeights,
+            Executor executor) {
+        if (Objects.isNull(laneCapacities) || laneCapacities.length == 0)
+            throw new IllegalArgumentException("No Lane Capacities !!!");
+        this.priorityMode = Objects.requireNonNull(priorityMode);
+        this.laneCapacities = Arrays.stream(laneCapacities).map(capacity -> Math.max(capacity, 1)).toArray();
+        this.laneWeights = IntStream.range(0, this.laneCapacities.length)
+                .map(lane -> Objects.nonNull(laneWeights) && lane < laneWeights.length ?
+                        Math.max(laneWeights[lane], 1) : 1).toArray();
+        this.executor = Objects.requireNonNull(executor);
+        this.subscriptionList = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Submit int.
+     * <p>
+     * Submits to the lowest priority lane.
+     *
+     * @param item the item
+     * @return the estimated lag of the lane
+     */
+    public int submit(T item) {
+        return submit(this.laneCapacities.length - 1, item);
+    }
+
+    /**
+     * Submit int.
+     *
+     * @param lane the lane
+     * @param item the item
+     * @return the estimated lag of the lane
+     */
+    public int submit(int lane, T item) {
+        Objects.requireNonNull(item);
+        if (this.closed)
+            throw new IllegalStateException("Closed JMPriorityLanePublisher !!!");
+        List<JMFlowMetrics> laneMetricsList = this.laneMetricsList;
+        LaneItem<T> laneItem = new LaneItem<>(item, System.nanoTime(),
+                Objects.nonNull(laneMetricsList) ? new AtomicInteger(1) : null);
+        if (Objects.nonNull(laneMetricsList))
+            laneMetricsList.get(lane).recordIn();
+        int lag = 0;
+        for (LaneSubscription laneSubscription : this.subscriptionList)
+            lag = Math.max(lag, laneSubscription.offer(lane, laneItem));
+        completeDelivery(lane, laneItem);
+        return lag;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber);
+        JMLog.info(log, "subscribe", subscriber);
+        LaneSubscription laneSubscription = new LaneSubscription(subscriber);
+        if (!this.closed)
+            this.subscriptionList.add(laneSubscription);
+        subscriber.onSubscribe(laneSubscription);
+        if (this.closed)
+            laneSubscription.signal();
+    }
+
+    /**
+     * Gets lane count.
+     *
+     * @return the lane count
+     */
+    public int getLaneCount() {
+        return this.laneCapacities.length;
+    }
+
+    /**
+     * Gets lane capacity.
+     *
+     * @param lane the lane
+     * @return the lane capacity
+     */
+    public int getLaneCapacity(int lane) {
+        return this.laneCapacities[lane];
+    }
+
+    /**
+     * Gets priority mode.
+     *
+     * @return the priority mode
+     */
+    public PriorityMode getPriorityMode() {
+        return this.priorityMode;
+    }
+
+    /**
+     * Estimate maximum lag int.
+     *
+     * @param lane the lane
+     * @return the int
+     */
+    public int estimateMaximumLag(int lane) {
+        return this.subscriptionList.stream().mapToInt(laneSubscription -> laneSubscription.getLag(lane)).max()
+                .orElse(0);
+    }
+
+    /**
+     * Has subscribers boolean.
+     *
+     * @return the boolean
+     */
+    public boolean hasSubscribers() {
+        return !this.subscriptionList.isEmpty();
+    }
+
+    /**
+     * Gets number of subscribers.
+     *
+     * @return the number of subscribers
+     */
+    public int getNumberOfSubscribers() {
+        return this.subscriptionList.size();
+    }
+
+    private void completeDelivery(int lane, LaneItem<T> laneItem) {
+        if (Objects.isNull(laneItem.remainingDeliveryCount) || laneItem.remainingDeliveryCount.decrementAndGet() > 0)
+            return;
+        JMFlowMetrics laneMetrics = this.laneMetricsList.get(lane);
+        laneMetrics.recordProcessingNanos(System.nanoTime() - laneItem.submitNanos);
+        laneMetrics.recordOut();
+    }
+
+    /**
+     * Enable lane metrics list.
+     * <p>
+     * Each lane gets its own metrics named with the lane index. An item counts out once, when the last subscriber it
+     * was offered to is handed it, and its processing time is the latency from submit to that on next.
+     *
+     * @param name the name
+     * @return the list
+     */
+    public synchronized List<JMFlowMetrics> enableLaneMetrics(String name) {
+        if (Objects.isNull(this.laneMetricsList))
+            this.laneMetricsList = Collections.unmodifiableList(IntStream.range(0, this.laneCapacities.length)
+                    .mapToObj(lane -> new JMFlowMetrics(name + "-lane-" + lane)
+                            .withLagSupplier(() -> estimateMaximumLag(lane), () -> this.laneCapacities[lane]))
+                    .collect(Collectors.toList()));
+        return this.laneMetricsList;
+    }
+
+    /**
+     * Gets lane metrics list.
+     *
+     * @return the lane metrics list
+     */
+    public List<JMFlowMetrics> getLaneMetricsList() {
+        return Objects.isNull(this.laneMetricsList) ? Collections.emptyList() : this.laneMetricsList;
+    }
+
+    /**
+     * Is closed boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    /**
+     * Close and drain long.
+     * <p>
+     * Closes and waits until every subscriber has consumed what was published and completed.
+     *
+     * @param timeout the timeout
+     * @return the number of items still not consumed by the slowest subscriber
+     */
+    @Override
+    public long closeAndDrain(Duration timeout) {
+        JMLog.info(log, "closeAndDrain", timeout);
+        close();
+        JMDrainable.awaitUntil(() -> !hasSubscribers(), JMDrainable.getDeadlineNanos(timeout));
+        long lostCount = IntStream.range(0, getLaneCount()).map(this::estimateMaximumLag).sum();
+        if (lostCount > 0)
+            JMLog.warn(log, "closeAndDrain", timeout, lostCount);
+        return lostCount;
+    }
+
+    /**
+     * Close.
+     * <p>
+     * Subscribers receive the items already submitted and then on complete.
+     */
+    @Override
+    public void close() {
+        if (this.closed)
+            return;
+        JMLog.info(log, "close");
+        this.closed = true;
+        this.subscriptionList.forEach(LaneSubscription::signal);
+    }
+
+    @Override
+    public String toString() {
+        return "JMPriorityLanePublisher{" + "laneCapacities=" + Arrays.toString(laneCapacities) +
+                ", priorityMode=" + priorityMode + ", laneWeights=" + Arrays.toString(laneWeights) +
+                ", subscribers=" + subscriptionList.size() + '}';
+    }
+
+    private static class LaneItem<T> {
+        private final T item;
+        private final long submitNanos;
+        private final AtomicInteger remainingDeliveryCount;
+
+        private LaneItem(T item, long submitNanos, AtomicInteger remainingDeliveryCount) {
+            this.item = item;
+            this.submitNanos = submitNanos;
+            this.remainingDeliveryCount = remainingDeliveryCount;
+        }
+    }
+
+    private class LaneSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final List<BlockingQueue<LaneItem<T>>> laneQueues;
+        private final int[] laneCredits;
+        private final AtomicLong demand;
+        private final AtomicInteger drainRequestCount;
+        private final AtomicBoolean terminated;
+
+        private LaneSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+            this.laneQueues = Arrays.stream(laneCapacities)
+                    .mapToObj(capacity -> new ArrayBlockingQueue<LaneItem<T>>(capacity))
+                    .collect(Collectors.toUnmodifiableList());
+            this.laneCredits = laneWeights.clone();
+            this.demand = new AtomicLong();
+            this.drainRequestCount = new AtomicInteger();
+            this.terminated = new AtomicBoolean();
+        }
+
+        private int offer(int lane, LaneItem<T> laneItem) {
+            BlockingQueue<LaneItem<T>> laneQueue = this.laneQueues.get(lane);
+            if (Objects.nonNull(laneItem.remainingDeliveryCount))
+                laneItem.remainingDeliveryCount.incrementAndGet();
+            boolean queued = false;
+            try {
+                if (!(queued = laneQueue.offer(laneItem))) {
+                    long startNanos = System.nanoTime();
+                    while (!this.terminated.get() &&
+                            !(queued = laneQueue.offer(laneItem, 100, TimeUnit.MILLISECONDS)))
+                        JMLog.debug(log, "offer", lane, laneItem.item);
+                    if (Objects.nonNull(laneItem.remainingDeliveryCount))
+                        laneMetricsList.get(lane).recordBlockedNanos(System.nanoTime() - startNanos);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                JMException.handleException(log, e, "offer", lane, laneItem.item);
+            }
+            if (!queued || this.terminated.get() && laneQueue.remove(laneItem))
+                completeDelivery(lane, laneItem);
+            signal();
+            return laneQueue.size();
+        }
+
+        private int getLag(int lane) {
+            return this.laneQueues.get(lane).size();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                terminate(new IllegalArgumentException("non-positive subscription request - " + n));
+                return;
+            }
+            this.demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE :
+                    current + added);
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            if (this.terminated.compareAndSet(false, true)) {
+                subscriptionList.remove(this);
+                discardQueued();
+            }
+        }
+
+        private void discardQueued() {
+            for (int lane = 0; lane < this.laneQueues.size(); lane++) {
+                LaneItem<T> laneItem;
+                while (Objects.nonNull(laneItem = this.laneQueues.get(lane).poll()))
+                    completeDelivery(lane, laneItem);
+            }
+        }
+
+        private void signal() {
+            if (this.drainRequestCount.getAndIncrement() == 0)
+                executor.execute(this::drain);
+        }
+
+        private void drain() {
+            int drainRequests = this.drainRequestCount.get();
+            do {
+                deliverByPriority();
+                if (this.terminated.get())
+                    return;
+                if (closed && isEmpty()) {
+                    terminate(null);
+                    return;
+                }
+            } while ((drainRequests = this.drainRequestCount.addAndGet(-drainRequests)) != 0);
+        }
+
+        private void deliverByPriority() {
+            int lane;
+            while (!this.terminated.get() && this.demand.get() > 0 && (lane = selectLane()) >= 0) {
+                LaneItem<T> laneItem = this.laneQueues.get(lane).poll();
+                this.demand.decrementAndGet();
+                completeDelivery(lane, laneItem);
+                try {
+                    this.subscriber.onNext(laneItem.item);
+                } catch (Exception e) {
+                    JMException.handleException(log, e, "deliverByPriority", lane, laneItem.item);
+                    terminate(e);
+                }
+            }
+        }
+
+        private int selectLane() {
+            if (priorityMode == PriorityMode.STRICT)
+                return selectNonEmptyLane();
+            for (int round = 0; round < 2; round++) {
+                for (int lane = 0; lane < this.laneQueues.size(); lane++)
+                    if (this.laneCredits[lane] > 0 && !this.laneQueues.get(lane).isEmpty()) {
+                        this.laneCredits[lane]--;
+                        return lane;
+                    }
+                System.arraycopy(laneWeights, 0, this.laneCredits, 0, this.laneCredits.length);
+            }
+            return -1;
+        }
+
+        private int selectNonEmptyLane() {
+            for (int lane = 0; lane < this.laneQueues.size(); lane++)
+                if (!this.laneQueues.get(lane).isEmpty())
+                    return lane;
+            return -1;
+        }
+
+        private boolean isEmpty() {
+            return selectNonEmptyLane() < 0;
+        }
+
+        private void terminate(Throwable throwable) {
+            if (!this.terminated.compareAndSet(false, true))
+                return;
+            subscriptionList.remove(this);
+            discardQueued();
+            if (Objects.isNull(throwable))
+                this.subscriber.onComplete();
+            else
+                this.subscriber.onError(throwable);
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package kr.jm.utils.flow.publisher;
 
 import kr.jm.utils.JMOptional;
+import kr.jm.utils.flow.subscriber.JMStreamSubscriber;
 import kr.jm.utils.flow.subscriber.JMSubscriberBuilder;
 
 import java.util.Arrays;
 import java.util.concurrent.Flow;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * The interface Jm publisher interface.
@@ -66,4 +68,25 @@ public interface JMPublisherInterface<T> extends Flow.Publisher<T> {
                 }));
         return this;
     }
+
+    /**
+     * To stream stream.
+     *
+     * @return the stream
+     */
+    default Stream<T> toStream() {
+        return toStream(JMStreamSubscriber.DEFAULT_PREFETCH);
+    }
+
+    /**
+     * To stream stream.
+     * <p>
+     * Subscribes a Jm stream subscriber with the prefetch and returns its blocking stream.
+     *
+     * @param prefetch the prefetch
+     * @return the stream
+     */
+    default Stream<T> toStream(int prefetch) {
+        return subscribeAndReturnSubcriber(new JMStreamSubscriber<T>(prefetch)).stream();
+    }
 }
@@ -0,0 +1,381 @@
+package kr.jm.utils.flow.publisher;
+
+import kr.jm.utils.JMThread;
+import kr.jm.utils.exception.JMException;
+import kr.jm.utils.flow.JMDrainable;
+import kr.jm.utils.flow.metrics.JMFlowMetrics;
+import kr.jm.utils.helper.JMLog;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The type Jm ring buffer publisher.
+ * <p>
+ * A single producer publisher over a pre-allocated ring. The producer writes an item into the next slot and moves
+ * the published sequence, and every subscriber runs on its own thread with its own consumed sequence, taking all
+ * the published items its demand allows as one batch before moving the sequence once. The producer waits only when
+ * the slowest subscriber is a full ring behind. Both sides wait with the wait strategy instead of locks, so submit
+ * must be called from a single thread at a time. Like Submission publisher, a subscriber receives only the items
+ * submitted after it subscribed, and items submitted without subscribers are dropped.
+ *
+ * @param <T> the type parameter
+ */
+public class JMRingBufferPublisher<T> implements JMPublisherInterface<T>, JMDrainable {
+
+    /**
+     * The constant DEFAULT_CAPACITY.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * The enum Wait strategy.
+     */
+    public enum WaitStrategy {
+        /**
+         * Spins on the cursor, lowest latency with a busy core.
+         */
+        BUSY_SPIN,
+        /**
+         * Spins for a while and then yields the core.
+         */
+        YIELD,
+        /**
+         * Spins, yields and then parks for a short time.
+         */
+        PARK;
+
+        private static final int SPIN_TRIES = 100;
+        private static final int YIELD_TRIES = 200;
+        private static final long PARK_NANOS = 50_000;
+
+        /**
+         * Idle int.
+         *
+         * @param idleCount the idle count
+         * @return the int
+         */
+        public int idle(int idleCount) {
+            if (this == BUSY_SPIN || idleCount < SPIN_TRIES)
+                Thread.onSpinWait();
+            else if (this == YIELD || idleCount < YIELD_TRIES)
+                Thread.yield();
+            else
+                LockSupport.parkNanos(PARK_NANOS);
+            return idleCount + 1;
+        }
+    }
+
+    /**
+     * The Log.
+     */
+    protected final Logger log = org.slf4j.LoggerFactory.getLogger(getClass());
+
+    private final Object[] ring;
+    private final long[] submitNanosRing;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+    private final AtomicLong publishedSequence;
+    private final List<RingSubscription> subscriptionList;
+    private volatile boolean closed;
+    private JMFlowMetrics metrics;
+
+    /**
+     * Instantiates a new Jm ring buffer publisher.
+     */
+    public JMRingBufferPublisher() {
+        this(DEFAULT_CAPACITY, WaitStrategy.PARK);
+    }
+
+    /**
+     * Instantiates a new Jm ring buffer publisher.
+     * <p>
+     * The capacity is rounded up to a power of two.
+     *
+     * @param capacity     the capacity
+     * @param waitStrategy the wait strategy
+     */
+    public JMRingBufferPublisher(int capacity, WaitStrategy waitStrategy) {
+        int ringSize = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.ring = new Object[ringSize];
+        this.submitNanosRing = new long[ringSize];
+        this.mask = ringSize - 1;
+        this.waitStrategy = waitStrategy;
+        this.publishedSequence = new AtomicLong(-1);
+        this.subscriptionList = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Submit int.
+     *
+     * @param item the item
+     * @return the estimated lag
+     */
+    public int submit(T item) {
+        if (this.closed)
+            throw new IllegalStateException("Closed JMRingBufferPublisher !!!");
+        long sequence = this.publishedSequence.get() + 1;
+        long minConsumedSequence = waitForCapacity(sequence);
+        int index = (int) sequence & this.mask;
+        this.ring[index] = item;
+        if (Objects.nonNull(this.metrics)) {
+            this.metrics.recordIn();
+            this.submitNanosRing[index] = System.nanoTime();
+        }
+        this.publishedSequence.lazySet(sequence);
+        return (int) (sequence - minConsumedSequence);
+    }
+
+    private long waitForCapacity(long sequence) {
+        long wrapSequence = sequence - this.ring.length;
+        long minConsumedSequence = getMinConsumedSequence(sequence - 1);
+        if (wrapSequence <= minConsumedSequence)
+            return minConsumedSequence;
+        long startNanos = System.nanoTime();
+        int idleCount = 0;
+        while (wrapSequence > (minConsumedSequence = getMinConsumedSequence(sequence - 1)))
+            idleCount = this.waitStrategy.idle(idleCount);
+        if (Objects.nonNull(this.metrics))
+            this.metrics.recordBlockedNanos(System.nanoTime() - startNanos);
+        return minConsumedSequence;
+    }
+
+    private long getMinConsumedSequence(long defaultSequence) {
+        long minConsumedSequence = defaultSequence;
+        for (RingSubscription ringSubscription : this.subscriptionList)
+            minConsumedSequence = Math.min(minConsumedSequence, ringSubscription.consumedSequence.get());
+        return minConsumedSequence;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber);
+        JMLog.debug(log, "subscribe", subscriber);
+        if (this.closed) {
+            subscriber.onSubscribe(new RingSubscription(subscriber, this.publishedSequence.get()));
+            subscriber.onComplete();
+            return;
+        }
+        RingSubscription ringSubscription = new RingSubscription(subscriber, this.publishedSequence.get());
+        this.subscriptionList.add(ringSubscription);
+        ringSubscription.start();
+    }
+
+    /**
+     * Has subscribers boolean.
+     *
+     * @return the boolean
+     */
+    public boolean hasSubscribers() {
+        return !this.subscriptionList.isEmpty();
+    }
+
+    /**
+     * Gets number of subscribers.
+     *
+     * @return the number of subscribers
+     */
+    public int getNumberOfSubscribers() {
+        return this.subscriptionList.size();
+    }
+
+    /**
+     * Gets capacity.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return this.ring.length;
+    }
+
+    /**
+     * Gets wait strategy.
+     *
+     * @return the wait strategy
+     */
+    public WaitStrategy getWaitStrategy() {
+        return this.waitStrategy;
+    }
+
+    /**
+     * Estimate maximum lag int.
+     *
+     * @return the int
+     */
+    public int estimateMaximumLag() {
+        long publishedSequence = this.publishedSequence.get();
+        return (int) (publishedSequence - getMinConsumedSequence(publishedSequence));
+    }
+
+    /**
+     * Is closed boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    /**
+     * Enable metrics jm flow metrics.
+     * <p>
+     * The processing times of the metrics are the delivery latencies from submit to on next.
+     *
+     * @param name the name
+     * @return the jm flow metrics
+     */
+    public synchronized JMFlowMetrics enableMetrics(String name) {
+        if (Objects.isNull(this.metrics))
+            this.metrics = new JMFlowMetrics(name).withLagSupplier(this::estimateMaximumLag, this::getCapacity);
+        return this.metrics;
+    }
+
+    /**
+     * Gets metrics optional.
+     *
+     * @return the metrics optional
+     */
+    public Optional<JMFlowMetrics> getMetricsOptional() {
+        return Optional.ofNullable(this.metrics);
+    }
+
+    /**
+     * Close and drain long.
+     * <p>
+     * Closes and waits until every subscriber has consumed what was published and completed.
+     *
+     * @param timeout the timeout
+     * @return the number of items still not consumed by the slowest subscriber
+     */
+    @Override
+    public long closeAndDrain(Duration timeout) {
+        JMLog.info(log, "closeAndDrain", timeout);
+        close();
+        JMDrainable.awaitUntil(() -> !hasSubscribers(), JMDrainable.getDeadlineNanos(timeout));
+        long lostCount = estimateMaximumLag();
+        if (lostCount > 0)
+            JMLog.warn(log, "closeAndDrain", timeout, lostCount);
+        return lostCount;
+    }
+
+    /**
+     * Close.
+     * <p>
+     * Subscribers receive the items already submitted and then on complete.
+     */
+    @Override
+    public void close() {
+        if (this.closed)
+            return;
+        JMLog.info(log, "close", this.publishedSequence.get());
+        this.closed = true;
+    }
+
+    @Override
+    public String toString() {
+        return "JMRingBufferPublisher{" + "capacity=" + ring.length + ", waitStrategy=" + waitStrategy +
+                ", publishedSequence=" + publishedSequence + ", subscribers=" + subscriptionList.size() + '}';
+    }
+
+    private class RingSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final AtomicLong consumedSequence;
+        private final AtomicLong demand;
+        private final AtomicBoolean cancelled;
+        private ExecutorService consumerExecutor;
+
+        private RingSubscription(Flow.Subscriber<? super T> subscriber, long startSequence) {
+            this.subscriber = subscriber;
+            this.consumedSequence = new AtomicLong(startSequence);
+            this.demand = new AtomicLong();
+            this.cancelled = new AtomicBoolean();
+        }
+
+        private void start() {
+            this.consumerExecutor = JMThread.newSingleThreadPool();
+            this.consumerExecutor.execute(this::runConsumeLoop);
+            this.consumerExecutor.shutdown();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancelWithError(new IllegalArgumentException("non-positive subscription request - " + n));
+                return;
+            }
+            this.demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE :
+                    current + added);
+        }
+
+        @Override
+        public void cancel() {
+            if (this.cancelled.compareAndSet(false, true))
+                subscriptionList.remove(this);
+        }
+
+        private void cancelWithError(Throwable throwable) {
+            if (this.cancelled.get())
+                return;
+            cancel();
+            this.subscriber.onError(throwable);
+        }
+
+        private void runConsumeLoop() {
+            try {
+                this.subscriber.onSubscribe(this);
+            } catch (Exception e) {
+                cancelWithError(e);
+                return;
+            }
+            int idleCount = 0;
+            long sequence = this.consumedSequence.get();
+            while (!this.cancelled.get()) {
+                boolean closed = JMRingBufferPublisher.this.closed;
+                long availableSequence = publishedSequence.get();
+                if (closed && sequence >= availableSequence) {
+                    cancel();
+                    this.subscriber.onComplete();
+                    return;
+                }
+                long demand = this.demand.get();
+                if (sequence >= availableSequence || demand <= 0) {
+                    idleCount = waitStrategy.idle(idleCount);
+                    continue;
+                }
+                idleCount = 0;
+                long batchEndSequence = Math.min(availableSequence, sequence + demand);
+                if (demand != Long.MAX_VALUE)
+                    this.demand.addAndGet(sequence - batchEndSequence);
+                try {
+                    while (sequence < batchEndSequence)
+                        deliver(++sequence);
+                } catch (Exception e) {
+                    JMException.handleException(log, e, "runConsumeLoop", sequence);
+                    cancelWithError(e);
+                    return;
+                } finally {
+                    this.consumedSequence.lazySet(sequence);
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void deliver(long sequence) {
+            int index = (int) sequence & mask;
+            if (Objects.nonNull(metrics)) {
+                metrics.recordProcessingNanos(System.nanoTime() - submitNanosRing[index]);
+                metrics.recordOut();
+            }
+            this.subscriber.onNext((T) ring[index]);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package kr.jm.utils.flow.publisher;
+
+import kr.jm.utils.exception.JMException;
+import kr.jm.utils.helper.JMLog;
+import org.slf4j.Logger;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * The type Jm stream publisher.
+ * <p>
+ * Publishes the items of an iterator or a stream only as its subscriber requests them: each request pulls at most
+ * the requested number of items on the executor, so nothing is read ahead and nothing is buffered. A parallel stream
+ * is pulled through its iterator, which keeps the stream lazy at the cost of its parallelism. The source can be read
+ * once, so only the first subscriber receives the items and the others receive on error. The stream is closed when
+ * it is exhausted, when the subscription is cancelled and on close.
+ *
+ * @param <T> the type parameter
+ */
+public class JMStreamPublisher<T> implements JMPublisherInterface<T>, AutoCloseable {
+
+    /**
+     * The Log.
+     */
+    protected final Logger log = org.slf4j.LoggerFactory.getLogger(getClass());
+
+    private final Iterator<T> iterator;
+    private final AutoCloseable source;
+    private final Executor executor;
+    private final AtomicBoolean subscribed;
+    private final AtomicLong publishedCount;
+    private volatile IteratorSubscription iteratorSubscription;
+    private volatile boolean closed;
+
+    /**
+     * Instantiates a new Jm stream publisher.
+     *
+     * @param stream the stream
+     */
+    public JMStreamPublisher(Stream<T> stream) {
+        this(stream, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Instantiates a new Jm stream publisher.
+     *
+     * @param stream   the stream
+     * @param executor the executor
+     */
+    public JMStreamPublisher(Stream<T> stream, Executor executor) {
+        this(stream.iterator(), stream, executor);
+    }
+
+    /**
+     * Instantiates a new Jm stream publisher.
+     *
+     * @param iterator the iterator
+     */
+    public JMStreamPublisher(Iterator<T> iterator) {
+        this(iterator, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Instantiates a new Jm stream publisher.
+     *
+     * @param iterator the iterator
+     * @param executor the executor
+     */
+    public JMStreamPublisher(Iterator<T> iterator, Executor executor) {
+        this(iterator, null, executor);
+    }
+
+    private JMStreamPublisher(Iterator<T> iterator, AutoCloseable source, Executor executor) {
+        this.iterator = Objects.requireNonNull(iterator);
+        this.source = source;
+        this.executor = Objects.requireNonNull(executor);
+        this.subscribed = new AtomicBoolean();
+        this.publishedCount = new AtomicLong();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber);
+        JMLog.info(log, "subscribe", subscriber);
+        IteratorSubscription iteratorSubscription = new IteratorSubscription(subscriber);
+        if (!this.subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(iteratorSubscription);
+            iteratorSubscription.terminate(
+                    new IllegalStateException("JMStreamPublisher Allows Only One Subscriber !!!"));
+            return;
+        }
+        this.iteratorSubscription = iteratorSubscription;
+        subscriber.onSubscribe(iteratorSubscription);
+    }
+
+    /**
+     * Gets published count.
+     *
+     * @return the published count
+     */
+    public long getPublishedCount() {
+        return this.publishedCount.get();
+    }
+
+    /**
+     * Is subscribed boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isSubscribed() {
+        return this.subscribed.get();
+    }
+
+    /**
+     * Close.
+     * <p>
+     * The subscriber receives on complete without the items not yet pulled.
+     */
+    @Override
+    public void close() {
+        JMLog.info(log, "close", this.publishedCount.get());
+        this.closed = true;
+        if (this.subscribed.compareAndSet(false, true))
+            closeSource();
+        else if (Objects.nonNull(this.iteratorSubscription))
+            this.iteratorSubscription.signal();
+    }
+
+    private void closeSource() {
+        if (Objects.isNull(this.source))
+            return;
+        try {
+            this.source.close();
+        } catch (Exception e) {
+            JMException.handleException(log, e, "closeSource");
+        }
+    }
+
+    private class IteratorSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final AtomicLong demand;
+        private final AtomicInteger drainRequestCount;
+        private final AtomicBoolean terminated;
+
+        private IteratorSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+            this.demand = new AtomicLong();
+            this.drainRequestCount = new AtomicInteger();
+            this.terminated = new AtomicBoolean();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                terminate(new IllegalArgumentException("non-positive subscription request - " + n));
+                return;
+            }
+            this.demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE :
+                    current + added);
+            signal();
+        }
+
+        private void signal() {
+            if (this.drainRequestCount.getAndIncrement() == 0)
+                executor.execute(this::drain);
+        }
+
+        @Override
+        public void cancel() {
+            if (this.terminated.compareAndSet(false, true))
+                closeSource();
+        }
+
+        private void drain() {
+            int drainRequests = this.drainRequestCount.get();
+            do {
+                pull();
+                if (this.terminated.get())
+                    return;
+            } while ((drainRequests = this.drainRequestCount.addAndGet(-drainRequests)) != 0);
+        }
+
+        private void pull() {
+            try {
+                while (!this.terminated.get() && (closed || this.demand.get() > 0)) {
+                    if (closed || !iterator.hasNext()) {
+                        terminate(null);
+                        return;
+                    }
+                    T item = iterator.next();
+                    this.demand.decrementAndGet();
+                    publishedCount.incrementAndGet();
+                    this.subscriber.onNext(item);
+                }
+            } catch (Exception e) {
+                JMException.handleException(log, e, "pull", publishedCount.get());
+                terminate(e);
+            }
+        }
+
+        private void terminate(Throwable throwable) {
+            if (!this.terminated.compareAndSet(false, true))
+                return;
+            if (this == iteratorSubscription)
+                closeSource();
+            if (Objects.isNull(throwable))
+                this.subscriber.onComplete();
+            else
+                this.subscriber.onError(throwable);
+        }
+    }
+}
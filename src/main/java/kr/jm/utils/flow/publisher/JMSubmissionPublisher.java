@@ -2,22 +2,39 @@ package kr.jm.utils.flow.publisher;
 
 import kr.jm.utils.JMThread;
 import kr.jm.utils.exception.JMException;
+import kr.jm.utils.flow.JMDrainable;
+import kr.jm.utils.flow.metrics.JMFlowMetrics;
 import kr.jm.utils.helper.JMLog;
+import kr.jm.utils.helper.JMSpillQueue;
 import org.slf4j.Logger;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Flow;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
 
 /**
  * The type Jm submission publisher.
  *
  * @param <T> the type parameter
  */
-public class JMSubmissionPublisher<T> extends SubmissionPublisher<T> implements JMPublisherInterface<T> {
+public class JMSubmissionPublisher<T> extends SubmissionPublisher<T> implements JMPublisherInterface<T>,
+        JMDrainable {
+    private static final long SPILL_DRAIN_RECHECK_NANOS = 10_000_000;
     private int publishers;
     private int maxBufferCapacity;
     private long waitingMillis;
+    private JMFlowMetrics metrics;
+    private JMSpillQueue<T> spillQueue;
+    private volatile boolean spilling;
+    private ExecutorService spillDrainExecutor;
+    private volatile Thread spillDrainThread;
     /**
      * The Log.
      */
@@ -66,6 +83,10 @@ public class JMSubmissionPublisher<T> extends SubmissionPublisher<T> implements
     @Override
     public int submit(T item) {
         JMLog.debug(log, "submit", item);
+        if (Objects.nonNull(this.metrics))
+            this.metrics.recordIn();
+        if (Objects.nonNull(this.spillQueue))
+            return submitOrSpill(item);
         try {
             return waiting(super.submit(item));
         } catch (Exception e) {
@@ -73,10 +94,66 @@ public class JMSubmissionPublisher<T> extends SubmissionPublisher<T> implements
         }
     }
 
+    private int submitOrSpill(T item) {
+        if (this.spilling || estimateMaximumLag() >= this.maxBufferCapacity)
+            synchronized (this.spillQueue) {
+                if (this.spilling || estimateMaximumLag() >= this.maxBufferCapacity) {
+                    if (!this.spilling) {
+                        JMLog.warn(log, "submitOrSpill", this.spillQueue.getDirectoryPath());
+                        this.spilling = true;
+                    }
+                    this.spillQueue.offer(item);
+                    signalSpillDrain();
+                    return estimateMaximumLag();
+                }
+            }
+        return submitToBuffer(item);
+    }
+
+    private void signalSpillDrain() {
+        Thread spillDrainThread = this.spillDrainThread;
+        if (Objects.nonNull(spillDrainThread))
+            LockSupport.unpark(spillDrainThread);
+    }
+
+    private int submitToBuffer(T item) {
+        try {
+            return super.submit(item);
+        } catch (Exception e) {
+            return JMException.handleExceptionAndReturn(log, e, "submitToBuffer", () -> 0, item);
+        }
+    }
+
+    private void runSpillDrainLoop() {
+        this.spillDrainThread = Thread.currentThread();
+        while (!Thread.currentThread().isInterrupted())
+            if (!this.spilling)
+                LockSupport.park(this);
+            else if (estimateMaximumLag() >= this.maxBufferCapacity)
+                LockSupport.parkNanos(this, SPILL_DRAIN_RECHECK_NANOS);
+            else
+                pollSpillQueue().ifPresent(this::submitToBuffer);
+        JMLog.info(log, "runSpillDrainLoop", this.spillQueue.size());
+    }
+
+    private Optional<T> pollSpillQueue() {
+        synchronized (this.spillQueue) {
+            T item = this.spillQueue.poll();
+            if (Objects.isNull(item)) {
+                JMLog.info(log, "pollSpillQueue", this.spillQueue.getDirectoryPath());
+                this.spilling = false;
+            }
+            return Optional.ofNullable(item);
+        }
+    }
+
     private int waiting(int rag) throws InterruptedException {
         if (rag >= this.maxBufferCapacity) {
             JMLog.warn(log, "waiting", waitingMillis);
+            long startNanos = System.nanoTime();
             Thread.sleep(waitingMillis);
+            if (Objects.nonNull(this.metrics))
+                this.metrics.recordBlockedNanos(System.nanoTime() - startNanos);
         }
         return rag;
     }
@@ -84,7 +161,115 @@ public class JMSubmissionPublisher<T> extends SubmissionPublisher<T> implements
     @Override
     public void subscribe(Flow.Subscriber<? super T> subscriber) {
         JMLog.debug(log, "subscribe", subscriber);
-        super.subscribe(subscriber);
+        if (Objects.isNull(this.spillQueue))
+            super.subscribe(subscriber);
+        else
+            super.subscribe(new SpillSignalingSubscriber(subscriber));
+    }
+
+    /**
+     * Enable metrics jm flow metrics.
+     *
+     * @param name the name
+     * @return the jm flow metrics
+     */
+    public synchronized JMFlowMetrics enableMetrics(String name) {
+        if (Objects.isNull(this.metrics))
+            this.metrics = new JMFlowMetrics(name).withLagSupplier(this::estimateMaximumLag, this::getMaxBufferCapacity);
+        return this.metrics;
+    }
+
+    /**
+     * Gets metrics optional.
+     *
+     * @return the metrics optional
+     */
+    public Optional<JMFlowMetrics> getMetricsOptional() {
+        return Optional.ofNullable(this.metrics);
+    }
+
+    /**
+     * Enable spill jm spill queue.
+     * <p>
+     * Instead of blocking, submit appends the item to a Jm spill queue in the spill directory whenever the lag
+     * reaches the max buffer capacity, and keeps spilling until a drain thread has moved every spilled item back
+     * into the buffer in order as the subscribers catch up. The drain thread sleeps until a subscriber takes an item
+     * while spilling, and submits each spilled item outside the spill queue lock so producers never wait for it. The
+     * spilled items not drained yet are dropped on close. Only the subscribers subscribed after spill is enabled wake
+     * the drain thread, being subscribed through a wrapper; with the others it rechecks the lag every 10 millis.
+     *
+     * @param spillDirectoryPath the spill directory path
+     * @param serializer         the serializer
+     * @param deserializer       the deserializer
+     * @return the jm spill queue
+     */
+    public JMSpillQueue<T> enableSpill(Path spillDirectoryPath, Function<T, byte[]> serializer,
+            Function<byte[], T> deserializer) {
+        return enableSpill(new JMSpillQueue<>(spillDirectoryPath, serializer, deserializer));
+    }
+
+    /**
+     * Enable spill jm spill queue.
+     *
+     * @param spillQueue the spill queue
+     * @return the jm spill queue
+     */
+    public synchronized JMSpillQueue<T> enableSpill(JMSpillQueue<T> spillQueue) {
+        if (Objects.isNull(this.spillQueue)) {
+            this.spillQueue = spillQueue;
+            this.spillDrainExecutor = JMThread.newSingleThreadPool();
+            this.spillDrainExecutor.execute(this::runSpillDrainLoop);
+        }
+        return this.spillQueue;
+    }
+
+    /**
+     * Gets spill queue optional.
+     *
+     * @return the spill queue optional
+     */
+    public Optional<JMSpillQueue<T>> getSpillQueueOptional() {
+        return Optional.ofNullable(this.spillQueue);
+    }
+
+    /**
+     * Is spilling boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isSpilling() {
+        return this.spilling;
+    }
+
+    /**
+     * Close and drain long.
+     * <p>
+     * Waits until the spilled items are drained and every subscriber has received the buffered items, then closes.
+     * Submission publisher gives no signal when its buffers are empty, so the lag is checked with a back off.
+     *
+     * @param timeout the timeout
+     * @return the number of items lost
+     */
+    @Override
+    public long closeAndDrain(Duration timeout) {
+        JMLog.info(log, "closeAndDrain", timeout);
+        long deadlineNanos = JMDrainable.getDeadlineNanos(timeout);
+        JMDrainable.awaitUntil(() -> !this.spilling && estimateMaximumLag() == 0, deadlineNanos);
+        long lostCount = estimateMaximumLag() + getSpillQueueOptional().map(JMSpillQueue::size).orElse(0L);
+        if (lostCount > 0)
+            JMLog.warn(log, "closeAndDrain", timeout, lostCount);
+        close();
+        return lostCount;
+    }
+
+    @Override
+    public void close() {
+        Optional.ofNullable(this.spillDrainExecutor).ifPresent(executorService -> {
+            executorService.shutdownNow();
+            JMThread.awaitTermination(executorService);
+        });
+        Optional.ofNullable(this.spillQueue).ifPresent(JMSpillQueue::close);
+        super.close();
     }
 
     @Override
@@ -93,4 +278,39 @@ public class JMSubmissionPublisher<T> extends SubmissionPublisher<T> implements
                 ", waitingMillis=" + waitingMillis + '}';
     }
 
+    /**
+     * Wakes the spill drain thread up whenever the subscriber takes an item while spilling.
+     */
+    private class SpillSignalingSubscriber implements Flow.Subscriber<T> {
+        private final Flow.Subscriber<? super T> subscriber;
+
+        private SpillSignalingSubscriber(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscriber.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(T item) {
+            try {
+                this.subscriber.onNext(item);
+            } finally {
+                if (spilling)
+                    signalSpillDrain();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.subscriber.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            this.subscriber.onComplete();
+        }
+    }
 }
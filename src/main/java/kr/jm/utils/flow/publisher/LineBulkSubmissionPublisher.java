@@ -0,0 +1,75 @@
+package kr.jm.utils.flow.publisher;
+
+import kr.jm.utils.helper.JMMappedLineReader;
+import kr.jm.utils.helper.JMPath;
+
+import java.io.File;
+import java.nio.file.Path;
+
+/**
+ * The type Line bulk submission publisher.
+ * <p>
+ * Streams the lines of a file through a Jm mapped line reader and submits them as chunks of bulk size lines.
+ */
+public class LineBulkSubmissionPublisher extends BulkSubmissionPublisher<String> {
+
+    /**
+     * Instantiates a new Line bulk submission publisher.
+     */
+    public LineBulkSubmissionPublisher() {
+        super();
+    }
+
+    /**
+     * Instantiates a new Line bulk submission publisher.
+     *
+     * @param bulkSize the bulk size
+     */
+    public LineBulkSubmissionPublisher(int bulkSize) {
+        super(bulkSize);
+    }
+
+    /**
+     * Instantiates a new Line bulk submission publisher.
+     *
+     * @param bulkSize            the bulk size
+     * @param flushIntervalMillis the flush interval millis
+     */
+    public LineBulkSubmissionPublisher(int bulkSize, long flushIntervalMillis) {
+        super(bulkSize, flushIntervalMillis);
+    }
+
+    /**
+     * Submit file path long.
+     *
+     * @param filePath the file path
+     * @return the long
+     */
+    public long submitFilePath(String filePath) {
+        return submitPath(JMPath.getInstance().getPath(filePath));
+    }
+
+    /**
+     * Submit file long.
+     *
+     * @param file the file
+     * @return the long
+     */
+    public long submitFile(File file) {
+        return submitPath(file.toPath());
+    }
+
+    /**
+     * Submit path long.
+     *
+     * @param path the path
+     * @return the long
+     */
+    public long submitPath(Path path) {
+        try (JMMappedLineReader mappedLineReader = new JMMappedLineReader(path)) {
+            long lineCount = mappedLineReader.forEachChunk(this.bulkSize, this::submit);
+            flush();
+            return lineCount;
+        }
+    }
+}
@@ -3,9 +3,11 @@ package kr.jm.utils.flow.publisher;
 import kr.jm.utils.JMOptional;
 import kr.jm.utils.JMResources;
 import kr.jm.utils.helper.JMFile;
+import kr.jm.utils.helper.JMMappedLineReader;
 import kr.jm.utils.helper.JMPath;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.util.stream.Stream;
 
 /**
@@ -29,8 +31,25 @@ public class LineSubmissionPublisher extends JMSubmissionPublisher<String> {
      * @return the int
      */
     public int submitFile(File file) {
-        return submitStream(JMFile.getInstance().readLines(file).stream());
+        return submitPath(file.toPath());
+    }
 
+    /**
+     * Submit path int.
+     * <p>
+     * Lines are read through a Jm mapped line reader and submitted while the file is read, so the file is never
+     * loaded as a whole and the submit blocks whenever the subscribers fall behind.
+     *
+     * @param path the path
+     * @return the int
+     */
+    public int submitPath(Path path) {
+        try (JMMappedLineReader mappedLineReader = new JMMappedLineReader(path)) {
+            int lagSum = 0;
+            while (mappedLineReader.hasNext())
+                lagSum += submit(mappedLineReader.next());
+            return lagSum;
+        }
     }
 
     /**
@@ -2,6 +2,8 @@ package kr.jm.utils.flow.publisher;
 
 import kr.jm.utils.helper.etc.StdInLineConsumer;
 
+import java.time.Duration;
+
 /**
  * The type Std in line publisher.
  */
@@ -26,6 +28,12 @@ public class StdInLinePublisher extends JMSubmissionPublisher<String> {
         return this;
     }
 
+    @Override
+    public long closeAndDrain(Duration timeout) {
+        stdInLineConsumer.close();
+        return super.closeAndDrain(timeout);
+    }
+
     @Override
     public void close() {
         stdInLineConsumer.close();
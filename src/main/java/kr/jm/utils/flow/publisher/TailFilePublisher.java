@@ -0,0 +1,74 @@
+package kr.jm.utils.flow.publisher;
+
+import kr.jm.utils.helper.etc.TailFileLineConsumer;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The type Tail file publisher.
+ * <p>
+ * Submits the lines appended to the followed files, see Tail file line consumer for the rotation, truncation and
+ * offset handling.
+ */
+public class TailFilePublisher extends JMSubmissionPublisher<String> {
+
+    private TailFileLineConsumer tailFileLineConsumer;
+
+    /**
+     * Instantiates a new Tail file publisher.
+     */
+    public TailFilePublisher() {
+        this(null, false);
+    }
+
+    /**
+     * Instantiates a new Tail file publisher.
+     *
+     * @param offsetFilePath    the offset file path
+     * @param readFromBeginning the read from beginning
+     */
+    public TailFilePublisher(Path offsetFilePath, boolean readFromBeginning) {
+        this.tailFileLineConsumer = new TailFileLineConsumer(this::submitLineBatch, offsetFilePath,
+                readFromBeginning);
+    }
+
+    private void submitLineBatch(List<String> lineBatch) {
+        for (String line : lineBatch)
+            submit(line);
+    }
+
+    /**
+     * Follow tail file publisher.
+     *
+     * @param filePaths the file paths
+     * @return the tail file publisher
+     */
+    public TailFilePublisher follow(Path... filePaths) {
+        tailFileLineConsumer.follow(filePaths);
+        return this;
+    }
+
+    /**
+     * Gets offset.
+     *
+     * @param filePath the file path
+     * @return the offset
+     */
+    public long getOffset(Path filePath) {
+        return tailFileLineConsumer.getOffset(filePath);
+    }
+
+    @Override
+    public long closeAndDrain(Duration timeout) {
+        tailFileLineConsumer.close();
+        return super.closeAndDrain(timeout);
+    }
+
+    @Override
+    public void close() {
+        tailFileLineConsumer.close();
+        super.close();
+    }
+}
@@ -42,7 +42,30 @@ public class JMFileSubscriber<I> extends JMSubscriber<I> implements AutoCloseabl
      * @param toStringFunction the to string function
      */
     public JMFileSubscriber(String filePath, Function<Object, String> toStringFunction) {
-        this.fileAppender = new JMFileAppender(filePath);
+        this(filePath, toStringFunction, DEFAULT_PREFETCH);
+    }
+
+    /**
+     * Instantiates a new Jm file subscriber.
+     *
+     * @param filePath         the file path
+     * @param toStringFunction the to string function
+     * @param prefetch         the prefetch
+     */
+    public JMFileSubscriber(String filePath, Function<Object, String> toStringFunction, int prefetch) {
+        this(new JMFileAppender(filePath), toStringFunction, prefetch);
+    }
+
+    /**
+     * Instantiates a new Jm file subscriber.
+     *
+     * @param fileAppender     the file appender
+     * @param toStringFunction the to string function
+     * @param prefetch         the prefetch
+     */
+    public JMFileSubscriber(JMFileAppender fileAppender, Function<Object, String> toStringFunction, int prefetch) {
+        super(prefetch);
+        this.fileAppender = fileAppender;
         setDataConsumer(o -> JMStream.buildStream(o).map(toStringFunction).forEach(this.fileAppender::appendLine));
     }
 
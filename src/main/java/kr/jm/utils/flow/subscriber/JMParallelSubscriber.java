@@ -0,0 +1,190 @@
+package kr.jm.utils.flow.subscriber;
+
+import kr.jm.utils.JMThread;
+import kr.jm.utils.exception.JMException;
+import kr.jm.utils.flow.JMDrainable;
+import kr.jm.utils.flow.metrics.JMFlowMetrics;
+import kr.jm.utils.helper.JMLog;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * The type Jm parallel subscriber.
+ * <p>
+ * Hands every item to a pool of workers instead of consuming it on the delivering thread. Max in flight items are
+ * requested on subscribe and one more item is requested whenever a worker finishes one, so the demand always
+ * matches the free capacity and the pool queue never holds more than max in flight items. The completion future
+ * completes once on complete was received and every dispatched item was consumed; with drain on complete, on
+ * complete itself waits for it, so whatever completes the publisher also waits for the consumers.
+ *
+ * @param <T> the type parameter
+ */
+public class JMParallelSubscriber<T> extends JMSubscriber<T> implements JMDrainable {
+
+    private final Consumer<T> itemConsumer;
+    private final ExecutorService workerPool;
+    private final int maxInFlight;
+    private final boolean drainOnComplete;
+    private final AtomicInteger inFlightCount;
+    private final CompletableFuture<Void> completionFuture;
+    private volatile boolean completed;
+    private Flow.Subscription subscription;
+
+    /**
+     * Instantiates a new Jm parallel subscriber.
+     *
+     * @param itemConsumer    the item consumer
+     * @param workers         the workers
+     * @param maxInFlight     the max in flight
+     * @param drainOnComplete the drain on complete
+     */
+    public JMParallelSubscriber(Consumer<T> itemConsumer, int workers, int maxInFlight, boolean drainOnComplete) {
+        super(maxInFlight);
+        this.itemConsumer = Objects.requireNonNull(itemConsumer);
+        this.workerPool = JMThread.newThreadPool(Math.max(workers, 1));
+        this.maxInFlight = Math.max(maxInFlight, 1);
+        this.drainOnComplete = drainOnComplete;
+        this.inFlightCount = new AtomicInteger();
+        this.completionFuture = new CompletableFuture<>();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        JMLog.info(log, "onSubscribe", subscription, this.maxInFlight, this.drainOnComplete);
+        (this.subscription = subscription).request(this.maxInFlight);
+    }
+
+    @Override
+    public void onNext(T item) {
+        JMLog.debug(log, "onNext", item);
+        this.inFlightCount.incrementAndGet();
+        this.workerPool.execute(() -> {
+            try {
+                consume(item);
+            } finally {
+                if (JMDrainable.decrementAndSignal(this.inFlightCount, 1) == 0 && this.completed)
+                    completeIfDrained();
+                else if (!this.completed)
+                    this.subscription.request(1);
+            }
+        });
+    }
+
+    private void consume(T item) {
+        Optional<JMFlowMetrics> metricsOptional = getMetricsOptional();
+        long startNanos = System.nanoTime();
+        try {
+            metricsOptional.ifPresent(JMFlowMetrics::recordIn);
+            this.itemConsumer.accept(item);
+        } catch (Exception e) {
+            JMException.handleException(log, e, "consume", item);
+        } finally {
+            metricsOptional.ifPresent(metrics -> {
+                metrics.recordProcessingSince(startNanos);
+                metrics.recordOut();
+            });
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        super.onError(throwable);
+        onComplete();
+    }
+
+    @Override
+    public void onComplete() {
+        JMLog.info(log, "onComplete", this.inFlightCount.get());
+        this.completed = true;
+        completeIfDrained();
+        if (this.drainOnComplete)
+            this.completionFuture.join();
+    }
+
+    private void completeIfDrained() {
+        if (this.inFlightCount.get() == 0 && this.completionFuture.complete(null)) {
+            JMLog.info(log, "completeIfDrained");
+            this.workerPool.shutdown();
+        }
+    }
+
+    /**
+     * Gets completion future.
+     *
+     * @return the completion future
+     */
+    public CompletableFuture<Void> getCompletionFuture() {
+        return this.completionFuture;
+    }
+
+    /**
+     * Gets in flight count.
+     *
+     * @return the in flight count
+     */
+    public int getInFlightCount() {
+        return this.inFlightCount.get();
+    }
+
+    /**
+     * Gets max in flight.
+     *
+     * @return the max in flight
+     */
+    public int getMaxInFlight() {
+        return this.maxInFlight;
+    }
+
+    /**
+     * Is drain on complete boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isDrainOnComplete() {
+        return this.drainOnComplete;
+    }
+
+    /**
+     * Close and drain long.
+     * <p>
+     * Cancels the subscription so no more items are dispatched and waits until the workers have consumed the items
+     * in flight.
+     *
+     * @param timeout the timeout
+     * @return the number of items in flight when the timeout passed
+     */
+    @Override
+    public long closeAndDrain(Duration timeout) {
+        JMLog.info(log, "closeAndDrain", timeout, this.inFlightCount.get());
+        long deadlineNanos = JMDrainable.getDeadlineNanos(timeout);
+        if (Objects.nonNull(this.subscription) && !this.completed)
+            this.subscription.cancel();
+        JMDrainable.awaitZero(this.inFlightCount, deadlineNanos);
+        long lostCount = this.inFlightCount.get();
+        this.workerPool.shutdown();
+        if (lostCount > 0) {
+            JMLog.warn(log, "closeAndDrain", timeout, lostCount);
+            this.workerPool.shutdownNow();
+        }
+        this.completionFuture.complete(null);
+        return lostCount;
+    }
+
+    @Override
+    public void close() {
+        JMLog.info(log, "close", this.inFlightCount.get());
+        if (Objects.nonNull(this.subscription) && !this.completed)
+            this.subscription.cancel();
+        this.workerPool.shutdown();
+        JMThread.awaitTermination(this.workerPool);
+        this.completionFuture.complete(null);
+    }
+}
@@ -0,0 +1,170 @@
+package kr.jm.utils.flow.subscriber;
+
+import kr.jm.utils.helper.JMLog;
+import org.slf4j.Logger;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The type Jm stream subscriber.
+ * <p>
+ * A subscriber that is read as a blocking stream. It requests prefetch items on subscribe and requests more as the
+ * stream takes them, so at most prefetch items wait in its queue whatever the speed of the stream. The stream ends
+ * on on complete, throws a completion exception with the cause on on error, and cancels the subscription when it is
+ * closed before the end.
+ *
+ * @param <T> the type parameter
+ */
+public class JMStreamSubscriber<T> implements Flow.Subscriber<T>, Spliterator<T> {
+
+    /**
+     * The constant DEFAULT_PREFETCH.
+     */
+    public static final int DEFAULT_PREFETCH = Flow.defaultBufferSize();
+
+    private static final Object COMPLETE = new Object();
+
+    /**
+     * The Log.
+     */
+    protected final Logger log = org.slf4j.LoggerFactory.getLogger(getClass());
+
+    private final int prefetch;
+    private final int lowWatermark;
+    private final BlockingQueue<Object> itemQueue;
+    private volatile Flow.Subscription subscription;
+    private volatile Throwable throwable;
+    private int consumedCount;
+    private boolean done;
+
+    /**
+     * Instantiates a new Jm stream subscriber.
+     */
+    public JMStreamSubscriber() {
+        this(DEFAULT_PREFETCH);
+    }
+
+    /**
+     * Instantiates a new Jm stream subscriber.
+     *
+     * @param prefetch the prefetch
+     */
+    public JMStreamSubscriber(int prefetch) {
+        this.prefetch = Math.max(prefetch, 1);
+        this.lowWatermark = this.prefetch / 2;
+        this.itemQueue = new ArrayBlockingQueue<>(this.prefetch + 1);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        JMLog.info(log, "onSubscribe", subscription, this.prefetch);
+        if (Objects.nonNull(this.subscription)) {
+            subscription.cancel();
+            return;
+        }
+        (this.subscription = subscription).request(this.prefetch);
+    }
+
+    @Override
+    public void onNext(T item) {
+        if (!this.itemQueue.offer(item))
+            JMLog.warn(log, "onNext", "over the requested demand", item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        JMLog.warn(log, "onError", throwable);
+        this.throwable = throwable;
+        this.itemQueue.offer(COMPLETE);
+    }
+
+    @Override
+    public void onComplete() {
+        JMLog.info(log, "onComplete");
+        this.itemQueue.offer(COMPLETE);
+    }
+
+    /**
+     * Stream stream.
+     *
+     * @return the stream
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(this, false).onClose(this::cancel);
+    }
+
+    /**
+     * Cancel.
+     */
+    public void cancel() {
+        if (!this.done && Objects.nonNull(this.subscription)) {
+            JMLog.info(log, "cancel");
+            this.subscription.cancel();
+        }
+        this.done = true;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (this.done)
+            return false;
+        Object item;
+        try {
+            item = this.itemQueue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel();
+            return false;
+        }
+        if (item == COMPLETE) {
+            this.done = true;
+            if (Objects.nonNull(this.throwable))
+                throw new CompletionException(this.throwable);
+            return false;
+        }
+        requestNext();
+        action.accept((T) item);
+        return true;
+    }
+
+    private void requestNext() {
+        if (++this.consumedCount >= this.prefetch - this.lowWatermark) {
+            this.subscription.request(this.consumedCount);
+            this.consumedCount = 0;
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+
+    /**
+     * Gets prefetch.
+     *
+     * @return the prefetch
+     */
+    public int getPrefetch() {
+        return this.prefetch;
+    }
+
+}
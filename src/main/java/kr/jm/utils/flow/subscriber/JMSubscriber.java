@@ -1,9 +1,11 @@
 package kr.jm.utils.flow.subscriber;
 
 import kr.jm.utils.exception.JMException;
+import kr.jm.utils.flow.metrics.JMFlowMetrics;
 import kr.jm.utils.helper.JMLog;
 import org.slf4j.Logger;
 
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.Flow;
 import java.util.function.Consumer;
@@ -20,13 +22,33 @@ public class JMSubscriber<T> implements Flow.Subscriber<T> {
      */
     protected final Logger log = org.slf4j.LoggerFactory.getLogger(getClass());
 
+    /**
+     * The constant DEFAULT_PREFETCH.
+     */
+    public static final int DEFAULT_PREFETCH = 1;
+
     private Flow.Subscription subscription;
     private Consumer<T> dataConsumer;
+    private int prefetch;
+    private int lowWatermark;
+    private int consumedCount;
+    private JMFlowMetrics metrics;
 
     /**
      * Instantiates a new Jm subscriber.
      */
     protected JMSubscriber() {
+        this(DEFAULT_PREFETCH);
+    }
+
+    /**
+     * Instantiates a new Jm subscriber.
+     *
+     * @param prefetch the prefetch
+     */
+    protected JMSubscriber(int prefetch) {
+        this.prefetch = Math.max(prefetch, 1);
+        this.lowWatermark = this.prefetch / 2;
         this.dataConsumer = d -> JMException
                 .handleException(log, JMException.newRunTimeException("DataConsumer Wasn't Set !!! - Flush " + d),
                         "JMSubscriber");
@@ -38,26 +60,70 @@ public class JMSubscriber<T> implements Flow.Subscriber<T> {
      * @param dataConsumer the data consumer
      */
     public JMSubscriber(Consumer<T> dataConsumer) {
+        this(dataConsumer, DEFAULT_PREFETCH);
+    }
+
+    /**
+     * Instantiates a new Jm subscriber.
+     *
+     * @param dataConsumer the data consumer
+     * @param prefetch     the prefetch
+     */
+    public JMSubscriber(Consumer<T> dataConsumer, int prefetch) {
+        this(dataConsumer, prefetch, prefetch / 2);
+    }
+
+    /**
+     * Instantiates a new Jm subscriber.
+     * <p>
+     * Requests prefetch items on subscribe and tops the demand up again once the outstanding demand falls to the
+     * low watermark, instead of requesting one item after every onNext.
+     *
+     * @param dataConsumer the data consumer
+     * @param prefetch     the prefetch
+     * @param lowWatermark the low watermark
+     */
+    public JMSubscriber(Consumer<T> dataConsumer, int prefetch, int lowWatermark) {
+        this.prefetch = Math.max(prefetch, 1);
+        this.lowWatermark = Math.min(Math.max(lowWatermark, 0), this.prefetch - 1);
         setDataConsumer(dataConsumer);
     }
 
     @Override
     public void onSubscribe(Flow.Subscription subscription) {
         JMLog.info(log, "onSubscribe", subscription);
-        requestNext(this.subscription = subscription);
+        this.consumedCount = 0;
+        (this.subscription = subscription).request(this.prefetch);
     }
 
     private void requestNext(Flow.Subscription subscription) {
-        subscription.request(1);
+        if (++this.consumedCount >= this.prefetch - this.lowWatermark) {
+            subscription.request(this.consumedCount);
+            this.consumedCount = 0;
+        }
     }
 
     @Override
     public void onNext(T item) {
         JMLog.debug(log, "onNext", item);
-        Optional.ofNullable(item).ifPresent(this.dataConsumer);
+        if (Objects.nonNull(this.metrics))
+            consumeWithMetrics(item);
+        else
+            Optional.ofNullable(item).ifPresent(this.dataConsumer);
         Optional.ofNullable(this.subscription).ifPresent(this::requestNext);
     }
 
+    private void consumeWithMetrics(T item) {
+        this.metrics.recordIn();
+        long startNanos = System.nanoTime();
+        try {
+            Optional.ofNullable(item).ifPresent(this.dataConsumer);
+        } finally {
+            this.metrics.recordProcessingSince(startNanos);
+            this.metrics.recordOut();
+        }
+    }
+
     @Override
     public void onError(Throwable throwable) {
         JMException.handleException(log, throwable, "onError");
@@ -76,4 +142,43 @@ public class JMSubscriber<T> implements Flow.Subscriber<T> {
     public void setDataConsumer(Consumer<T> dataConsumer) {
         this.dataConsumer = dataConsumer;
     }
+
+    /**
+     * Enable metrics jm flow metrics.
+     *
+     * @param name the name
+     * @return the jm flow metrics
+     */
+    public synchronized JMFlowMetrics enableMetrics(String name) {
+        if (Objects.isNull(this.metrics))
+            this.metrics = new JMFlowMetrics(name);
+        return this.metrics;
+    }
+
+    /**
+     * Gets metrics optional.
+     *
+     * @return the metrics optional
+     */
+    public Optional<JMFlowMetrics> getMetricsOptional() {
+        return Optional.ofNullable(this.metrics);
+    }
+
+    /**
+     * Gets prefetch.
+     *
+     * @return the prefetch
+     */
+    public int getPrefetch() {
+        return this.prefetch;
+    }
+
+    /**
+     * Gets low watermark.
+     *
+     * @return the low watermark
+     */
+    public int getLowWatermark() {
+        return this.lowWatermark;
+    }
 }
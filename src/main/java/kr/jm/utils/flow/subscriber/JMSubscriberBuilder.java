@@ -1,5 +1,6 @@
 package kr.jm.utils.flow.subscriber;
 
+import kr.jm.utils.helper.JMFileAppender;
 import kr.jm.utils.helper.JMJson;
 
 import java.util.function.Consumer;
@@ -87,6 +88,23 @@ public class JMSubscriberBuilder {
         return new JMFileSubscriber<>(filePath, toStringFunction);
     }
 
+    /**
+     * Gets group commit file subscriber.
+     *
+     * @param <I>                 the type parameter
+     * @param filePath            the file path
+     * @param flushSize           the flush size
+     * @param flushIntervalMillis the flush interval millis
+     * @param force               the force
+     * @param prefetch            the prefetch
+     * @return the group commit file subscriber
+     */
+    public static <I> JMFileSubscriber<I> getGroupCommitFileSubscriber(String filePath, int flushSize,
+            long flushIntervalMillis, boolean force, int prefetch) {
+        return new JMFileSubscriber<>(new JMFileAppender(filePath, flushSize, flushIntervalMillis, force),
+                Object::toString, prefetch);
+    }
+
     /**
      * Build jm subscriber.
      *
@@ -97,4 +115,57 @@ public class JMSubscriberBuilder {
     public static <I> JMSubscriber<I> build(Consumer<I> itemConsumer) {
         return new JMSubscriber<>(itemConsumer);
     }
+
+    /**
+     * Build jm subscriber.
+     *
+     * @param <I>          the type parameter
+     * @param itemConsumer the item consumer
+     * @param prefetch     the prefetch
+     * @return the jm subscriber
+     */
+    public static <I> JMSubscriber<I> build(Consumer<I> itemConsumer, int prefetch) {
+        return new JMSubscriber<>(itemConsumer, prefetch);
+    }
+
+    /**
+     * Build jm subscriber.
+     *
+     * @param <I>          the type parameter
+     * @param itemConsumer the item consumer
+     * @param prefetch     the prefetch
+     * @param lowWatermark the low watermark
+     * @return the jm subscriber
+     */
+    public static <I> JMSubscriber<I> build(Consumer<I> itemConsumer, int prefetch, int lowWatermark) {
+        return new JMSubscriber<>(itemConsumer, prefetch, lowWatermark);
+    }
+
+    /**
+     * Build parallel jm parallel subscriber.
+     *
+     * @param <I>          the type parameter
+     * @param itemConsumer the item consumer
+     * @param workers      the workers
+     * @param maxInFlight  the max in flight
+     * @return the jm parallel subscriber
+     */
+    public static <I> JMParallelSubscriber<I> buildParallel(Consumer<I> itemConsumer, int workers, int maxInFlight) {
+        return buildParallel(itemConsumer, workers, maxInFlight, false);
+    }
+
+    /**
+     * Build parallel jm parallel subscriber.
+     *
+     * @param <I>             the type parameter
+     * @param itemConsumer    the item consumer
+     * @param workers         the workers
+     * @param maxInFlight     the max in flight
+     * @param drainOnComplete the drain on complete
+     * @return the jm parallel subscriber
+     */
+    public static <I> JMParallelSubscriber<I> buildParallel(Consumer<I> itemConsumer, int workers, int maxInFlight,
+            boolean drainOnComplete) {
+        return new JMParallelSubscriber<>(itemConsumer, workers, maxInFlight, drainOnComplete);
+    }
 }
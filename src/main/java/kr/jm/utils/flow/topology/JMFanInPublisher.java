@@ -0,0 +1,81 @@
+package kr.jm.utils.flow.topology;
+
+import kr.jm.utils.flow.publisher.JMSubmissionPublisher;
+import kr.jm.utils.helper.JMLog;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The type Jm fan in publisher.
+ * <p>
+ * Merges several publishers into one. Every input has its own subscription and asks for the next item only after
+ * the current one was submitted, so a full buffer holds back all inputs. The publisher closes when the last input
+ * completes and closes exceptionally on the first input error.
+ *
+ * @param <T> the type parameter
+ */
+public class JMFanInPublisher<T> extends JMSubmissionPublisher<T> {
+
+    private final AtomicInteger activeInputCount;
+
+    /**
+     * Instantiates a new Jm fan in publisher.
+     */
+    public JMFanInPublisher() {
+        this.activeInputCount = new AtomicInteger();
+    }
+
+    /**
+     * Merge jm fan in publisher.
+     *
+     * @param publishers the publishers
+     * @return the jm fan in publisher
+     */
+    @SafeVarargs
+    public final JMFanInPublisher<T> merge(Flow.Publisher<? extends T>... publishers) {
+        this.activeInputCount.addAndGet(publishers.length);
+        for (Flow.Publisher<? extends T> publisher : publishers)
+            publisher.subscribe(new Input());
+        return this;
+    }
+
+    /**
+     * Gets active input count.
+     *
+     * @return the active input count
+     */
+    public int getActiveInputCount() {
+        return this.activeInputCount.get();
+    }
+
+    private class Input implements Flow.Subscriber<T> {
+        private Flow.Subscription subscription;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            (this.subscription = subscription).request(1);
+        }
+
+        @Override
+        public void onNext(T item) {
+            submit(item);
+            this.subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            JMLog.errorForException(log, throwable, "onError");
+            activeInputCount.decrementAndGet();
+            closeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            if (activeInputCount.decrementAndGet() == 0) {
+                JMLog.info(log, "onComplete");
+                close();
+            }
+        }
+    }
+}
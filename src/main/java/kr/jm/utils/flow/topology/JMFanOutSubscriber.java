@@ -0,0 +1,102 @@
+package kr.jm.utils.flow.topology;
+
+import kr.jm.utils.flow.publisher.JMSubmissionPublisher;
+import kr.jm.utils.helper.JMLog;
+import org.slf4j.Logger;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The type Jm fan out subscriber.
+ * <p>
+ * Hands every item either to all of its outputs or to one output after another. The next item is requested only
+ * after the current one was submitted, so a full output buffer holds back the upstream. The outputs are closed when
+ * the upstream completes.
+ *
+ * @param <T> the type parameter
+ */
+public class JMFanOutSubscriber<T> implements Flow.Subscriber<T> {
+
+    /**
+     * The enum Fan out mode.
+     */
+    public enum FanOutMode {
+        /**
+         * Every item goes to every output.
+         */
+        BROADCAST,
+        /**
+         * Items go to the outputs in turn.
+         */
+        ROUND_ROBIN
+    }
+
+    private final Logger log = org.slf4j.LoggerFactory.getLogger(getClass());
+
+    private final FanOutMode fanOutMode;
+    private final List<JMSubmissionPublisher<T>> outputList;
+    private Flow.Subscription subscription;
+    private long sequence;
+
+    /**
+     * Instantiates a new Jm fan out subscriber.
+     *
+     * @param fanOutMode the fan out mode
+     * @param outputs    the outputs
+     */
+    public JMFanOutSubscriber(FanOutMode fanOutMode, int outputs) {
+        this.fanOutMode = fanOutMode;
+        this.outputList = Collections.unmodifiableList(IntStream.range(0, Math.max(outputs, 1))
+                .mapToObj(i -> new JMSubmissionPublisher<T>()).collect(Collectors.toList()));
+    }
+
+    /**
+     * Gets output list.
+     *
+     * @return the output list
+     */
+    public List<JMSubmissionPublisher<T>> getOutputList() {
+        return this.outputList;
+    }
+
+    /**
+     * Gets fan out mode.
+     *
+     * @return the fan out mode
+     */
+    public FanOutMode getFanOutMode() {
+        return this.fanOutMode;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        JMLog.info(log, "onSubscribe", subscription, this.fanOutMode, this.outputList.size());
+        (this.subscription = subscription).request(1);
+    }
+
+    @Override
+    public void onNext(T item) {
+        if (this.fanOutMode == FanOutMode.BROADCAST)
+            for (JMSubmissionPublisher<T> output : this.outputList)
+                output.submit(item);
+        else
+            this.outputList.get((int) (this.sequence++ % this.outputList.size())).submit(item);
+        this.subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        JMLog.errorForException(log, throwable, "onError");
+        this.outputList.forEach(output -> output.closeExceptionally(throwable));
+    }
+
+    @Override
+    public void onComplete() {
+        JMLog.info(log, "onComplete");
+        this.outputList.forEach(JMSubmissionPublisher::close);
+    }
+}
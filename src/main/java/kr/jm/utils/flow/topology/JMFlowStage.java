@@ -0,0 +1,140 @@
+package kr.jm.utils.flow.topology;
+
+import kr.jm.utils.JMThread;
+import kr.jm.utils.flow.processor.JMConcurrentProcessor;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The type Jm flow stage.
+ * <p>
+ * A named publisher of a Jm flow topology. Every method wires a new stage downstream of this one and registers it
+ * in the topology.
+ *
+ * @param <T> the type parameter
+ */
+public class JMFlowStage<T> {
+
+    private final JMFlowTopology topology;
+    private final String name;
+    private final Flow.Publisher<T> publisher;
+
+    /**
+     * Instantiates a new Jm flow stage.
+     *
+     * @param topology  the topology
+     * @param name      the name
+     * @param publisher the publisher
+     */
+    JMFlowStage(JMFlowTopology topology, String name, Flow.Publisher<T> publisher) {
+        this.topology = topology;
+        this.name = name;
+        this.publisher = publisher;
+    }
+
+    /**
+     * Gets name.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets publisher.
+     *
+     * @return the publisher
+     */
+    public Flow.Publisher<T> getPublisher() {
+        return this.publisher;
+    }
+
+    /**
+     * Map jm flow stage.
+     * <p>
+     * The stage runs on its own thread pool of the parallelism size, which is shut down with the topology.
+     *
+     * @param <R>         the type parameter
+     * @param name        the name
+     * @param parallelism the parallelism
+     * @param function    the function
+     * @return the jm flow stage
+     */
+    public <R> JMFlowStage<R> map(String name, int parallelism, Function<T, R> function) {
+        return map(name, this.topology.ownExecutor(JMThread.newThreadPool(Math.max(parallelism, 1))),
+                Math.max(parallelism, 1) * 2, false, function);
+    }
+
+    /**
+     * Map jm flow stage.
+     *
+     * @param <R>             the type parameter
+     * @param name            the name
+     * @param executorService the executor service
+     * @param maxInFlight     the max in flight
+     * @param ordered         the ordered
+     * @param function        the function
+     * @return the jm flow stage
+     */
+    public <R> JMFlowStage<R> map(String name, ExecutorService executorService, int maxInFlight, boolean ordered,
+            Function<T, R> function) {
+        JMConcurrentProcessor<T, R> processor =
+                new JMConcurrentProcessor<>(executorService, Math.max(maxInFlight, 1), ordered, function);
+        this.publisher.subscribe(processor);
+        return this.topology.addStage(name, processor);
+    }
+
+    /**
+     * Broadcast list.
+     *
+     * @param name     the name
+     * @param branches the branches
+     * @return the list
+     */
+    public List<JMFlowStage<T>> broadcast(String name, int branches) {
+        return fanOut(name, JMFanOutSubscriber.FanOutMode.BROADCAST, branches);
+    }
+
+    /**
+     * Round robin list.
+     *
+     * @param name     the name
+     * @param branches the branches
+     * @return the list
+     */
+    public List<JMFlowStage<T>> roundRobin(String name, int branches) {
+        return fanOut(name, JMFanOutSubscriber.FanOutMode.ROUND_ROBIN, branches);
+    }
+
+    private List<JMFlowStage<T>> fanOut(String name, JMFanOutSubscriber.FanOutMode fanOutMode, int branches) {
+        JMFanOutSubscriber<T> fanOutSubscriber = new JMFanOutSubscriber<>(fanOutMode, branches);
+        List<JMFlowStage<T>> branchStageList = IntStream.range(0, fanOutSubscriber.getOutputList().size())
+                .mapToObj(i -> this.topology.addStage(name + "-" + i, fanOutSubscriber.getOutputList().get(i)))
+                .collect(Collectors.toList());
+        this.publisher.subscribe(fanOutSubscriber);
+        return branchStageList;
+    }
+
+    /**
+     * Sink jm flow topology.
+     *
+     * @param name     the name
+     * @param consumer the consumer
+     * @return the jm flow topology
+     */
+    public JMFlowTopology sink(String name, Consumer<T> consumer) {
+        return this.topology.addSink(name, this.publisher, consumer);
+    }
+
+    @Override
+    public String toString() {
+        return "JMFlowStage{" + "name='" + name + '\'' + ", publisher=" + publisher + '}';
+    }
+}
@@ -0,0 +1,226 @@
+package kr.jm.utils.flow.topology;
+
+import kr.jm.utils.JMThread;
+import kr.jm.utils.exception.JMException;
+import kr.jm.utils.flow.publisher.JMSubmissionPublisher;
+import kr.jm.utils.flow.subscriber.JMSubscriber;
+import kr.jm.utils.helper.JMLog;
+import org.slf4j.Logger;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * The type Jm flow topology.
+ * <p>
+ * Builds a graph of named stages: sources, map stages with their own parallelism and executor, broadcast and round
+ * robin fan outs, merges and sinks. Every edge requests the next item only after the current one was handed over,
+ * so a slow stage holds back everything upstream of it. Iterable sources start submitting on start, completion flows
+ * from the sources down to the sinks, and await completion waits until every sink has completed.
+ */
+public class JMFlowTopology implements AutoCloseable {
+
+    private final Logger log = org.slf4j.LoggerFactory.getLogger(getClass());
+
+    private final String name;
+    private final Map<String, JMFlowStage<?>> stageMap;
+    private final List<Runnable> sourceStarterList;
+    private final List<CompletableFuture<Void>> sinkFutureList;
+    private final List<ExecutorService> ownedExecutorList;
+    private boolean started;
+
+    /**
+     * Instantiates a new Jm flow topology.
+     *
+     * @param name the name
+     */
+    public JMFlowTopology(String name) {
+        this.name = name;
+        this.stageMap = Collections.synchronizedMap(new LinkedHashMap<>());
+        this.sourceStarterList = new CopyOnWriteArrayList<>();
+        this.sinkFutureList = new CopyOnWriteArrayList<>();
+        this.ownedExecutorList = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Source jm flow stage.
+     *
+     * @param <T>       the type parameter
+     * @param name      the name
+     * @param publisher the publisher
+     * @return the jm flow stage
+     */
+    public <T> JMFlowStage<T> source(String name, Flow.Publisher<T> publisher) {
+        return addStage(name, publisher);
+    }
+
+    /**
+     * Source jm flow stage.
+     * <p>
+     * The items are submitted on start and the source completes after the last one.
+     *
+     * @param <T>      the type parameter
+     * @param name     the name
+     * @param iterable the iterable
+     * @return the jm flow stage
+     */
+    public <T> JMFlowStage<T> source(String name, Iterable<T> iterable) {
+        JMSubmissionPublisher<T> publisher = new JMSubmissionPublisher<>();
+        this.sourceStarterList.add(() -> JMThread.runAsync(() -> {
+            try {
+                iterable.forEach(publisher::submit);
+                publisher.close();
+            } catch (Exception e) {
+                JMException.handleException(log, e, "source", name);
+                publisher.closeExceptionally(e);
+            }
+        }, ownExecutor(JMThread.newSingleThreadPool())));
+        return addStage(name, publisher);
+    }
+
+    /**
+     * Merge jm flow stage.
+     *
+     * @param <T>    the type parameter
+     * @param name   the name
+     * @param stages the stages
+     * @return the jm flow stage
+     */
+    @SafeVarargs
+    public final <T> JMFlowStage<T> merge(String name, JMFlowStage<? extends T>... stages) {
+        JMFanInPublisher<T> fanInPublisher = new JMFanInPublisher<>();
+        for (JMFlowStage<? extends T> stage : stages)
+            fanInPublisher.merge(stage.getPublisher());
+        return addStage(name, fanInPublisher);
+    }
+
+    /**
+     * Merge jm flow stage.
+     *
+     * @param <T>       the type parameter
+     * @param name      the name
+     * @param stageList the stage list
+     * @return the jm flow stage
+     */
+    public <T> JMFlowStage<T> merge(String name, List<? extends JMFlowStage<? extends T>> stageList) {
+        JMFanInPublisher<T> fanInPublisher = new JMFanInPublisher<>();
+        stageList.forEach(stage -> fanInPublisher.merge(stage.getPublisher()));
+        return addStage(name, fanInPublisher);
+    }
+
+    <T> JMFlowStage<T> addStage(String name, Flow.Publisher<T> publisher) {
+        JMFlowStage<T> stage = new JMFlowStage<>(this, name, publisher);
+        if (Objects.nonNull(this.stageMap.putIfAbsent(name, stage)))
+            throw JMException.handleExceptionAndReturnRuntimeEx(log,
+                    new IllegalArgumentException("Duplicated Stage Name !!! - " + name), "addStage", name);
+        JMLog.info(log, "addStage", this.name, name);
+        return stage;
+    }
+
+    <T> JMFlowTopology addSink(String name, Flow.Publisher<T> publisher, Consumer<T> consumer) {
+        CompletableFuture<Void> sinkFuture = new CompletableFuture<>();
+        publisher.subscribe(new JMSubscriber<>(consumer) {
+            @Override
+            public void onError(Throwable throwable) {
+                super.onError(throwable);
+                sinkFuture.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                super.onComplete();
+                sinkFuture.complete(null);
+            }
+        });
+        this.sinkFutureList.add(sinkFuture);
+        JMLog.info(log, "addSink", this.name, name);
+        return this;
+    }
+
+    ExecutorService ownExecutor(ExecutorService executorService) {
+        this.ownedExecutorList.add(executorService);
+        return executorService;
+    }
+
+    /**
+     * Gets stage.
+     *
+     * @param <T>  the type parameter
+     * @param name the name
+     * @return the stage
+     */
+    @SuppressWarnings("unchecked")
+    public <T> JMFlowStage<T> getStage(String name) {
+        return (JMFlowStage<T>) this.stageMap.get(name);
+    }
+
+    /**
+     * Gets stage name list.
+     *
+     * @return the stage name list
+     */
+    public List<String> getStageNameList() {
+        synchronized (this.stageMap) {
+            return new ArrayList<>(this.stageMap.keySet());
+        }
+    }
+
+    /**
+     * Gets name.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Start jm flow topology.
+     *
+     * @return the jm flow topology
+     */
+    public synchronized JMFlowTopology start() {
+        if (!this.started) {
+            this.started = true;
+            JMLog.info(log, "start", this.name, getStageNameList());
+            this.sourceStarterList.forEach(Runnable::run);
+        }
+        return this;
+    }
+
+    /**
+     * Await completion boolean.
+     *
+     * @return the boolean
+     */
+    public boolean awaitCompletion() {
+        return awaitCompletion(Long.MAX_VALUE);
+    }
+
+    /**
+     * Await completion boolean.
+     *
+     * @param timeoutMillis the timeout millis
+     * @return the boolean
+     */
+    public boolean awaitCompletion(long timeoutMillis) {
+        try {
+            CompletableFuture.allOf(this.sinkFutureList.toArray(CompletableFuture[]::new))
+                    .get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            JMLog.warn(log, "awaitCompletion", this.name, timeoutMillis);
+            return false;
+        } catch (InterruptedException | ExecutionException e) {
+            return JMException.handleExceptionAndReturnFalse(log, e, "awaitCompletion", this.name);
+        }
+    }
+
+    @Override
+    public void close() {
+        JMLog.info(log, "close", this.name);
+        this.ownedExecutorList.forEach(ExecutorService::shutdown);
+        this.ownedExecutorList.forEach(JMThread::awaitTermination);
+    }
+}
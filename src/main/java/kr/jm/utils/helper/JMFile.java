@@ -11,6 +11,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.Writer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileStore;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
@@ -339,6 +340,17 @@ public class JMFile {
         return JMPath.getInstance().getLineStream(getPath(filePath), charset);
     }
 
+    /**
+     * Gets parallel line stream.
+     *
+     * @param filePath the file path
+     * @param ordered  the ordered
+     * @return the parallel line stream
+     */
+    public Stream<String> getParallelLineStream(String filePath, boolean ordered) {
+        return JMPath.getInstance().getParallelLineStream(getPath(filePath), StandardCharsets.UTF_8, ordered);
+    }
+
 
     /**
      * Create empty file boolean.
@@ -1,5 +1,6 @@
 package kr.jm.utils.helper;
 
+import kr.jm.utils.JMString;
 import kr.jm.utils.exception.JMException;
 
 import java.io.IOException;
@@ -21,6 +22,7 @@ public class JMFileAppender implements AutoCloseable {
 
     private Writer writer;
     private Path filePath;
+    private boolean groupCommit;
 
     /**
      * Instantiates a new Jm file appender.
@@ -62,6 +64,50 @@ public class JMFileAppender implements AutoCloseable {
         this.filePath = filePath;
     }
 
+    /**
+     * Instantiates a new Jm file appender.
+     *
+     * @param filePath            the file path
+     * @param flushSize           the flush size
+     * @param flushIntervalMillis the flush interval millis
+     * @param force               the force
+     */
+    public JMFileAppender(String filePath, int flushSize, long flushIntervalMillis, boolean force) {
+        this(JMPath.getInstance().getPath(filePath), UTF_8, flushSize, flushIntervalMillis, force);
+    }
+
+    /**
+     * Instantiates a new Jm file appender with group commit.
+     * <p>
+     * Appended strings are buffered and written by a commit thread once flush size chars are pending or the flush
+     * interval passes, instead of flushing the writer on every append.
+     *
+     * @param filePath            the file path
+     * @param charset             the charset
+     * @param flushSize           the flush size
+     * @param flushIntervalMillis the flush interval millis
+     * @param force               the force
+     */
+    public JMFileAppender(Path filePath, Charset charset, int flushSize, long flushIntervalMillis, boolean force) {
+        JMLog.info(log, "JMFileAppender.new", filePath, charset, flushSize, flushIntervalMillis, force);
+        try {
+            this.writer = new JMGroupCommitWriter(filePath, charset, flushSize, flushIntervalMillis, force);
+        } catch (IOException e) {
+            throw JMException.handleExceptionAndReturnRuntimeEx(log, e, "JMFileAppender.new", filePath);
+        }
+        this.filePath = filePath;
+        this.groupCommit = true;
+    }
+
+    /**
+     * Is group commit boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isGroupCommit() {
+        return this.groupCommit;
+    }
+
     /**
      * Append jm file appender.
      *
@@ -69,10 +115,21 @@ public class JMFileAppender implements AutoCloseable {
      * @return the jm file appender
      */
     public JMFileAppender append(String string) {
-        JMFile.getInstance().append(this.writer, string);
+        if (this.groupCommit)
+            appendWithoutFlush(string);
+        else
+            JMFile.getInstance().append(this.writer, string);
         return this;
     }
 
+    private void appendWithoutFlush(String string) {
+        try {
+            this.writer.append(string);
+        } catch (IOException e) {
+            JMException.handleException(log, e, "append", string);
+        }
+    }
+
     /**
      * Append line jm file appender.
      *
@@ -80,7 +137,24 @@ public class JMFileAppender implements AutoCloseable {
      * @return the jm file appender
      */
     public JMFileAppender appendLine(String line) {
-        JMFile.getInstance().appendLine(this.writer, line);
+        if (this.groupCommit)
+            appendWithoutFlush(line + JMString.LINE_SEPARATOR);
+        else
+            JMFile.getInstance().appendLine(this.writer, line);
+        return this;
+    }
+
+    /**
+     * Flush jm file appender.
+     *
+     * @return the jm file appender
+     */
+    public JMFileAppender flush() {
+        try {
+            this.writer.flush();
+        } catch (IOException e) {
+            JMException.handleException(log, e, "flush");
+        }
         return this;
     }
 
@@ -0,0 +1,156 @@
+package kr.jm.utils.helper;
+
+import kr.jm.utils.exception.JMException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The type Jm file line spliterator.
+ * <p>
+ * Splits a file into byte ranges aligned to line boundaries and reads each range with its own Jm mapped line
+ * reader, so a parallel stream decodes the ranges concurrently on the fork join pool. In ordered mode the
+ * spliterator reports ORDERED and the stream keeps the line order of the file.
+ */
+public class JMFileLineSpliterator implements Spliterator<String> {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(JMFileLineSpliterator.class);
+
+    /**
+     * The constant DEFAULT_MIN_SPLIT_SIZE.
+     */
+    public static final long DEFAULT_MIN_SPLIT_SIZE = 1024 * 1024;
+
+    private static final int SCAN_BUFFER_SIZE = 8 * 1024;
+
+    private final FileChannel fileChannel;
+    private final Charset charset;
+    private final boolean ordered;
+    private final long minSplitSize;
+    private long startPosition;
+    private final long endPosition;
+    private JMMappedLineReader mappedLineReader;
+
+    /**
+     * Instantiates a new Jm file line spliterator.
+     *
+     * @param fileChannel   the file channel
+     * @param startPosition the start position
+     * @param endPosition   the end position
+     * @param charset       the charset
+     * @param ordered       the ordered
+     * @param minSplitSize  the min split size
+     */
+    public JMFileLineSpliterator(FileChannel fileChannel, long startPosition, long endPosition, Charset charset,
+            boolean ordered, long minSplitSize) {
+        this.fileChannel = fileChannel;
+        this.startPosition = startPosition;
+        this.endPosition = endPosition;
+        this.charset = charset;
+        this.ordered = ordered;
+        this.minSplitSize = Math.max(minSplitSize, SCAN_BUFFER_SIZE);
+    }
+
+    /**
+     * Build line stream stream.
+     *
+     * @param path         the path
+     * @param charset      the charset
+     * @param ordered      the ordered
+     * @param minSplitSize the min split size
+     * @return the stream
+     */
+    public static Stream<String> buildLineStream(Path path, Charset charset, boolean ordered, long minSplitSize) {
+        try {
+            FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ);
+            return StreamSupport.stream(
+                    new JMFileLineSpliterator(fileChannel, 0, fileChannel.size(), charset, ordered, minSplitSize),
+                    true).onClose(() -> closeFileChannel(fileChannel));
+        } catch (IOException e) {
+            return JMException.handleExceptionAndReturn(log, e, "buildLineStream", Stream::empty, path, charset);
+        }
+    }
+
+    private static void closeFileChannel(FileChannel fileChannel) {
+        try {
+            fileChannel.close();
+        } catch (IOException e) {
+            JMException.handleException(log, e, "closeFileChannel", fileChannel);
+        }
+    }
+
+    private JMMappedLineReader getMappedLineReader() {
+        if (Objects.isNull(this.mappedLineReader))
+            this.mappedLineReader = new JMMappedLineReader(this.fileChannel, this.startPosition, this.endPosition,
+                    this.charset, (int) Math.min(JMMappedLineReader.DEFAULT_WINDOW_SIZE,
+                    Math.max(this.endPosition - this.startPosition, 1)));
+        return this.mappedLineReader;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+        JMMappedLineReader lineReader = getMappedLineReader();
+        if (!lineReader.hasNext())
+            return false;
+        action.accept(lineReader.next());
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super String> action) {
+        getMappedLineReader().forEachRemaining(action);
+    }
+
+    @Override
+    public Spliterator<String> trySplit() {
+        if (Objects.nonNull(this.mappedLineReader) || this.endPosition - this.startPosition < this.minSplitSize * 2)
+            return null;
+        long splitPosition = findNextLineStart(this.startPosition + (this.endPosition - this.startPosition) / 2);
+        if (splitPosition <= this.startPosition || splitPosition >= this.endPosition)
+            return null;
+        JMFileLineSpliterator prefixSpliterator =
+                new JMFileLineSpliterator(this.fileChannel, this.startPosition, splitPosition, this.charset,
+                        this.ordered, this.minSplitSize);
+        this.startPosition = splitPosition;
+        return prefixSpliterator;
+    }
+
+    private long findNextLineStart(long position) {
+        ByteBuffer scanBuffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        try {
+            while (position < this.endPosition) {
+                scanBuffer.clear();
+                scanBuffer.limit((int) Math.min(SCAN_BUFFER_SIZE, this.endPosition - position));
+                int readCount = this.fileChannel.read(scanBuffer, position);
+                if (readCount <= 0)
+                    break;
+                for (int i = 0; i < readCount; i++)
+                    if (scanBuffer.get(i) == '\n')
+                        return position + i + 1;
+                position += readCount;
+            }
+        } catch (IOException e) {
+            JMException.handleException(log, e, "findNextLineStart", position);
+        }
+        return this.endPosition;
+    }
+
+    @Override
+    public long estimateSize() {
+        return this.endPosition - this.startPosition;
+    }
+
+    @Override
+    public int characteristics() {
+        return this.ordered ? ORDERED | NONNULL : NONNULL;
+    }
+}
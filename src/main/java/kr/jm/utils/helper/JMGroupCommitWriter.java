@@ -0,0 +1,248 @@
+package kr.jm.utils.helper;
+
+import kr.jm.utils.JMThread;
+import kr.jm.utils.exception.JMException;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The type Jm group commit writer.
+ * <p>
+ * Writers only append to an in-memory buffer. A single commit thread writes the buffer to the file channel once it
+ * reaches the flush size or the flush interval passes, and optionally forces it to the storage device. Writers block
+ * when the pending buffer reaches four times the flush size. Flush waits until everything written before it is
+ * committed, and close drains the pending buffer. A failed write or force is kept and thrown from the writes, the
+ * flushes and the close waiting for it and from every call after it.
+ */
+public class JMGroupCommitWriter extends Writer {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(JMGroupCommitWriter.class);
+
+    private final Path filePath;
+    private final Charset charset;
+    private final int flushSize;
+    private final long flushIntervalMillis;
+    private final boolean force;
+    private final FileChannel fileChannel;
+    private final ReentrantLock commitLock;
+    private final Condition commitRequestCondition;
+    private final Condition committedCondition;
+    private final ExecutorService commitExecutor;
+    private StringBuilder pendingBuilder;
+    private long requestedTicket;
+    private long committedTicket;
+    private volatile boolean closed;
+    private Throwable commitFailure;
+    private boolean commitLoopExited;
+
+    /**
+     * Instantiates a new Jm group commit writer.
+     *
+     * @param filePath            the file path
+     * @param charset             the charset
+     * @param flushSize           the flush size
+     * @param flushIntervalMillis the flush interval millis
+     * @param force               the force
+     * @throws IOException the io exception
+     */
+    public JMGroupCommitWriter(Path filePath, Charset charset, int flushSize, long flushIntervalMillis,
+            boolean force) throws IOException {
+        this.filePath = filePath;
+        this.charset = charset;
+        this.flushSize = Math.max(flushSize, 1);
+        this.flushIntervalMillis = Math.max(flushIntervalMillis, 1);
+        this.force = force;
+        if (JMPath.getInstance().notExists(filePath))
+            JMPath.getInstance().createFileWithParentDirectories(filePath);
+        this.fileChannel = FileChannel.open(filePath, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.commitLock = new ReentrantLock();
+        this.commitRequestCondition = this.commitLock.newCondition();
+        this.committedCondition = this.commitLock.newCondition();
+        this.pendingBuilder = new StringBuilder(this.flushSize);
+        this.commitExecutor = JMThread.newSingleThreadPool();
+        this.commitExecutor.execute(this::runCommitLoop);
+    }
+
+    @Override
+    public void write(char[] chars, int offset, int length) throws IOException {
+        this.commitLock.lock();
+        try {
+            checkClosed();
+            while (this.pendingBuilder.length() >= this.flushSize * 4) {
+                this.commitRequestCondition.signal();
+                this.committedCondition.awaitUninterruptibly();
+                checkClosed();
+            }
+            this.pendingBuilder.append(chars, offset, length);
+            if (this.pendingBuilder.length() >= this.flushSize)
+                this.commitRequestCondition.signal();
+        } finally {
+            this.commitLock.unlock();
+        }
+    }
+
+    @Override
+    public void write(String string, int offset, int length) throws IOException {
+        this.commitLock.lock();
+        try {
+            checkClosed();
+            while (this.pendingBuilder.length() >= this.flushSize * 4) {
+                this.commitRequestCondition.signal();
+                this.committedCondition.awaitUninterruptibly();
+                checkClosed();
+            }
+            this.pendingBuilder.append(string, offset, offset + length);
+            if (this.pendingBuilder.length() >= this.flushSize)
+                this.commitRequestCondition.signal();
+        } finally {
+            this.commitLock.unlock();
+        }
+    }
+
+    private void checkClosed() throws IOException {
+        checkCommitFailure();
+        if (this.closed)
+            throw new IOException("Closed JMGroupCommitWriter !!! - " + this.filePath);
+    }
+
+    private void checkCommitFailure() throws IOException {
+        if (Objects.nonNull(this.commitFailure))
+            throw new IOException("Commit Failed JMGroupCommitWriter !!! - " + this.filePath, this.commitFailure);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.commitLock.lock();
+        try {
+            checkClosed();
+            awaitCommitted(++this.requestedTicket);
+            checkCommitFailure();
+        } finally {
+            this.commitLock.unlock();
+        }
+    }
+
+    private void awaitCommitted(long ticket) {
+        this.commitRequestCondition.signal();
+        while (this.committedTicket < ticket && !this.commitLoopExited)
+            this.committedCondition.awaitUninterruptibly();
+    }
+
+    private void runCommitLoop() {
+        JMLog.info(log, "runCommitLoop", this.filePath, this.flushSize, this.flushIntervalMillis, this.force);
+        try {
+            commitUntilClosed();
+        } finally {
+            this.commitLock.lock();
+            try {
+                this.commitLoopExited = true;
+                this.committedCondition.signalAll();
+            } finally {
+                this.commitLock.unlock();
+            }
+        }
+    }
+
+    private void commitUntilClosed() {
+        while (true) {
+            String pendingString;
+            long ticket;
+            this.commitLock.lock();
+            try {
+                long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.flushIntervalMillis);
+                long remainingNanos;
+                while (!this.closed && this.pendingBuilder.length() < this.flushSize &&
+                        this.committedTicket == this.requestedTicket &&
+                        (remainingNanos = deadlineNanos - System.nanoTime()) > 0)
+                    this.commitRequestCondition.awaitNanos(remainingNanos);
+                if (this.closed && this.pendingBuilder.length() == 0 &&
+                        this.committedTicket == this.requestedTicket)
+                    break;
+                if (this.pendingBuilder.length() == 0 && this.committedTicket == this.requestedTicket)
+                    continue;
+                pendingString = this.pendingBuilder.toString();
+                this.pendingBuilder.setLength(0);
+                ticket = this.requestedTicket;
+            } catch (InterruptedException e) {
+                JMException.handleException(log, e, "runCommitLoop", this.filePath);
+                break;
+            } finally {
+                this.commitLock.unlock();
+            }
+            Throwable failure = null;
+            try {
+                commit(pendingString);
+            } catch (IOException | RuntimeException e) {
+                JMException.handleException(log, e, "commit", this.filePath, pendingString.length());
+                failure = e;
+            } finally {
+                this.commitLock.lock();
+                try {
+                    if (Objects.nonNull(failure) && Objects.isNull(this.commitFailure))
+                        this.commitFailure = failure;
+                    this.committedTicket = ticket;
+                    this.committedCondition.signalAll();
+                } finally {
+                    this.commitLock.unlock();
+                }
+            }
+        }
+    }
+
+    private void commit(String pendingString) throws IOException {
+        if (!pendingString.isEmpty()) {
+            ByteBuffer byteBuffer = this.charset.encode(CharBuffer.wrap(pendingString));
+            while (byteBuffer.hasRemaining())
+                this.fileChannel.write(byteBuffer);
+        }
+        if (this.force)
+            this.fileChannel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.commitLock.lock();
+        try {
+            if (this.closed) {
+                checkCommitFailure();
+                return;
+            }
+            this.closed = true;
+            this.commitRequestCondition.signal();
+            this.committedCondition.signalAll();
+        } finally {
+            this.commitLock.unlock();
+        }
+        this.commitExecutor.shutdown();
+        JMThread.awaitTermination(this.commitExecutor);
+        this.fileChannel.close();
+        JMLog.info(log, "close", this.filePath);
+        this.commitLock.lock();
+        try {
+            checkCommitFailure();
+        } finally {
+            this.commitLock.unlock();
+        }
+    }
+
+    /**
+     * Gets file path.
+     *
+     * @return the file path
+     */
+    public Path getFilePath() {
+        return this.filePath;
+    }
+}
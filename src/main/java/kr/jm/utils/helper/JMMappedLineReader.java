@@ -0,0 +1,218 @@
+package kr.jm.utils.helper;
+
+import kr.jm.utils.exception.JMException;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The type Jm mapped line reader.
+ * <p>
+ * Reads the lines of a file, or of a byte range of it, through memory mapped windows of the file channel and
+ * decodes one line at a time, so memory use does not depend on the file size. Lines end with '\n' or "\r\n", which
+ * means the charset must encode '\n' as the single byte 0x0A, as UTF-8 and the ASCII compatible charsets do.
+ */
+public class JMMappedLineReader implements Iterator<String>, AutoCloseable {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(JMMappedLineReader.class);
+
+    /**
+     * The constant DEFAULT_WINDOW_SIZE.
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private final FileChannel fileChannel;
+    private final boolean closeChannel;
+    private final Charset charset;
+    private final long endPosition;
+    private int windowSize;
+    private MappedByteBuffer window;
+    private long windowStartPosition;
+    private byte[] lineBytes;
+    private String nextLine;
+
+    /**
+     * Instantiates a new Jm mapped line reader.
+     *
+     * @param filePath the file path
+     */
+    public JMMappedLineReader(Path filePath) {
+        this(filePath, UTF_8);
+    }
+
+    /**
+     * Instantiates a new Jm mapped line reader.
+     *
+     * @param filePath the file path
+     * @param charset  the charset
+     */
+    public JMMappedLineReader(Path filePath, Charset charset) {
+        this(openFileChannel(filePath), true, 0, -1, charset, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Instantiates a new Jm mapped line reader.
+     * <p>
+     * Reads the lines in the byte range from the start position to the end position, where the start position must
+     * be the beginning of a line. The file channel is not closed by this reader.
+     *
+     * @param fileChannel   the file channel
+     * @param startPosition the start position
+     * @param endPosition   the end position
+     * @param charset       the charset
+     * @param windowSize    the window size
+     */
+    public JMMappedLineReader(FileChannel fileChannel, long startPosition, long endPosition, Charset charset,
+            int windowSize) {
+        this(fileChannel, false, startPosition, endPosition, charset, windowSize);
+    }
+
+    private JMMappedLineReader(FileChannel fileChannel, boolean closeChannel, long startPosition, long endPosition,
+            Charset charset, int windowSize) {
+        this.fileChannel = fileChannel;
+        this.closeChannel = closeChannel;
+        this.charset = charset;
+        this.endPosition = endPosition < 0 ? size(fileChannel) : endPosition;
+        this.windowSize = Math.max(windowSize, 1024);
+        this.windowStartPosition = startPosition;
+        this.lineBytes = new byte[1024];
+    }
+
+    private static FileChannel openFileChannel(Path filePath) {
+        try {
+            return FileChannel.open(filePath, StandardOpenOption.READ);
+        } catch (IOException e) {
+            throw JMException.handleExceptionAndReturnRuntimeEx(log, e, "openFileChannel", filePath);
+        }
+    }
+
+    private static long size(FileChannel fileChannel) {
+        try {
+            return fileChannel.size();
+        } catch (IOException e) {
+            throw JMException.handleExceptionAndReturnRuntimeEx(log, e, "size", fileChannel);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return Objects.nonNull(this.nextLine) || Objects.nonNull(this.nextLine = readLine());
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        String line = this.nextLine;
+        this.nextLine = null;
+        return line;
+    }
+
+    private String readLine() {
+        while (true) {
+            if (Objects.isNull(this.window) || !this.window.hasRemaining()) {
+                long position = getPosition();
+                if (position >= this.endPosition)
+                    return null;
+                mapWindow(position);
+            }
+            int lineStart = this.window.position();
+            int limit = this.window.limit();
+            for (int i = lineStart; i < limit; i++)
+                if (this.window.get(i) == '\n')
+                    return decodeLine(lineStart, i, i + 1);
+            if (this.windowStartPosition + limit >= this.endPosition)
+                return decodeLine(lineStart, limit, limit);
+            if (lineStart == 0)
+                this.windowSize = Math.max(this.windowSize, limit) * 2;
+            mapWindow(this.windowStartPosition + lineStart);
+        }
+    }
+
+    private long getPosition() {
+        return Objects.isNull(this.window) ? this.windowStartPosition :
+                this.windowStartPosition + this.window.position();
+    }
+
+    private void mapWindow(long position) {
+        try {
+            this.windowStartPosition = position;
+            this.window = this.fileChannel.map(FileChannel.MapMode.READ_ONLY, position,
+                    Math.min(this.windowSize, this.endPosition - position));
+        } catch (IOException e) {
+            throw JMException.handleExceptionAndReturnRuntimeEx(log, e, "mapWindow", position, this.windowSize);
+        }
+    }
+
+    private String decodeLine(int lineStart, int lineEnd, int nextPosition) {
+        if (lineEnd > lineStart && this.window.get(lineEnd - 1) == '\r')
+            lineEnd--;
+        int length = lineEnd - lineStart;
+        if (this.lineBytes.length < length)
+            this.lineBytes = new byte[Math.max(length, this.lineBytes.length * 2)];
+        this.window.get(this.lineBytes, 0, length);
+        this.window.position(nextPosition);
+        return new String(this.lineBytes, 0, length, this.charset);
+    }
+
+    /**
+     * For each chunk.
+     *
+     * @param chunkSize     the chunk size
+     * @param chunkConsumer the chunk consumer
+     * @return the line count
+     */
+    public long forEachChunk(int chunkSize, Consumer<List<String>> chunkConsumer) {
+        long lineCount = 0;
+        List<String> chunk = new ArrayList<>(chunkSize);
+        while (hasNext()) {
+            chunk.add(next());
+            lineCount++;
+            if (chunk.size() >= chunkSize) {
+                chunkConsumer.accept(chunk);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (chunk.size() > 0)
+            chunkConsumer.accept(chunk);
+        return lineCount;
+    }
+
+    /**
+     * Gets line stream.
+     *
+     * @return the line stream
+     */
+    public Stream<String> getLineStream() {
+        return StreamSupport.stream(Spliterators
+                .spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    @Override
+    public void close() {
+        this.window = null;
+        if (this.closeChannel)
+            try {
+                this.fileChannel.close();
+            } catch (IOException e) {
+                JMException.handleException(log, e, "close", this.fileChannel);
+            }
+    }
+}
@@ -1229,4 +1229,30 @@ public class JMPath {
             return JMException.handleExceptionAndReturn(log, e, "getLineStream", Stream::empty, path, charset);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets parallel line stream.
+     *
+     * @param path the path
+     * @return the parallel line stream
+     */
+    public Stream<String> getParallelLineStream(Path path) {
+        return getParallelLineStream(path, StandardCharsets.UTF_8, false);
+    }
+
+    /**
+     * Gets parallel line stream.
+     * <p>
+     * The file is split into byte ranges aligned to line boundaries which are decoded in parallel on the fork join
+     * pool. The ordered stream keeps the line order of the file, the unordered one lets the stream skip it.
+     *
+     * @param path    the path
+     * @param charset the charset
+     * @param ordered the ordered
+     * @return the parallel line stream
+     */
+    public Stream<String> getParallelLineStream(Path path, Charset charset, boolean ordered) {
+        return JMFileLineSpliterator
+                .buildLineStream(path, charset, ordered, JMFileLineSpliterator.DEFAULT_MIN_SPLIT_SIZE);
+    }
+}
@@ -0,0 +1,215 @@
+package kr.jm.utils.helper;
+
+import kr.jm.utils.exception.JMException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * The type Jm spill queue.
+ * <p>
+ * A first in first out queue kept in memory mapped, append only segment files. Items are serialized into length
+ * prefixed records at the end of the last segment and read back from the first one, a full segment is followed by a
+ * new one and a segment is deleted as soon as it is read to the end, so the heap holds no items and the disk holds
+ * only the items not yet polled. The segment files are deleted on close.
+ *
+ * @param <T> the type parameter
+ */
+public class JMSpillQueue<T> implements AutoCloseable {
+
+    private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(JMSpillQueue.class);
+
+    /**
+     * The constant DEFAULT_SEGMENT_SIZE.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private static final int LENGTH_BYTES = Integer.BYTES;
+
+    private final Path directoryPath;
+    private final int segmentSize;
+    private final Function<T, byte[]> serializer;
+    private final Function<byte[], T> deserializer;
+    private final Deque<Segment> segmentDeque;
+    private long size;
+    private boolean closed;
+
+    /**
+     * Instantiates a new Jm spill queue.
+     *
+     * @param directoryPath the directory path
+     * @param serializer    the serializer
+     * @param deserializer  the deserializer
+     */
+    public JMSpillQueue(Path directoryPath, Function<T, byte[]> serializer, Function<byte[], T> deserializer) {
+        this(directoryPath, DEFAULT_SEGMENT_SIZE, serializer, deserializer);
+    }
+
+    /**
+     * Instantiates a new Jm spill queue.
+     *
+     * @param directoryPath the directory path
+     * @param segmentSize   the segment size
+     * @param serializer    the serializer
+     * @param deserializer  the deserializer
+     */
+    public JMSpillQueue(Path directoryPath, int segmentSize, Function<T, byte[]> serializer,
+            Function<byte[], T> deserializer) {
+        this.directoryPath = directoryPath;
+        this.segmentSize = Math.max(segmentSize, 1024);
+        this.serializer = serializer;
+        this.deserializer = deserializer;
+        this.segmentDeque = new ArrayDeque<>();
+    }
+
+    /**
+     * Build string spill queue jm spill queue.
+     *
+     * @param directoryPath the directory path
+     * @return the jm spill queue
+     */
+    public static JMSpillQueue<String> buildStringSpillQueue(Path directoryPath) {
+        return new JMSpillQueue<>(directoryPath, string -> string.getBytes(StandardCharsets.UTF_8),
+                bytes -> new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Offer.
+     *
+     * @param item the item
+     */
+    public synchronized void offer(T item) {
+        if (this.closed)
+            throw new IllegalStateException("Closed JMSpillQueue !!! - " + this.directoryPath);
+        byte[] bytes = this.serializer.apply(item);
+        Segment lastSegment = this.segmentDeque.peekLast();
+        if (Objects.isNull(lastSegment) || lastSegment.buffer.remaining() < LENGTH_BYTES + bytes.length)
+            this.segmentDeque.addLast(lastSegment = newSegment(LENGTH_BYTES + bytes.length));
+        lastSegment.buffer.putInt(bytes.length).put(bytes);
+        this.size++;
+    }
+
+    private Segment newSegment(int recordSize) {
+        try {
+            Files.createDirectories(this.directoryPath);
+            Path segmentPath = Files.createTempFile(this.directoryPath, "spill-", ".segment");
+            try (FileChannel fileChannel = FileChannel.open(segmentPath, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                Segment segment = new Segment(segmentPath, fileChannel
+                        .map(FileChannel.MapMode.READ_WRITE, 0, Math.max(this.segmentSize, recordSize)));
+                JMLog.debug(log, "newSegment", segmentPath, segment.buffer.capacity());
+                return segment;
+            }
+        } catch (IOException e) {
+            throw JMException.handleExceptionAndReturnRuntimeEx(log, e, "newSegment", this.directoryPath);
+        }
+    }
+
+    /**
+     * Poll t.
+     *
+     * @return the t
+     */
+    public synchronized T poll() {
+        Segment firstSegment;
+        while (Objects.nonNull(firstSegment = this.segmentDeque.peekFirst())) {
+            if (firstSegment.readPosition < firstSegment.buffer.position())
+                return readItem(firstSegment);
+            if (this.segmentDeque.size() == 1) {
+                firstSegment.readPosition = 0;
+                firstSegment.buffer.clear();
+                return null;
+            }
+            deleteSegment(this.segmentDeque.pollFirst());
+        }
+        return null;
+    }
+
+    private T readItem(Segment segment) {
+        ByteBuffer readBuffer = segment.buffer.duplicate();
+        readBuffer.position(segment.readPosition);
+        byte[] bytes = new byte[readBuffer.getInt()];
+        readBuffer.get(bytes);
+        segment.readPosition = readBuffer.position();
+        this.size--;
+        return this.deserializer.apply(bytes);
+    }
+
+    private void deleteSegment(Segment segment) {
+        JMLog.debug(log, "deleteSegment", segment.path);
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            JMException.handleException(log, e, "deleteSegment", segment.path);
+        }
+    }
+
+    /**
+     * Size long.
+     *
+     * @return the long
+     */
+    public synchronized long size() {
+        return this.size;
+    }
+
+    /**
+     * Is empty boolean.
+     *
+     * @return the boolean
+     */
+    public synchronized boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Gets segment count.
+     *
+     * @return the segment count
+     */
+    public synchronized int getSegmentCount() {
+        return this.segmentDeque.size();
+    }
+
+    /**
+     * Gets directory path.
+     *
+     * @return the directory path
+     */
+    public Path getDirectoryPath() {
+        return this.directoryPath;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (this.closed)
+            return;
+        this.closed = true;
+        if (this.size > 0)
+            JMLog.warn(log, "close", this.directoryPath, this.size);
+        while (!this.segmentDeque.isEmpty())
+            deleteSegment(this.segmentDeque.pollFirst());
+        this.size = 0;
+    }
+
+    private static class Segment {
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private int readPosition;
+
+        private Segment(Path path, MappedByteBuffer buffer) {
+            this.path = path;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package kr.jm.utils.helper.etc;
+
+import kr.jm.utils.JMThread;
+import kr.jm.utils.exception.JMException;
+import kr.jm.utils.helper.JMLog;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The type Tail file line consumer.
+ * <p>
+ * Follows files like tail -F. The follow thread blocks on a watch service for the parent directories and reads only
+ * the bytes appended since the last position, so each wake up hands over the newly appended lines as one batch. A
+ * changed file key is treated as a rotation, the rest of the old file is read before the new one is opened from the
+ * start, and a file shorter than the position is treated as a truncation. With an offset file, the position of the
+ * last complete line of every file is stored there and a restart resumes from it while the file key is unchanged.
+ */
+public class TailFileLineConsumer implements AutoCloseable {
+    private static final Logger log = org.slf4j.LoggerFactory.getLogger(TailFileLineConsumer.class);
+
+    /**
+     * The constant DEFAULT_POLL_TIMEOUT_MILLIS.
+     */
+    public static final long DEFAULT_POLL_TIMEOUT_MILLIS = 1000;
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final Consumer<List<String>> lineBatchConsumer;
+    private final Path offsetFilePath;
+    private final boolean readFromBeginning;
+    private final Charset charset;
+    private final Map<Path, TailFile> tailFileMap;
+    private final Properties offsetProperties;
+    private final ByteBuffer readBuffer;
+    private WatchService watchService;
+    private ExecutorService executorService;
+    private volatile boolean closed;
+
+    /**
+     * Instantiates a new Tail file line consumer.
+     *
+     * @param lineBatchConsumer the line batch consumer
+     * @param offsetFilePath    the offset file path
+     * @param readFromBeginning the read from beginning
+     */
+    public TailFileLineConsumer(Consumer<List<String>> lineBatchConsumer, Path offsetFilePath,
+            boolean readFromBeginning) {
+        this(lineBatchConsumer, offsetFilePath, readFromBeginning, UTF_8);
+    }
+
+    /**
+     * Instantiates a new Tail file line consumer.
+     *
+     * @param lineBatchConsumer the line batch consumer
+     * @param offsetFilePath    the offset file path
+     * @param readFromBeginning the read from beginning
+     * @param charset           the charset
+     */
+    public TailFileLineConsumer(Consumer<List<String>> lineBatchConsumer, Path offsetFilePath,
+            boolean readFromBeginning, Charset charset) {
+        this.lineBatchConsumer = lineBatchConsumer;
+        this.offsetFilePath = offsetFilePath;
+        this.readFromBeginning = readFromBeginning;
+        this.charset = charset;
+        this.tailFileMap = new ConcurrentHashMap<>();
+        this.offsetProperties = loadOffsetProperties(offsetFilePath);
+        this.readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+    }
+
+    private static Properties loadOffsetProperties(Path offsetFilePath) {
+        Properties offsetProperties = new Properties();
+        if (Objects.nonNull(offsetFilePath) && Files.exists(offsetFilePath))
+            try (InputStream inputStream = Files.newInputStream(offsetFilePath)) {
+                offsetProperties.load(inputStream);
+            } catch (IOException e) {
+                JMException.handleException(log, e, "loadOffsetProperties", offsetFilePath);
+            }
+        return offsetProperties;
+    }
+
+    /**
+     * Follow tail file line consumer.
+     *
+     * @param filePaths the file paths
+     * @return the tail file line consumer
+     */
+    public synchronized TailFileLineConsumer follow(Path... filePaths) {
+        try {
+            if (Objects.isNull(this.watchService))
+                this.watchService = FileSystems.getDefault().newWatchService();
+            for (Path filePath : filePaths) {
+                Path absolutePath = filePath.toAbsolutePath().normalize();
+                absolutePath.getParent().register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY);
+                this.tailFileMap.computeIfAbsent(absolutePath, this::newTailFile);
+            }
+        } catch (IOException e) {
+            JMException.handleException(log, e, "follow", Arrays.toString(filePaths));
+        }
+        if (Objects.isNull(this.executorService))
+            JMThread.runAsync(this::startFollowing, this.executorService = JMThread.newSingleThreadPool());
+        return this;
+    }
+
+    private TailFile newTailFile(Path filePath) {
+        TailFile tailFile = new TailFile(filePath);
+        Optional.ofNullable(this.offsetProperties.getProperty(filePath.toString())).map(s -> s.split("\\|", 2))
+                .filter(offsetAndFileKey -> offsetAndFileKey.length == 2)
+                .filter(offsetAndFileKey -> offsetAndFileKey[1].equals(getFileKeyString(filePath)))
+                .ifPresentOrElse(offsetAndFileKey -> tailFile.position = Long.parseLong(offsetAndFileKey[0]),
+                        () -> tailFile.position = this.readFromBeginning ? 0 : getSize(filePath));
+        JMLog.info(log, "newTailFile", filePath, tailFile.position);
+        return tailFile;
+    }
+
+    private void startFollowing() {
+        this.tailFileMap.values().forEach(this::readAppended);
+        while (!this.closed) {
+            try {
+                WatchKey watchKey = this.watchService.poll(DEFAULT_POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (Objects.isNull(watchKey)) {
+                    this.tailFileMap.values().forEach(this::readAppended);
+                    continue;
+                }
+                Path directoryPath = (Path) watchKey.watchable();
+                for (WatchEvent<?> watchEvent : watchKey.pollEvents())
+                    if (watchEvent.context() instanceof Path)
+                        Optional.ofNullable(this.tailFileMap.get(directoryPath.resolve((Path) watchEvent.context())))
+                                .ifPresent(this::readAppended);
+                watchKey.reset();
+            } catch (ClosedWatchServiceException e) {
+                break;
+            } catch (Exception e) {
+                JMException.handleException(log, e, "startFollowing");
+            }
+        }
+        this.tailFileMap.values().forEach(this::readAppended);
+    }
+
+    private synchronized void readAppended(TailFile tailFile) {
+        try {
+            String fileKeyString = getFileKeyString(tailFile.filePath);
+            if (Objects.isNull(fileKeyString))
+                return;
+            if (Objects.nonNull(tailFile.fileChannel) && !fileKeyString.equals(tailFile.fileKeyString)) {
+                JMLog.info(log, "rotated", tailFile.filePath, tailFile.fileKeyString, fileKeyString);
+                readToEnd(tailFile);
+                tailFile.closeFileChannel();
+                tailFile.position = 0;
+            }
+            if (Objects.isNull(tailFile.fileChannel)) {
+                tailFile.fileChannel = FileChannel.open(tailFile.filePath, StandardOpenOption.READ);
+                tailFile.fileKeyString = fileKeyString;
+            }
+            if (tailFile.fileChannel.size() < tailFile.position) {
+                JMLog.warn(log, "truncated", tailFile.filePath, tailFile.position, tailFile.fileChannel.size());
+                tailFile.position = 0;
+                tailFile.pendingLength = 0;
+            }
+            readToEnd(tailFile);
+        } catch (IOException e) {
+            JMException.handleException(log, e, "readAppended", tailFile.filePath);
+        }
+    }
+
+    private void readToEnd(TailFile tailFile) throws IOException {
+        List<String> lineBatch = new ArrayList<>();
+        int readCount;
+        while ((readCount = tailFile.fileChannel
+                .read(this.readBuffer.clear(), tailFile.position + tailFile.pendingLength)) > 0)
+            tailFile.appendAndSplit(this.readBuffer.array(), readCount, this.charset, lineBatch);
+        if (lineBatch.isEmpty())
+            return;
+        this.lineBatchConsumer.accept(lineBatch);
+        storeOffset(tailFile);
+    }
+
+    private void storeOffset(TailFile tailFile) {
+        if (Objects.isNull(this.offsetFilePath))
+            return;
+        this.offsetProperties.setProperty(tailFile.filePath.toString(),
+                tailFile.position + "|" + tailFile.fileKeyString);
+        Path tempFilePath = this.offsetFilePath.resolveSibling(this.offsetFilePath.getFileName() + ".tmp");
+        try (OutputStream outputStream = Files.newOutputStream(tempFilePath)) {
+            this.offsetProperties.store(outputStream, TailFileLineConsumer.class.getSimpleName());
+        } catch (IOException e) {
+            JMException.handleException(log, e, "storeOffset", tempFilePath);
+            return;
+        }
+        try {
+            Files.move(tempFilePath, this.offsetFilePath, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            JMException.handleException(log, e, "storeOffset", this.offsetFilePath);
+        }
+    }
+
+    private static String getFileKeyString(Path filePath) {
+        try {
+            BasicFileAttributes fileAttributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+            return String.valueOf(Optional.ofNullable(fileAttributes.fileKey())
+                    .orElseGet(() -> fileAttributes.creationTime().toMillis()));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static long getSize(Path filePath) {
+        try {
+            return Files.exists(filePath) ? Files.size(filePath) : 0;
+        } catch (IOException e) {
+            return JMException.handleExceptionAndReturn(log, e, "getSize", () -> 0L, filePath);
+        }
+    }
+
+    /**
+     * Gets offset.
+     *
+     * @param filePath the file path
+     * @return the offset
+     */
+    public long getOffset(Path filePath) {
+        return Optional.ofNullable(this.tailFileMap.get(filePath.toAbsolutePath().normalize()))
+                .map(tailFile -> tailFile.position).orElse(-1L);
+    }
+
+    @Override
+    public void close() {
+        synchronized (this.tailFileMap) {
+            if (this.closed)
+                return;
+            this.closed = true;
+        }
+        JMLog.info(log, "close", this.tailFileMap.keySet());
+        try {
+            if (Objects.nonNull(this.watchService))
+                this.watchService.close();
+        } catch (IOException e) {
+            JMException.handleException(log, e, "close");
+        }
+        Optional.ofNullable(this.executorService).ifPresent(executorService -> {
+            executorService.shutdown();
+            JMThread.awaitTermination(executorService);
+        });
+        this.tailFileMap.values().forEach(this::closeTailFile);
+    }
+
+    private synchronized void closeTailFile(TailFile tailFile) {
+        tailFile.closeFileChannel();
+    }
+
+    private static class TailFile {
+        private final Path filePath;
+        private FileChannel fileChannel;
+        private String fileKeyString;
+        private long position;
+        private byte[] pendingBytes = new byte[1024];
+        private int pendingLength;
+
+        private TailFile(Path filePath) {
+            this.filePath = filePath;
+        }
+
+        private void appendAndSplit(byte[] bytes, int length, Charset charset, List<String> lineBatch) {
+            int lineStart = 0;
+            for (int i = 0; i < length; i++) {
+                if (bytes[i] != '\n')
+                    continue;
+                appendPending(bytes, lineStart, i - lineStart);
+                int lineLength = this.pendingLength > 0 && this.pendingBytes[this.pendingLength - 1] == '\r' ?
+                        this.pendingLength - 1 : this.pendingLength;
+                lineBatch.add(new String(this.pendingBytes, 0, lineLength, charset));
+                this.position += this.pendingLength + 1;
+                this.pendingLength = 0;
+                lineStart = i + 1;
+            }
+            appendPending(bytes, lineStart, length - lineStart);
+        }
+
+        private void appendPending(byte[] bytes, int offset, int length) {
+            if (this.pendingLength + length > this.pendingBytes.length)
+                this.pendingBytes = Arrays.copyOf(this.pendingBytes,
+                        Math.max(this.pendingLength + length, this.pendingBytes.length * 2));
+            System.arraycopy(bytes, offset, this.pendingBytes, this.pendingLength, length);
+            this.pendingLength += length;
+        }
+
+        private void closeFileChannel() {
+            if (Objects.isNull(this.fileChannel))
+                return;
+            try {
+                this.fileChannel.close();
+            } catch (IOException e) {
+                JMException.handleException(log, e, "closeFileChannel", this.filePath);
+            }
+            this.fileChannel = null;
+            this.pendingLength = 0;
+        }
+    }
+}
@@ -1,10 +1,11 @@
 package kr.jm.utils.stats;
 
+import kr.jm.utils.JMStats;
+import kr.jm.utils.enums.OS;
+
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Function;
-import java.util.stream.DoubleStream;
-import java.util.stream.IntStream;
-import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 import static java.util.Collections.unmodifiableList;
@@ -12,19 +13,32 @@ import static java.util.stream.Collectors.*;
 
 /**
  * The type Number summary statistics.
+ * <p>
+ * Accumulates the numbers in a single pass without keeping them: count, min, max, the Kahan compensated sum and the
+ * Welford mean and sum of squared differences are updated in place. Each thread updates its own stripe, and the
+ * stripes are merged with the pairwise variance on read, so reads cost the number of stripes instead of the number
+ * of values. The numbers themselves are only retained when retain numbers is set.
  */
 public class NumberSummaryStatistics {
 
+    private final AtomicReferenceArray<Accumulator> stripes;
     private final List<Number> numberList;
-    private int oldSize;
-    private DoubleSummaryStatistics doubleSummaryStatistics;
 
     /**
      * Instantiates a new Number summary statistics.
      */
     public NumberSummaryStatistics() {
-        this.numberList = Collections.synchronizedList(new ArrayList<>());
-        this.oldSize = -1;
+        this(false);
+    }
+
+    /**
+     * Instantiates a new Number summary statistics.
+     *
+     * @param retainNumbers the retain numbers
+     */
+    public NumberSummaryStatistics(boolean retainNumbers) {
+        this.stripes = new AtomicReferenceArray<>(Math.max(OS.getAvailableProcessors(), 1));
+        this.numberList = retainNumbers ? Collections.synchronizedList(new ArrayList<>()) : null;
     }
 
     /**
@@ -33,10 +47,54 @@ public class NumberSummaryStatistics {
      * @param numberCollection the number collection
      */
     public NumberSummaryStatistics(Collection<Number> numberCollection) {
-        this();
+        this(numberCollection, false);
+    }
+
+    /**
+     * Instantiates a new Number summary statistics.
+     *
+     * @param numberCollection the number collection
+     * @param retainNumbers    the retain numbers
+     */
+    public NumberSummaryStatistics(Collection<Number> numberCollection, boolean retainNumbers) {
+        this(retainNumbers);
         addAll(numberCollection);
     }
 
+    /**
+     * Is retaining numbers boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isRetainingNumbers() {
+        return Objects.nonNull(this.numberList);
+    }
+
+    private Accumulator getStripe() {
+        int index = (int) (Thread.currentThread().getId() % this.stripes.length());
+        Accumulator stripe = this.stripes.get(index);
+        if (Objects.nonNull(stripe))
+            return stripe;
+        this.stripes.compareAndSet(index, null, new Accumulator());
+        return this.stripes.get(index);
+    }
+
+    /**
+     * Accept number summary statistics.
+     *
+     * @param number the number
+     * @return the number summary statistics
+     */
+    public NumberSummaryStatistics accept(Number number) {
+        Accumulator stripe = getStripe();
+        synchronized (stripe) {
+            stripe.accept(number.doubleValue());
+        }
+        if (isRetainingNumbers())
+            this.numberList.add(number);
+        return this;
+    }
+
     /**
      * Add all number summary statistics.
      *
@@ -44,7 +102,13 @@ public class NumberSummaryStatistics {
      * @return the number summary statistics
      */
     public NumberSummaryStatistics addAll(Collection<Number> numberCollection) {
-        this.numberList.addAll(numberCollection);
+        Accumulator stripe = getStripe();
+        synchronized (stripe) {
+            for (Number number : numberCollection)
+                stripe.accept(number.doubleValue());
+        }
+        if (isRetainingNumbers())
+            this.numberList.addAll(numberCollection);
         return this;
     }
 
@@ -56,7 +120,8 @@ public class NumberSummaryStatistics {
      * @return the number summary statistics
      */
     public <N extends Number> NumberSummaryStatistics addAll(Stream<N> numberStream) {
-        return addAll(numberStream.collect(toList()));
+        numberStream.forEach(this::accept);
+        return this;
     }
 
     /**
@@ -66,7 +131,15 @@ public class NumberSummaryStatistics {
      * @return the number summary statistics
      */
     public NumberSummaryStatistics addAll(int[] ints) {
-        return addAll(IntStream.of(ints).boxed());
+        Accumulator stripe = getStripe();
+        synchronized (stripe) {
+            for (int i : ints)
+                stripe.accept(i);
+        }
+        if (isRetainingNumbers())
+            for (int i : ints)
+                this.numberList.add(i);
+        return this;
     }
 
     /**
@@ -76,7 +149,15 @@ public class NumberSummaryStatistics {
      * @return the number summary statistics
      */
     public NumberSummaryStatistics addAll(long[] longs) {
-        return addAll(LongStream.of(longs).boxed());
+        Accumulator stripe = getStripe();
+        synchronized (stripe) {
+            for (long l : longs)
+                stripe.accept(l);
+        }
+        if (isRetainingNumbers())
+            for (long l : longs)
+                this.numberList.add(l);
+        return this;
     }
 
     /**
@@ -86,7 +167,27 @@ public class NumberSummaryStatistics {
      * @return the number summary statistics
      */
     public NumberSummaryStatistics addAll(double[] doubles) {
-        return addAll(DoubleStream.of(doubles).boxed());
+        Accumulator stripe = getStripe();
+        synchronized (stripe) {
+            for (double d : doubles)
+                stripe.accept(d);
+        }
+        if (isRetainingNumbers())
+            for (double d : doubles)
+                this.numberList.add(d);
+        return this;
+    }
+
+    private Accumulator getSnapshot() {
+        Accumulator snapshot = new Accumulator();
+        for (int i = 0; i < this.stripes.length(); i++) {
+            Accumulator stripe = this.stripes.get(i);
+            if (Objects.nonNull(stripe))
+                synchronized (stripe) {
+                    snapshot.merge(stripe);
+                }
+        }
+        return snapshot;
     }
 
     /**
@@ -95,20 +196,9 @@ public class NumberSummaryStatistics {
      * @return the double summary statistics
      */
     public DoubleSummaryStatistics getDoubleSummaryStatistics() {
-        return getDoubleSummaryStatistics(this.numberList.size());
-    }
-
-    private DoubleSummaryStatistics getDoubleSummaryStatistics(int size) {
-        return this.oldSize != size ? initDoubleSummaryStatistics(size) : this.doubleSummaryStatistics;
-    }
-
-    private DoubleSummaryStatistics initDoubleSummaryStatistics(int size) {
-        this.oldSize = size;
-        return this.doubleSummaryStatistics = getDoubleStream().summaryStatistics();
-    }
-
-    private DoubleStream getDoubleStream() {
-        return this.numberList.stream().mapToDouble(Number::doubleValue);
+        Accumulator snapshot = getSnapshot();
+        return snapshot.count == 0 ? new DoubleSummaryStatistics() :
+                new DoubleSummaryStatistics(snapshot.count, snapshot.min, snapshot.max, snapshot.getSum());
     }
 
     /**
@@ -117,7 +207,7 @@ public class NumberSummaryStatistics {
      * @return the sum
      */
     public Number getSum() {
-        return getDoubleSummaryStatistics().getSum();
+        return getSnapshot().getSum();
     }
 
     /**
@@ -126,7 +216,7 @@ public class NumberSummaryStatistics {
      * @return the min
      */
     public Number getMin() {
-        return getDoubleSummaryStatistics().getMin();
+        return getSnapshot().min;
     }
 
     /**
@@ -135,7 +225,7 @@ public class NumberSummaryStatistics {
      * @return the max
      */
     public Number getMax() {
-        return getDoubleSummaryStatistics().getMax();
+        return getSnapshot().max;
     }
 
     /**
@@ -144,7 +234,7 @@ public class NumberSummaryStatistics {
      * @return the average
      */
     public Number getAverage() {
-        return getDoubleSummaryStatistics().getAverage();
+        return getSnapshot().getAverage();
     }
 
     /**
@@ -153,26 +243,68 @@ public class NumberSummaryStatistics {
      * @return the count
      */
     public Number getCount() {
-        return getDoubleSummaryStatistics().getCount();
+        return getSnapshot().count;
+    }
+
+    /**
+     * Gets variance.
+     *
+     * @return the sample variance
+     */
+    public Number getVariance() {
+        Accumulator snapshot = getSnapshot();
+        return snapshot.count > 1 ? snapshot.m2 / (snapshot.count - 1) : 0d;
+    }
+
+    /**
+     * Gets population variance.
+     *
+     * @return the population variance
+     */
+    public Number getPopulationVariance() {
+        Accumulator snapshot = getSnapshot();
+        return snapshot.count > 0 ? snapshot.m2 / snapshot.count : 0d;
+    }
+
+    /**
+     * Gets standard deviation.
+     *
+     * @return the sample standard deviation
+     */
+    public Number getStandardDeviation() {
+        return Math.sqrt(getVariance().doubleValue());
     }
 
     /**
      * Gets number list.
      *
-     * @return the number list
+     * @return the number list, empty when the numbers are not retained
      */
     public List<Number> getNumberList() {
-        return unmodifiableList(this.numberList);
+        return isRetainingNumbers() ? unmodifiableList(this.numberList) : Collections.emptyList();
     }
 
     /**
      * Combine number summary statistics.
+     * <p>
+     * When this instance retains numbers, the other one has to retain them too unless it is empty, otherwise the
+     * number list would silently miss the numbers of the other one.
      *
      * @param other the other
      * @return the number summary statistics
+     * @throws IllegalArgumentException if this instance retains numbers and the non-empty other does not
      */
     public NumberSummaryStatistics combine(NumberSummaryStatistics other) {
-        return addAll(other.numberList);
+        if (isRetainingNumbers() && !other.isRetainingNumbers() && other.getCount().longValue() > 0)
+            throw new IllegalArgumentException("Can't combine statistics not retaining numbers into retaining ones !!!");
+        Accumulator otherSnapshot = other.getSnapshot();
+        Accumulator stripe = getStripe();
+        synchronized (stripe) {
+            stripe.merge(otherSnapshot);
+        }
+        if (isRetainingNumbers())
+            this.numberList.addAll(other.getNumberList());
+        return this;
     }
 
     /**
@@ -197,9 +329,9 @@ public class NumberSummaryStatistics {
 
     @Override
     public String toString() {
+        Accumulator snapshot = getSnapshot();
         return String.format("%s{count=%d, sum=%f, min=%f, max=%f, average=%f}", this.getClass().getSimpleName(),
-                getCount().longValue(), getSum().doubleValue(), getMin().doubleValue(), getMax().doubleValue(),
-                getAverage().doubleValue());
+                snapshot.count, snapshot.getSum(), snapshot.min, snapshot.max, snapshot.getAverage());
     }
 
     /**
@@ -208,6 +340,69 @@ public class NumberSummaryStatistics {
      * @return the stats field map
      */
     public Map<StatsField, Number> getStatsFieldMap() {
-        return Arrays.stream(StatsField.values()).collect(toMap(Function.identity(), this::getStats));
+        DoubleSummaryStatistics doubleSummaryStatistics = getDoubleSummaryStatistics();
+        return Arrays.stream(StatsField.values())
+                .collect(toMap(Function.identity(), statsField -> statsField.calStats(doubleSummaryStatistics)));
+    }
+
+    private static class Accumulator {
+        private long count;
+        private double sum;
+        private double sumCompensation;
+        private double simpleSum;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private double mean;
+        private double m2;
+
+        private void accept(double value) {
+            this.count++;
+            this.simpleSum += value;
+            addWithCompensation(value);
+            this.min = Math.min(this.min, value);
+            this.max = Math.max(this.max, value);
+            double delta = value - this.mean;
+            this.mean += delta / this.count;
+            this.m2 += delta * (value - this.mean);
+        }
+
+        private void addWithCompensation(double value) {
+            double compensatedValue = value - this.sumCompensation;
+            double newSum = this.sum + compensatedValue;
+            this.sumCompensation = (newSum - this.sum) - compensatedValue;
+            this.sum = newSum;
+        }
+
+        private void merge(Accumulator other) {
+            if (other.count == 0)
+                return;
+            if (this.count > 0) {
+                double variance = JMStats.calPairwiseVariance(this.count, getSum(), getSampleVariance(),
+                        other.count, other.getSum(), other.getSampleVariance());
+                this.m2 = variance * (this.count + other.count - 1);
+            } else
+                this.m2 = other.m2;
+            this.count += other.count;
+            this.simpleSum += other.simpleSum;
+            addWithCompensation(other.sum);
+            addWithCompensation(-other.sumCompensation);
+            this.min = Math.min(this.min, other.min);
+            this.max = Math.max(this.max, other.max);
+            this.mean = getAverage();
+        }
+
+        private double getSampleVariance() {
+            return this.count > 1 ? this.m2 / (this.count - 1) : 0;
+        }
+
+        private double getSum() {
+            double compensatedSum = this.sum - this.sumCompensation;
+            return Double.isNaN(compensatedSum) && Double.isInfinite(this.simpleSum) ? this.simpleSum :
+                    compensatedSum;
+        }
+
+        private double getAverage() {
+            return this.count > 0 ? getSum() / this.count : 0;
+        }
     }
 }
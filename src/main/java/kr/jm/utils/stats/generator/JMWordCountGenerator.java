@@ -43,7 +43,9 @@ public class JMWordCountGenerator {
      * @return the map
      */
     public Map<String, Long> buildCountMap(Pattern pattern, Path path) {
-        return buildCountMap(JMPath.getInstance().getLineStream(path).flatMap(pattern::splitAsStream));
+        try (Stream<String> lineStream = JMPath.getInstance().getParallelLineStream(path)) {
+            return buildCountMap(lineStream.flatMap(pattern::splitAsStream));
+        }
     }
 
     /**
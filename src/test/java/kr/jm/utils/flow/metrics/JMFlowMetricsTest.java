@@ -0,0 +1,57 @@
+package kr.jm.utils.flow.metrics;
+
+import kr.jm.utils.JMThread;
+import kr.jm.utils.flow.processor.JMProcessor;
+import kr.jm.utils.flow.processor.JMProcessorBuilder;
+import kr.jm.utils.flow.publisher.LineSubmissionPublisher;
+import kr.jm.utils.flow.subscriber.JMSubscriber;
+import kr.jm.utils.flow.subscriber.JMSubscriberBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+public class JMFlowMetricsTest {
+
+    static {
+        System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "debug");
+    }
+
+    @Test
+    public void testFlowMetrics() throws Exception {
+        LineSubmissionPublisher lineSubmissionPublisher = new LineSubmissionPublisher();
+        JMFlowMetrics publisherMetrics = lineSubmissionPublisher.enableMetrics("lineSubmissionPublisher");
+        JMProcessor<String, Integer> processor = JMProcessorBuilder.build(String::length);
+        JMFlowMetrics processorMetrics = processor.enableMetrics("lengthProcessor").registerMXBean();
+        JMSubscriber<Integer> subscriber = JMSubscriberBuilder.build(length -> {});
+        JMFlowMetrics subscriberMetrics = subscriber.enableMetrics("lengthSubscriber");
+        lineSubmissionPublisher.subscribeAndReturnSubcriber(processor).subscribe(subscriber);
+        lineSubmissionPublisher.submitClasspath("webAccessLogSample.txt");
+        JMThread.sleep(1000);
+
+        System.out.println(publisherMetrics.getSnapshot());
+        System.out.println(processorMetrics.getSnapshot());
+        System.out.println(subscriberMetrics.getSnapshot());
+        Assert.assertEquals(1024, publisherMetrics.getInCount());
+        Assert.assertEquals(1024, processorMetrics.getSnapshot().getInCount());
+        Assert.assertEquals(1024, processorMetrics.getSnapshot().getOutCount());
+        Assert.assertEquals(1024, processorMetrics.getProcessingCount());
+        Assert.assertTrue(
+                processorMetrics.getProcessingP99Micros() <= processorMetrics.getProcessingMaxMicros());
+        Assert.assertEquals(1024, subscriberMetrics.getInCount());
+        Assert.assertEquals(1024L, ManagementFactory.getPlatformMBeanServer()
+                .getAttribute(new ObjectName(JMFlowMetrics.JMX_DOMAIN, "name", ObjectName.quote("lengthProcessor")),
+                        "InCount"));
+        ObjectName processorObjectName =
+                new ObjectName(JMFlowMetrics.JMX_DOMAIN, "name", ObjectName.quote("lengthProcessor"));
+        Object inPerSecond = ManagementFactory.getPlatformMBeanServer().getAttribute(processorObjectName,
+                "InPerSecond");
+        Object outPerSecond = ManagementFactory.getPlatformMBeanServer().getAttribute(processorObjectName,
+                "OutPerSecond");
+        Assert.assertTrue((Double) inPerSecond > 0);
+        Assert.assertEquals(inPerSecond, outPerSecond);
+        Assert.assertEquals(inPerSecond, processorMetrics.getInPerSecond());
+        processorMetrics.unregisterMXBean();
+    }
+}
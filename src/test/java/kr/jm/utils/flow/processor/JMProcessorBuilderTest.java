@@ -1,15 +1,33 @@
 package kr.jm.utils.flow.processor;
 
+import kr.jm.utils.JMResources;
 import kr.jm.utils.JMThread;
+import kr.jm.utils.flow.publisher.JMSubmissionPublisher;
 import kr.jm.utils.flow.publisher.LineSubmissionPublisher;
+import kr.jm.utils.flow.subscriber.JMSubscriber;
 import kr.jm.utils.flow.subscriber.JMSubscriberBuilder;
 import kr.jm.utils.helper.JMWordSplitter;
+import kr.jm.utils.stats.CountMap;
+import kr.jm.utils.stats.StatsField;
+import kr.jm.utils.stats.StatsMap;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 public class JMProcessorBuilderTest {
 
@@ -39,4 +57,445 @@ public class JMProcessorBuilderTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testBoundedAndOrdered() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        LineSubmissionPublisher lineSubmissionPublisher = new LineSubmissionPublisher();
+        JMConcurrentProcessor<String, String> concurrentProcessor = lineSubmissionPublisher.subscribeAndReturnSubcriber(
+                JMProcessorBuilder.buildWithThreadPool(4, 8, true, line -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    JMThread.sleep(line.length() % 3);
+                    inFlight.decrementAndGet();
+                    return line;
+                }));
+        List<String> resultList = new ArrayList<>();
+        concurrentProcessor.subscribe(JMSubscriberBuilder.build(resultList::add));
+        lineSubmissionPublisher.submitClasspath("webAccessLogSample.txt");
+        JMThread.sleep(2000);
+
+        Assert.assertTrue(concurrentProcessor.isOrdered());
+        Assert.assertTrue(maxInFlight.get() <= 4);
+        Assert.assertEquals(JMResources.readLines("webAccessLogSample.txt"), resultList);
+    }
+
+    @Test
+    public void testFusion() {
+        ThreadLocal<String> currentLine = new ThreadLocal<>();
+        LineSubmissionPublisher lineSubmissionPublisher = new LineSubmissionPublisher();
+        JMProcessor<String, String> firstProcessor = JMProcessorBuilder.build(line -> {
+            currentLine.set(line);
+            return line;
+        });
+        List<Boolean> inlineList = new ArrayList<>();
+        lineSubmissionPublisher.subscribeAndReturnSubcriber(firstProcessor)
+                .subscribeAndReturnProcessor(JMProcessorBuilder.build(String::trim))
+                .subscribeAndReturnProcessor(JMProcessorBuilder.build(String::intern))
+                .subscribeAndReturnProcessor(JMProcessorBuilder.build(Function.<String>identity()))
+                .subscribeAndReturnProcessor(JMProcessorBuilder.build((String line) -> line.equals(currentLine.get())))
+                .subscribe(JMSubscriberBuilder.build(inlineList::add));
+        lineSubmissionPublisher.submitClasspath("webAccessLogSample.txt");
+        JMThread.sleep(1000);
+
+        Assert.assertEquals(1024, inlineList.size());
+        Assert.assertTrue(inlineList.stream().allMatch(Boolean::booleanValue));
+    }
+
+    @Test
+    public void testPartitioned() {
+        LineSubmissionPublisher lineSubmissionPublisher = new LineSubmissionPublisher();
+        JMPartitionedProcessor<String, String> partitionedProcessor = lineSubmissionPublisher
+                .subscribeAndReturnSubcriber(JMProcessorBuilder.buildPartitioned(4, 16,
+                        line -> line.split(" ")[0], line -> line));
+        Map<String, List<String>> resultMap = new ConcurrentHashMap<>();
+        partitionedProcessor.subscribe(JMSubscriberBuilder.build(line -> resultMap
+                .computeIfAbsent(line.split(" ")[0], key -> new ArrayList<>()).add(line)));
+        lineSubmissionPublisher.submitClasspath("webAccessLogSample.txt");
+        JMThread.sleep(1000);
+
+        Assert.assertEquals(4, partitionedProcessor.getLaneCount());
+        Assert.assertEquals(JMResources.readLines("webAccessLogSample.txt").stream()
+                .collect(Collectors.groupingBy(line -> line.split(" ")[0])), resultMap);
+        partitionedProcessor.close();
+
+        CountDownLatch hotLatch = new CountDownLatch(1);
+        JMSubmissionPublisher<String> skewedPublisher = new JMSubmissionPublisher<>();
+        JMPartitionedProcessor<String, String> skewedProcessor = skewedPublisher.subscribeAndReturnSubcriber(
+                JMProcessorBuilder.buildPartitioned(2, 4, Function.identity(), key -> {
+                    if (key.startsWith("hot")) {
+                        try {
+                            hotLatch.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    return key;
+                }));
+        List<String> skewedResultList = new CopyOnWriteArrayList<>();
+        skewedProcessor.subscribe(JMSubscriberBuilder.build(skewedResultList::add));
+        String hotKey = "hot";
+        String coldKey = IntStream.range(0, 100).mapToObj(i -> "cold" + i)
+                .filter(key -> skewedProcessor.getLaneIndex(key) != skewedProcessor.getLaneIndex(hotKey))
+                .findFirst().orElseThrow();
+        IntStream.range(0, 6).forEach(i -> skewedPublisher.submit(hotKey));
+        IntStream.range(0, 2).forEach(i -> skewedPublisher.submit(coldKey));
+        try {
+            for (int i = 0; i < 100 && skewedResultList.size() < 2; i++)
+                JMThread.sleep(20);
+            Assert.assertEquals(List.of(coldKey, coldKey), skewedResultList);
+            Assert.assertTrue(skewedProcessor.getLaneBufferedCount(skewedProcessor.getLaneIndex(hotKey)) > 0);
+        } finally {
+            hotLatch.countDown();
+        }
+        for (int i = 0; i < 100 && skewedResultList.size() < 8; i++)
+            JMThread.sleep(20);
+        Assert.assertEquals(6, skewedResultList.stream().filter(hotKey::equals).count());
+        skewedProcessor.close();
+    }
+
+    @Test
+    public void testWindow() {
+        JMSubmissionPublisher<Long> publisher = new JMSubmissionPublisher<>();
+        JMWindowProcessor<Long, ?, StatsMap> tumblingProcessor = publisher.subscribeAndReturnSubcriber(
+                JMProcessorBuilder.buildTumblingWindow(1000, Long::longValue, 500,
+                        JMWindowAccumulator.buildStatsMap(Long::doubleValue)));
+        JMWindowProcessor<Long, ?, CountMap<Long>> slidingProcessor = publisher.subscribeAndReturnSubcriber(
+                JMProcessorBuilder.buildSlidingWindow(1000, 500, Long::longValue, 0,
+                        JMWindowAccumulator.buildCountMap(timestamp -> timestamp / 1000)));
+        JMWindowProcessor<Long, ?, CountMap<Long>> sessionProcessor = publisher.subscribeAndReturnSubcriber(
+                JMProcessorBuilder.buildSessionWindow(300, Long::longValue, 0,
+                        JMWindowAccumulator.buildCountMap(timestamp -> timestamp / 1000)));
+        List<JMWindow<StatsMap>> tumblingList = new CopyOnWriteArrayList<>();
+        List<JMWindow<CountMap<Long>>> slidingList = new CopyOnWriteArrayList<>();
+        List<JMWindow<CountMap<Long>>> sessionList = new CopyOnWriteArrayList<>();
+        tumblingProcessor.subscribe(JMSubscriberBuilder.build(tumblingList::add));
+        slidingProcessor.subscribe(JMSubscriberBuilder.build(slidingList::add));
+        sessionProcessor.subscribe(JMSubscriberBuilder.build(sessionList::add));
+        List.of(100L, 900L, 1100L, 800L, 1200L, 2600L, 700L, 2700L).forEach(publisher::submit);
+        JMThread.sleep(500);
+
+        Assert.assertEquals(2, tumblingList.size());
+        Assert.assertEquals(0, tumblingList.get(0).getStartTimestamp());
+        Assert.assertEquals(3, tumblingList.get(0).getItemCount());
+        Assert.assertEquals(600D, tumblingList.get(0).getResult().get(StatsField.avg));
+        Assert.assertEquals(1, tumblingProcessor.getLateItemCount());
+        Assert.assertEquals(1, slidingProcessor.getLateItemCount());
+        Assert.assertEquals(2, sessionProcessor.getLateItemCount());
+        Assert.assertEquals(2700, tumblingProcessor.getWatermark());
+
+        publisher.close();
+        JMThread.sleep(500);
+        Assert.assertEquals(List.of(0L, 1000L, 2000L),
+                tumblingList.stream().map(JMWindow::getStartTimestamp).collect(Collectors.toList()));
+        Assert.assertEquals(List.of(3L, 2L, 2L),
+                tumblingList.stream().map(JMWindow::getItemCount).collect(Collectors.toList()));
+        Assert.assertEquals(List.of(-500L, 0L, 500L, 1000L, 2000L, 2500L),
+                slidingList.stream().map(JMWindow::getStartTimestamp).collect(Collectors.toList()));
+        Assert.assertEquals(List.of(1L, 2L, 4L, 2L, 2L, 2L),
+                slidingList.stream().map(JMWindow::getItemCount).collect(Collectors.toList()));
+        Assert.assertEquals(List.of(100L, 900L, 2600L),
+                sessionList.stream().map(JMWindow::getStartTimestamp).collect(Collectors.toList()));
+        Assert.assertEquals(Long.valueOf(2), sessionList.get(1).getResult().get(1L));
+
+        JMSubmissionPublisher<Long> processingTimePublisher = new JMSubmissionPublisher<>();
+        JMWindowProcessor<Long, ?, CountMap<Long>> processingTimeProcessor = processingTimePublisher
+                .subscribeAndReturnSubcriber(JMProcessorBuilder.buildTumblingWindow(200,
+                        JMWindowAccumulator.buildCountMap(Function.identity())));
+        List<JMWindow<CountMap<Long>>> processingTimeList = new CopyOnWriteArrayList<>();
+        processingTimeProcessor.subscribe(JMSubscriberBuilder.build(processingTimeList::add));
+        List.of(1L, 1L, 2L).forEach(processingTimePublisher::submit);
+        JMThread.sleep(600);
+        Assert.assertFalse(processingTimeProcessor.isEventTime());
+        Assert.assertEquals(0, processingTimeProcessor.getOpenWindowCount());
+        Assert.assertEquals(3, processingTimeList.stream().mapToLong(JMWindow::getItemCount).sum());
+        processingTimeProcessor.close();
+    }
+
+    @Test
+    public void testCountWindow() {
+        JMSubmissionPublisher<Long> publisher = new JMSubmissionPublisher<>();
+        JMWindowProcessor<Long, ?, StatsMap> tumblingProcessor = publisher.subscribeAndReturnSubcriber(
+                JMProcessorBuilder.buildCountTumblingWindow(4, JMWindowAccumulator.buildStatsMap(Long::doubleValue)));
+        JMWindowProcessor<Long, ?, StatsMap> slidingProcessor = publisher.subscribeAndReturnSubcriber(
+                JMProcessorBuilder.buildCountSlidingWindow(4, 2, JMWindowAccumulator.buildStatsMap(Long::doubleValue)));
+        List<JMWindow<StatsMap>> tumblingList = new CopyOnWriteArrayList<>();
+        List<JMWindow<StatsMap>> slidingList = new CopyOnWriteArrayList<>();
+        tumblingProcessor.subscribe(JMSubscriberBuilder.build(tumblingList::add));
+        slidingProcessor.subscribe(JMSubscriberBuilder.build(slidingList::add));
+        LongStream.range(0, 10).forEach(publisher::submit);
+        publisher.close();
+        for (int i = 0; i < 100 && (tumblingList.size() < 3 || slidingList.size() < 6); i++)
+            JMThread.sleep(20);
+        Assert.assertEquals(List.of(0L, 4L, 8L),
+                tumblingList.stream().map(JMWindow::getStartTimestamp).collect(Collectors.toList()));
+        Assert.assertEquals(List.of(4L, 4L, 2L),
+                tumblingList.stream().map(JMWindow::getItemCount).collect(Collectors.toList()));
+        Assert.assertEquals(5.5D, tumblingList.get(1).getResult().get(StatsField.avg));
+        Assert.assertEquals(List.of(-2L, 0L, 2L, 4L, 6L, 8L),
+                slidingList.stream().map(JMWindow::getStartTimestamp).collect(Collectors.toList()));
+        Assert.assertEquals(List.of(2L, 4L, 4L, 4L, 4L, 2L),
+                slidingList.stream().map(JMWindow::getItemCount).collect(Collectors.toList()));
+        Assert.assertEquals(7.5D, slidingList.get(4).getResult().get(StatsField.avg));
+        Assert.assertFalse(tumblingProcessor.isEventTime());
+        Assert.assertEquals(0, tumblingProcessor.getLateItemCount());
+        Assert.assertEquals(0, slidingProcessor.getOpenWindowCount());
+    }
+
+    @Test
+    public void testAsync() {
+        JMSubmissionPublisher<Integer> publisher = new JMSubmissionPublisher<>();
+        JMProcessor<Integer, Integer> processor =
+                publisher.subscribeAndReturnSubcriber(JMProcessorBuilder.build(Function.identity()));
+        ExecutorService executorService = JMThread.newThreadPool(8);
+        AtomicInteger concurrency = new AtomicInteger();
+        AtomicInteger maxConcurrency = new AtomicInteger();
+        Map<Integer, Throwable> errorMap = new ConcurrentHashMap<>();
+        JMAsyncProcessor<Integer, String> asyncProcessor =
+                processor.subscribeAndReturnAsyncProcessor(i -> CompletableFuture.supplyAsync(() -> {
+                    maxConcurrency.accumulateAndGet(concurrency.incrementAndGet(), Math::max);
+                    JMThread.sleep(10 - i % 10);
+                    concurrency.decrementAndGet();
+                    if (i % 10 == 7)
+                        throw new IllegalStateException("fail-" + i);
+                    return "result-" + i;
+                }, executorService), 4, true, errorMap::put);
+        List<String> resultList = new CopyOnWriteArrayList<>();
+        asyncProcessor.subscribe(JMSubscriberBuilder.build(resultList::add));
+        IntStream.range(0, 100).forEach(publisher::submit);
+        for (int i = 0; i < 100 && resultList.size() < 90; i++)
+            JMThread.sleep(50);
+
+        Assert.assertEquals(IntStream.range(0, 100).filter(i -> i % 10 != 7).mapToObj(i -> "result-" + i)
+                .collect(Collectors.toList()), resultList);
+        Assert.assertEquals(10, errorMap.size());
+        Assert.assertEquals("fail-17", errorMap.get(17).getMessage());
+        Assert.assertEquals(10, asyncProcessor.getErrorCount());
+        Assert.assertTrue(maxConcurrency.get() <= 4);
+        Assert.assertEquals(0, asyncProcessor.getInFlightCount());
+        asyncProcessor.close();
+        executorService.shutdown();
+    }
+
+    @Test
+    public void testAsyncComplete() {
+        JMSubmissionPublisher<Integer> publisher = new JMSubmissionPublisher<>();
+        JMAsyncProcessor<Integer, Integer> asyncProcessor = publisher.subscribeAndReturnSubcriber(
+                new JMAsyncProcessor<Integer, Integer>(4, i -> CompletableFuture.supplyAsync(() -> {
+                    JMThread.sleep(20);
+                    return i;
+                })));
+        AtomicInteger count = new AtomicInteger();
+        CompletableFuture<Integer> completedCountFuture = new CompletableFuture<>();
+        asyncProcessor.subscribe(new JMSubscriber<>(i -> count.incrementAndGet()) {
+            @Override
+            public void onComplete() {
+                super.onComplete();
+                completedCountFuture.complete(count.get());
+            }
+        });
+        IntStream.range(0, 20).forEach(publisher::submit);
+        publisher.close();
+
+        Assert.assertEquals(20, completedCountFuture.orTimeout(5, TimeUnit.SECONDS).join().intValue());
+        Assert.assertEquals(0, asyncProcessor.getInFlightCount());
+    }
+
+    @Test
+    public void testConcurrentComplete() {
+        JMSubmissionPublisher<Integer> publisher = new JMSubmissionPublisher<>();
+        JMConcurrentProcessor<Integer, Integer> concurrentProcessor = publisher.subscribeAndReturnSubcriber(
+                JMProcessorBuilder.buildWithThreadPool(4, i -> {
+                    JMThread.sleep(20);
+                    return i;
+                }));
+        AtomicInteger count = new AtomicInteger();
+        CompletableFuture<Integer> completedCountFuture = new CompletableFuture<>();
+        concurrentProcessor.subscribe(new JMSubscriber<>(i -> count.incrementAndGet()) {
+            @Override
+            public void onComplete() {
+                super.onComplete();
+                completedCountFuture.complete(count.get());
+            }
+        });
+        IntStream.range(0, 20).forEach(publisher::submit);
+        publisher.close();
+
+        Assert.assertFalse(concurrentProcessor.isBounded());
+        Assert.assertEquals(20, completedCountFuture.orTimeout(5, TimeUnit.SECONDS).join().intValue());
+        Assert.assertEquals(0, concurrentProcessor.getInFlightCount());
+    }
+
+    @Test
+    public void testConflating() {
+        JMSubmissionPublisher<String> publisher = new JMSubmissionPublisher<>();
+        JMConflatingProcessor<String, String> conflatingProcessor =
+                publisher.subscribeAndReturnSubcriber(JMProcessorBuilder.buildConflating(s -> s.split("-")[0]));
+        Map<String, String> latestMap = new ConcurrentHashMap<>();
+        AtomicInteger count = new AtomicInteger();
+        conflatingProcessor.subscribe(JMSubscriberBuilder.build(s -> {
+            count.incrementAndGet();
+            latestMap.put(s.split("-")[0], s);
+            JMThread.sleep(20);
+        }));
+        IntStream.range(0, 1000).mapToObj(i -> "key" + i % 5 + "-" + i).forEach(publisher::submit);
+        publisher.close();
+        for (int i = 0; i < 100 && latestMap.size() < 5; i++)
+            JMThread.sleep(50);
+        JMThread.sleep(200);
+
+        Assert.assertEquals(IntStream.range(995, 1000).mapToObj(i -> "key" + i % 5 + "-" + i).sorted()
+                .collect(Collectors.toList()), latestMap.values().stream().sorted().collect(Collectors.toList()));
+        Assert.assertTrue(count.get() < 100);
+        Assert.assertEquals(1000 - count.get(), conflatingProcessor.getConflatedCount());
+        Assert.assertEquals(0, conflatingProcessor.getPendingCount());
+    }
+
+    @Test
+    public void testThrottling() {
+        JMSubmissionPublisher<String> publisher = new JMSubmissionPublisher<>();
+        JMThrottlingProcessor<String> throttlingProcessor =
+                publisher.subscribeAndReturnSubcriber(JMProcessorBuilder.buildThrottling(100, 10));
+        List<Long> timestampList = new CopyOnWriteArrayList<>();
+        throttlingProcessor.subscribe(JMSubscriberBuilder.build(s -> timestampList.add(System.currentTimeMillis())));
+        long startMillis = System.currentTimeMillis();
+        JMThread.runAsync(() -> IntStream.range(0, 60).mapToObj(String::valueOf).forEach(publisher::submit));
+        for (int i = 0; i < 100 && timestampList.size() < 60; i++)
+            JMThread.sleep(50);
+        Assert.assertEquals(60, timestampList.size());
+        long elapsedMillis = timestampList.get(59) - startMillis;
+        System.out.println(elapsedMillis);
+        Assert.assertTrue(throttlingProcessor.getThrottledCount() > 0);
+        Assert.assertTrue(elapsedMillis >= 400);
+
+        JMSubmissionPublisher<String> keyPublisher = new JMSubmissionPublisher<>();
+        JMThrottlingProcessor<String> keyThrottlingProcessor = keyPublisher.subscribeAndReturnSubcriber(
+                JMProcessorBuilder.buildThrottling(1000, 100, s -> s.split("-")[0], 50, 1));
+        Assert.assertEquals(Duration.ofSeconds(1), keyThrottlingProcessor.getKeyBucketSweepInterval());
+        keyThrottlingProcessor.setKeyBucketSweepInterval(Duration.ofMinutes(1));
+        Map<String, List<String>> keyResultMap = new ConcurrentHashMap<>();
+        keyThrottlingProcessor.subscribe(JMSubscriberBuilder.build(
+                s -> keyResultMap.computeIfAbsent(s.split("-")[0], k -> new CopyOnWriteArrayList<>()).add(s)));
+        startMillis = System.currentTimeMillis();
+        IntStream.range(0, 20).mapToObj(i -> (i < 10 ? "slow-" : "fast" + i + "-") + i).forEach(keyPublisher::submit);
+        for (int i = 0; i < 100 && keyResultMap.getOrDefault("slow", List.of()).size() < 10; i++)
+            JMThread.sleep(20);
+        elapsedMillis = System.currentTimeMillis() - startMillis;
+        System.out.println(elapsedMillis);
+        Assert.assertEquals(IntStream.range(0, 10).mapToObj(i -> "slow-" + i).collect(Collectors.toList()),
+                keyResultMap.get("slow"));
+        Assert.assertEquals(11, keyResultMap.size());
+        Assert.assertTrue(keyThrottlingProcessor.getThrottledCount() > 0);
+        Assert.assertTrue(elapsedMillis >= 150);
+        Assert.assertEquals(0, keyThrottlingProcessor.getDelayedCount());
+        Assert.assertEquals(11, keyThrottlingProcessor.getKeyBucketCount());
+        keyThrottlingProcessor.setKeyBucketSweepInterval(Duration.ZERO);
+        keyPublisher.submit("slow-10");
+        for (int i = 0; i < 100 && keyResultMap.get("slow").size() < 11; i++)
+            JMThread.sleep(20);
+        Assert.assertEquals(1, keyThrottlingProcessor.getKeyBucketCount());
+        throttlingProcessor.close();
+        keyThrottlingProcessor.close();
+    }
+
+    @Test
+    public void testRetry() {
+        JMSubmissionPublisher<Integer> publisher = new JMSubmissionPublisher<>();
+        Map<Integer, AtomicInteger> attemptMap = new ConcurrentHashMap<>();
+        JMProcessor<Integer, String> processor = publisher.subscribeAndReturnSubcriber(JMProcessorBuilder.build(i -> {
+            int attempt = attemptMap.computeIfAbsent(i, k -> new AtomicInteger()).incrementAndGet();
+            if (i % 5 == 0 || i % 2 == 0 && attempt < 3)
+                throw new IllegalStateException("fail-" + i + "-" + attempt);
+            return "result-" + i;
+        }));
+        processor.enableRetry(JMRetryPolicy.buildExponentialBackoff(3, 10, 40)
+                .retryOn(throwable -> throwable instanceof IllegalStateException));
+        processor.enableErrorSampling(60000);
+        List<JMDeadLetter<Integer>> deadLetterList = new CopyOnWriteArrayList<>();
+        processor.enableDeadLetter().subscribe(JMSubscriberBuilder.build(deadLetterList::add));
+        List<String> resultList = new CopyOnWriteArrayList<>();
+        processor.subscribe(JMSubscriberBuilder.build(resultList::add));
+        IntStream.range(1, 21).forEach(publisher::submit);
+        for (int i = 0; i < 100 && deadLetterList.size() < 4; i++)
+            JMThread.sleep(50);
+        JMThread.sleep(100);
+
+        Assert.assertEquals(IntStream.range(1, 21).filter(i -> i % 5 != 0).mapToObj(i -> "result-" + i).sorted()
+                .collect(Collectors.toList()), resultList.stream().sorted().collect(Collectors.toList()));
+        Assert.assertEquals(List.of(5, 10, 15, 20),
+                deadLetterList.stream().map(JMDeadLetter::getItem).sorted().collect(Collectors.toList()));
+        Assert.assertEquals(4, deadLetterList.get(0).getAttempts());
+        Assert.assertEquals("fail-5-4", deadLetterList.stream().filter(deadLetter -> deadLetter.getItem() == 5)
+                .findFirst().map(JMDeadLetter::getThrowable).map(Throwable::getMessage).orElse(null));
+        Assert.assertEquals(3, attemptMap.get(2).get());
+        Assert.assertEquals(4, processor.getErrorSampler().getErrorCount());
+        Assert.assertEquals(3, processor.getErrorSampler().getSuppressedCount());
+        Assert.assertEquals(0, processor.getRetryingCount());
+        processor.close();
+    }
+
+    @Test
+    public void testRetryWithBoundedAndOrdered() {
+        JMSubmissionPublisher<Integer> publisher = new JMSubmissionPublisher<>();
+        Map<Integer, AtomicInteger> attemptMap = new ConcurrentHashMap<>();
+        JMConcurrentProcessor<Integer, Integer> processor = publisher.subscribeAndReturnSubcriber(
+                JMProcessorBuilder.buildWithThreadPool(4, 8, true, i -> {
+                    int attempt = attemptMap.computeIfAbsent(i, k -> new AtomicInteger()).incrementAndGet();
+                    if (i % 3 == 0 && attempt < 2 || i % 7 == 0)
+                        throw new IllegalStateException("fail-" + i + "-" + attempt);
+                    return i;
+                }));
+        processor.enableRetry(JMRetryPolicy.buildExponentialBackoff(2, 20, 40));
+        List<JMDeadLetter<Integer>> deadLetterList = new CopyOnWriteArrayList<>();
+        processor.enableDeadLetter().subscribe(JMSubscriberBuilder.build(deadLetterList::add));
+        List<Integer> resultList = new CopyOnWriteArrayList<>();
+        processor.subscribe(JMSubscriberBuilder.build(resultList::add));
+        IntStream.range(1, 41).forEach(publisher::submit);
+        Assert.assertEquals(0, publisher.closeAndDrain(Duration.ofSeconds(5)));
+        Assert.assertEquals(0, processor.closeAndDrain(Duration.ofSeconds(5)));
+
+        Assert.assertEquals(IntStream.range(1, 41).filter(i -> i % 7 != 0).boxed().collect(Collectors.toList()),
+                resultList);
+        Assert.assertEquals(List.of(7, 14, 21, 28, 35),
+                deadLetterList.stream().map(JMDeadLetter::getItem).sorted().collect(Collectors.toList()));
+        Assert.assertEquals(0, processor.getInFlightCount());
+    }
+
+    @Test
+    public void testCloseAndDrain() {
+        JMSubmissionPublisher<Integer> publisher = new JMSubmissionPublisher<>();
+        JMConcurrentProcessor<Integer, Integer> processor = publisher.subscribeAndReturnSubcriber(
+                JMProcessorBuilder.buildWithThreadPool(4, 8, false, i -> {
+                    JMThread.sleep(20);
+                    return i;
+                }));
+        List<Integer> resultList = new CopyOnWriteArrayList<>();
+        processor.subscribe(JMSubscriberBuilder.build(resultList::add));
+        IntStream.range(0, 40).forEach(publisher::submit);
+        Assert.assertEquals(0, publisher.closeAndDrain(Duration.ofSeconds(5)));
+        Assert.assertEquals(0, processor.closeAndDrain(Duration.ofSeconds(5)));
+        JMThread.sleep(100);
+        Assert.assertEquals(40, resultList.size());
+
+        JMSubmissionPublisher<Integer> slowPublisher = new JMSubmissionPublisher<>();
+        JMConcurrentProcessor<Integer, Integer> slowProcessor = slowPublisher.subscribeAndReturnSubcriber(
+                JMProcessorBuilder.buildWithThreadPool(2, 0, false, i -> {
+                    JMThread.sleep(200);
+                    return i;
+                }));
+        IntStream.range(0, 10).forEach(slowPublisher::submit);
+        JMThread.sleep(100);
+        Assert.assertTrue(slowProcessor.closeAndDrain(Duration.ofMillis(50)) > 0);
+        slowPublisher.close();
+
+        JMWindowProcessor<Long, ?, CountMap<Long>> windowProcessor = JMProcessorBuilder.buildTumblingWindow(60000,
+                JMWindowAccumulator.buildCountMap(Function.identity()));
+        List<JMWindow<CountMap<Long>>> windowList = new CopyOnWriteArrayList<>();
+        windowProcessor.subscribe(JMSubscriberBuilder.build(windowList::add));
+        List.of(1L, 1L, 2L).forEach(windowProcessor::onNext);
+        Assert.assertTrue(windowProcessor.getOpenWindowCount() > 0);
+        Assert.assertEquals(0, windowProcessor.closeAndDrain(Duration.ofSeconds(5)));
+        Assert.assertEquals(0, windowProcessor.getOpenWindowCount());
+        Assert.assertEquals(3, windowList.stream().mapToLong(JMWindow::getItemCount).sum());
+    }
+
+}
@@ -2,6 +2,7 @@ package kr.jm.utils.flow.publisher;
 
 import kr.jm.utils.JMArrays;
 import kr.jm.utils.JMResources;
+import kr.jm.utils.JMStream;
 import kr.jm.utils.JMThread;
 import kr.jm.utils.flow.subscriber.JMSubscriberBuilder;
 import org.junit.After;
@@ -9,6 +10,14 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
@@ -65,4 +74,190 @@ public class BulkSubmissionPublisherTest {
         Assert.assertEquals(102, atomicInteger.longValue());
         Assert.assertEquals(1020, count.longValue());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void submitStriped() {
+        BulkSubmissionPublisher<String> stripedPublisher = new BulkSubmissionPublisher<>(10, 100, 4);
+        AtomicInteger maxBulkSize = new AtomicInteger();
+        AtomicInteger count = new AtomicInteger();
+        stripedPublisher.subscribe(JMSubscriberBuilder.build(list -> {
+            maxBulkSize.accumulateAndGet(list.size(), Math::max);
+            count.addAndGet(list.size());
+        }));
+        List<String> lineList = JMResources.readLines("webAccessLogSample.txt");
+        ExecutorService executorService = JMThread.newThreadPool(8);
+        JMStream.increaseRange(8)
+                .forEach(i -> executorService.submit(() -> lineList.forEach(stripedPublisher::submitSingle)));
+        executorService.shutdown();
+        JMThread.awaitTermination(executorService, 1000);
+        JMThread.sleep(500);
+        System.out.println(count);
+        Assert.assertTrue(stripedPublisher.isStriped());
+        Assert.assertEquals(8 * 1024, count.intValue());
+        Assert.assertTrue(maxBulkSize.intValue() <= 10);
+        stripedPublisher.close();
+    }
+
+    @Test
+    public void submitLineFile() {
+        LineBulkSubmissionPublisher lineBulkSubmissionPublisher = new LineBulkSubmissionPublisher(100);
+        List<Integer> bulkSizeList = new ArrayList<>();
+        lineBulkSubmissionPublisher.subscribe(JMSubscriberBuilder.build(list -> bulkSizeList.add(list.size())));
+        Assert.assertEquals(1024, lineBulkSubmissionPublisher
+                .submitFilePath(JMResources.getURI("webAccessLogSample.txt").getPath()));
+        JMThread.sleep(300);
+        Assert.assertEquals(11, bulkSizeList.size());
+        Assert.assertEquals(1024, bulkSizeList.stream().mapToInt(Integer::intValue).sum());
+        lineBulkSubmissionPublisher.close();
+    }
+
+    @Test
+    public void submitWeightLimited() {
+        List<Integer> bulkSizeList = new CopyOnWriteArrayList<>();
+        this.bulkSubmissionPublisher.enableWeightLimit(String::length, 20);
+        this.bulkSubmissionPublisher.subscribe(JMSubscriberBuilder.build(list -> bulkSizeList.add(list.size())));
+        Assert.assertTrue(this.bulkSubmissionPublisher.isWeightLimited());
+        this.bulkSubmissionPublisher.submit(new String[]{"12345", "12345", "12345", "12345", "12345", "12345"});
+        this.bulkSubmissionPublisher.submitSingle("1234567890123456789012345");
+        this.bulkSubmissionPublisher.submitSingle("12");
+        JMThread.sleep(300);
+        Assert.assertEquals(List.of(4, 3, 1), bulkSizeList);
+    }
+
+    @Test
+    public void submitPooled() {
+        AtomicInteger count = new AtomicInteger();
+        JMListPool<String> listPool = this.bulkSubmissionPublisher.enableListPool(4);
+        this.bulkSubmissionPublisher.subscribe(JMSubscriberBuilder.build(list -> {
+            count.addAndGet(list.size());
+            JMPooledList.release(list);
+        }));
+        for (int i = 0; i < 100; i++) {
+            this.bulkSubmissionPublisher.submit(new String[]{"1", "2", "3", "4", "5"});
+            JMThread.sleep(5);
+        }
+        JMThread.sleep(300);
+        System.out.println(listPool);
+        Assert.assertEquals(500, count.get());
+        Assert.assertTrue(listPool.getCreatedCount() < 10);
+        Assert.assertTrue(listPool.getRecycledCount() > 40);
+    }
+
+    @Test
+    public void submitToOwnListPublisher() {
+        SubmissionPublisher<List<String>> listPublisher = new SubmissionPublisher<>();
+        BulkSubmissionPublisher<String> ownBulkPublisher = new BulkSubmissionPublisher<>(listPublisher, 10, 1000);
+        List<Integer> bulkSizeList = new CopyOnWriteArrayList<>();
+        Flow.Subscriber<List<String>> directSubscriber = JMSubscriberBuilder.build(list -> bulkSizeList.add(list.size()));
+        listPublisher.subscribe(directSubscriber);
+        Assert.assertTrue(listPublisher.isSubscribed(directSubscriber));
+        try {
+            ownBulkPublisher.enableListPool(4);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getMessage().startsWith("List Pool"));
+        }
+        for (int i = 0; i < 25; i++)
+            ownBulkPublisher.submit(new String[]{String.valueOf(i)});
+        Assert.assertEquals(0, ownBulkPublisher.closeAndDrain(Duration.ofSeconds(3)));
+        Assert.assertEquals(List.of(10, 10, 5), bulkSizeList);
+    }
+
+    @Test
+    public void submitPooledWithCancel() {
+        AtomicInteger count = new AtomicInteger();
+        JMListPool<String> listPool = this.bulkSubmissionPublisher.enableListPool(4);
+        this.bulkSubmissionPublisher.subscribe(JMSubscriberBuilder.build(list -> {
+            count.addAndGet(list.size());
+            JMPooledList.release(list);
+        }));
+        this.bulkSubmissionPublisher.subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                (this.subscription = subscription).request(1);
+            }
+
+            @Override
+            public void onNext(List<String> item) {
+                JMPooledList.release(item);
+                JMThread.sleep(50);
+                this.subscription.cancel();
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        for (int i = 0; i < 100; i++) {
+            this.bulkSubmissionPublisher.submit(new String[]{"1", "2", "3", "4", "5"});
+            JMThread.sleep(5);
+        }
+        JMThread.sleep(300);
+        System.out.println(listPool);
+        Assert.assertEquals(500, count.get());
+        Assert.assertTrue(listPool.getCreatedCount() < 10);
+        Assert.assertEquals(50, listPool.getRecycledCount());
+    }
+
+    @Test
+    public void closeAndDrain() {
+        List<Integer> bulkSizeList = new CopyOnWriteArrayList<>();
+        this.bulkSubmissionPublisher.subscribe(JMSubscriberBuilder.build(list -> {
+            JMThread.sleep(50);
+            bulkSizeList.add(list.size());
+        }));
+        for (int i = 0; i < 25; i++)
+            this.bulkSubmissionPublisher.submit(new String[]{String.valueOf(i)});
+        Assert.assertEquals(0, this.bulkSubmissionPublisher.closeAndDrain(Duration.ofSeconds(3)));
+        Assert.assertEquals(List.of(10, 10, 5), bulkSizeList);
+
+        CountDownLatch releaseLatch = new CountDownLatch(1);
+        BulkSubmissionPublisher<String> blockedBulkPublisher = new BulkSubmissionPublisher<>(10);
+        blockedBulkPublisher.subscribe(JMSubscriberBuilder.build(list -> {
+            try {
+                releaseLatch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        for (int i = 0; i < 25; i++)
+            blockedBulkPublisher.submit(new String[]{String.valueOf(i)});
+        long lostCount = blockedBulkPublisher.closeAndDrain(Duration.ofMillis(200));
+        releaseLatch.countDown();
+        Assert.assertEquals(25, lostCount);
+    }
+
+    @Test
+    public void submitAdaptive() {
+        AdaptiveBulkSubmissionPublisher<Integer> adaptivePublisher =
+                new AdaptiveBulkSubmissionPublisher<>(10, 1000, 10, 400);
+        AtomicInteger count = new AtomicInteger();
+        adaptivePublisher.subscribe(JMSubscriberBuilder.build(list -> count.addAndGet(list.size())));
+        Assert.assertEquals(256, adaptivePublisher.getBulkSize());
+        Assert.assertEquals(100, adaptivePublisher.getFlushIntervalMillis());
+        for (int i = 0; i < 10000; i++) {
+            adaptivePublisher.submitSingle(i);
+            if (i % 100 == 0)
+                JMThread.sleep(1);
+        }
+        int grownBulkSize = adaptivePublisher.getBulkSize();
+        Assert.assertTrue(grownBulkSize > 256);
+        for (int i = 0; i < 10; i++) {
+            adaptivePublisher.submitSingle(i);
+            JMThread.sleep(adaptivePublisher.getFlushIntervalMillis() + 30);
+        }
+        Assert.assertTrue(adaptivePublisher.getBulkSize() < grownBulkSize);
+        Assert.assertTrue(adaptivePublisher.getFlushIntervalMillis() < 100);
+        adaptivePublisher.flush();
+        JMThread.sleep(300);
+        Assert.assertEquals(10010, count.get());
+        adaptivePublisher.close();
+    }
+
+}
@@ -0,0 +1,77 @@
+package kr.jm.utils.flow.publisher;
+
+import kr.jm.utils.JMThread;
+import kr.jm.utils.flow.metrics.JMFlowMetrics;
+import kr.jm.utils.flow.subscriber.JMSubscriberBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class JMPriorityLanePublisherTest {
+
+    static {
+        System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "info");
+    }
+
+    @Test
+    public void testStrict() {
+        JMPriorityLanePublisher<String> priorityLanePublisher = new JMPriorityLanePublisher<>(4, 1000);
+        List<JMFlowMetrics> laneMetricsList = priorityLanePublisher.enableLaneMetrics("strict");
+        List<String> resultList = new CopyOnWriteArrayList<>();
+        priorityLanePublisher.subscribe(JMSubscriberBuilder.build(item -> {
+            resultList.add(item);
+            JMThread.sleep(2);
+        }));
+        AtomicInteger secondCount = new AtomicInteger();
+        priorityLanePublisher.subscribe(JMSubscriberBuilder.build(item -> secondCount.incrementAndGet()));
+        IntStream.range(0, 200).mapToObj(i -> "data-" + i).forEach(priorityLanePublisher::submit);
+        JMThread.sleep(20);
+        priorityLanePublisher.submit(0, "control-flush");
+        priorityLanePublisher.close();
+        for (int i = 0; i < 100 && priorityLanePublisher.hasSubscribers(); i++)
+            JMThread.sleep(50);
+
+        Assert.assertEquals(201, resultList.size());
+        int controlIndex = resultList.indexOf("control-flush");
+        System.out.println(controlIndex);
+        Assert.assertTrue(controlIndex > 0 && controlIndex < 50);
+        Assert.assertEquals(IntStream.range(0, 200).mapToObj(i -> "data-" + i).collect(Collectors.toList()),
+                resultList.stream().filter(item -> item.startsWith("data")).collect(Collectors.toList()));
+        Assert.assertEquals(201, secondCount.get());
+        Assert.assertEquals(1, laneMetricsList.get(0).getInCount());
+        Assert.assertEquals(1, laneMetricsList.get(0).getOutCount());
+        Assert.assertEquals(200, laneMetricsList.get(1).getOutCount());
+        Assert.assertEquals(1000, laneMetricsList.get(1).getBufferCapacity());
+        Assert.assertTrue(laneMetricsList.get(0).getProcessingMaxMicros() <
+                laneMetricsList.get(1).getProcessingMaxMicros());
+    }
+
+    @Test
+    public void testWeighted() {
+        JMPriorityLanePublisher<String> priorityLanePublisher =
+                new JMPriorityLanePublisher<>(JMPriorityLanePublisher.PriorityMode.WEIGHTED, new int[]{100, 100},
+                        new int[]{3, 1});
+        List<String> resultList = new CopyOnWriteArrayList<>();
+        priorityLanePublisher.subscribe(JMSubscriberBuilder.build(item -> {
+            if (resultList.isEmpty())
+                JMThread.sleep(200);
+            resultList.add(item);
+        }));
+        IntStream.range(0, 8).forEach(i -> {
+            priorityLanePublisher.submit(0, "high-" + i);
+            priorityLanePublisher.submit(1, "low-" + i);
+        });
+        priorityLanePublisher.close();
+        for (int i = 0; i < 100 && priorityLanePublisher.hasSubscribers(); i++)
+            JMThread.sleep(50);
+        Assert.assertEquals(16, resultList.size());
+        Assert.assertEquals("high-0", resultList.get(0));
+        Assert.assertEquals(List.of("high-1", "high-2", "low-0", "high-3", "high-4", "high-5", "low-1"),
+                resultList.subList(1, 8));
+    }
+}
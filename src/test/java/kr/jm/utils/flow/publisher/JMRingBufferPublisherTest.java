@@ -0,0 +1,44 @@
+package kr.jm.utils.flow.publisher;
+
+import kr.jm.utils.JMThread;
+import kr.jm.utils.flow.metrics.JMFlowMetrics;
+import kr.jm.utils.flow.subscriber.JMSubscriberBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class JMRingBufferPublisherTest {
+
+    static {
+        System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "info");
+    }
+
+    @Test
+    public void testSubmit() {
+        List<Integer> expectedList = IntStream.range(0, 20000).boxed().collect(Collectors.toList());
+        for (JMRingBufferPublisher.WaitStrategy waitStrategy : JMRingBufferPublisher.WaitStrategy.values()) {
+            JMRingBufferPublisher<Integer> ringBufferPublisher = new JMRingBufferPublisher<>(50, waitStrategy);
+            Assert.assertEquals(64, ringBufferPublisher.getCapacity());
+            JMFlowMetrics metrics = ringBufferPublisher.enableMetrics("ringBuffer-" + waitStrategy);
+            List<Integer> resultList1 = new ArrayList<>();
+            List<Integer> resultList2 = new ArrayList<>();
+            ringBufferPublisher.subscribe(JMSubscriberBuilder.build(resultList1::add));
+            ringBufferPublisher.subscribe(JMSubscriberBuilder.build(resultList2::add, 32));
+            Assert.assertEquals(2, ringBufferPublisher.getNumberOfSubscribers());
+            expectedList.forEach(ringBufferPublisher::submit);
+            ringBufferPublisher.close();
+            for (int i = 0; i < 100 && ringBufferPublisher.hasSubscribers(); i++)
+                JMThread.sleep(50);
+            Assert.assertFalse(ringBufferPublisher.hasSubscribers());
+            Assert.assertEquals(expectedList, resultList1);
+            Assert.assertEquals(expectedList, resultList2);
+            Assert.assertEquals(20000, metrics.getInCount());
+            Assert.assertEquals(40000, metrics.getOutCount());
+            System.out.println(waitStrategy + " - " + metrics.getSnapshot());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package kr.jm.utils.flow.publisher;
+
+import kr.jm.utils.JMThread;
+import kr.jm.utils.flow.subscriber.JMSubscriberBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public class JMStreamPublisherTest {
+
+    static {
+        System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "info");
+    }
+
+    @Test
+    public void testSubscribe() {
+        AtomicInteger pulledCount = new AtomicInteger();
+        AtomicInteger consumedCount = new AtomicInteger();
+        AtomicInteger maxAhead = new AtomicInteger();
+        AtomicBoolean closed = new AtomicBoolean();
+        JMStreamPublisher<Integer> streamPublisher = new JMStreamPublisher<>(
+                IntStream.range(0, 200).parallel().boxed().peek(i -> pulledCount.incrementAndGet())
+                        .onClose(() -> closed.set(true)));
+        List<Integer> resultList = new CopyOnWriteArrayList<>();
+        streamPublisher.subscribe(JMSubscriberBuilder.build(i -> {
+            maxAhead.accumulateAndGet(pulledCount.get() - consumedCount.incrementAndGet(), Math::max);
+            resultList.add(i);
+            JMThread.sleep(1);
+        }, 8));
+        for (int i = 0; i < 100 && !closed.get(); i++)
+            JMThread.sleep(50);
+
+        Assert.assertEquals(IntStream.range(0, 200).boxed().collect(Collectors.toList()), resultList);
+        Assert.assertTrue(closed.get());
+        Assert.assertTrue(maxAhead.get() < 8);
+        Assert.assertEquals(200, streamPublisher.getPublishedCount());
+
+        AtomicReference<Throwable> throwable = new AtomicReference<>();
+        streamPublisher.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+            }
+
+            @Override
+            public void onNext(Integer item) {
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                throwable.set(t);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        Assert.assertTrue(throwable.get() instanceof IllegalStateException);
+    }
+
+    @Test
+    public void testToStream() {
+        JMSubmissionPublisher<Integer> submissionPublisher = new JMSubmissionPublisher<>();
+        Stream<Integer> stream = submissionPublisher.toStream(16);
+        JMThread.runAsync(() -> {
+            IntStream.range(0, 1000).forEach(submissionPublisher::submit);
+            submissionPublisher.close();
+        });
+        Assert.assertEquals(IntStream.range(0, 1000).sum(), stream.mapToInt(Integer::intValue).sum());
+
+        AtomicInteger pulledCount = new AtomicInteger();
+        try (Stream<String> lineStream = new JMStreamPublisher<>(
+                Stream.iterate(0, i -> i + 1).peek(i -> pulledCount.incrementAndGet()).map(i -> "line-" + i))
+                .toStream(4)) {
+            Assert.assertEquals(List.of("line-0", "line-1", "line-2"),
+                    lineStream.limit(3).collect(Collectors.toList()));
+        }
+        JMThread.sleep(100);
+        Assert.assertTrue(pulledCount.get() <= 3 + 4);
+    }
+
+}
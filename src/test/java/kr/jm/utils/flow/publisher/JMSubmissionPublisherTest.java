@@ -2,14 +2,23 @@ package kr.jm.utils.flow.publisher;
 
 import kr.jm.utils.JMResources;
 import kr.jm.utils.JMThread;
+import kr.jm.utils.flow.subscriber.JMSubscriberBuilder;
 import kr.jm.utils.helper.JMFile;
+import kr.jm.utils.helper.JMPath;
+import kr.jm.utils.helper.JMSpillQueue;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Flow;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class JMSubmissionPublisherTest {
 
@@ -63,6 +72,7 @@ public class JMSubmissionPublisherTest {
         String path = JMResources.getURI("webAccessLogSample.txt").getPath();
         System.out.println(path);
         submissionPublisher.subscribe(subscriber);
+        Assert.assertTrue(submissionPublisher.isSubscribed(subscriber));
         submissionPublisher.consume(s
                 -> System.out.println(atomicInteger.incrementAndGet()
                 + "- singleSubscriber - " + s));
@@ -73,4 +83,32 @@ public class JMSubmissionPublisherTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testSpill() {
+        Path spillDirectoryPath = Path.of("test" + System.currentTimeMillis());
+        JMSubmissionPublisher<String> spillPublisher = new JMSubmissionPublisher<>(1, 8);
+        JMSpillQueue<String> spillQueue = spillPublisher.enableSpill(new JMSpillQueue<>(spillDirectoryPath, 1024,
+                string -> string.getBytes(StandardCharsets.UTF_8), bytes -> new String(bytes, StandardCharsets.UTF_8)));
+        List<String> resultList = new CopyOnWriteArrayList<>();
+        spillPublisher.subscribe(JMSubscriberBuilder.build(item -> {
+            JMThread.sleep(1);
+            resultList.add(item);
+        }));
+        List<String> itemList = IntStream.range(0, 1000).mapToObj(i -> "item-" + i).collect(Collectors.toList());
+        itemList.forEach(spillPublisher::submit);
+        Assert.assertTrue(spillPublisher.isSpilling());
+        Assert.assertTrue(spillQueue.size() > 500);
+        Assert.assertTrue(spillQueue.getSegmentCount() > 1);
+
+        for (int i = 0; i < 100 && resultList.size() < itemList.size(); i++)
+            JMThread.sleep(100);
+        Assert.assertEquals(itemList, resultList);
+        Assert.assertFalse(spillPublisher.isSpilling());
+        Assert.assertTrue(spillQueue.isEmpty());
+        Assert.assertEquals(1, spillQueue.getSegmentCount());
+        spillPublisher.close();
+        Assert.assertEquals(0, spillQueue.getSegmentCount());
+        JMPath.getInstance().deleteAll(spillDirectoryPath);
+    }
+
+}
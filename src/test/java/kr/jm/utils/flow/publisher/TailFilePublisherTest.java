@@ -0,0 +1,82 @@
+package kr.jm.utils.flow.publisher;
+
+import kr.jm.utils.JMThread;
+import kr.jm.utils.flow.subscriber.JMSubscriberBuilder;
+import kr.jm.utils.helper.JMPath;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertEquals;
+
+public class TailFilePublisherTest {
+    static {
+        System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "debug");
+    }
+
+    private Path directoryPath;
+    private Path filePath;
+    private Path offsetFilePath;
+
+    @Before
+    public void setUp() throws IOException {
+        this.directoryPath = Files.createDirectories(JMPath.getInstance().getPath("test" + System.currentTimeMillis()));
+        this.filePath = this.directoryPath.resolve("tail.log");
+        this.offsetFilePath = this.directoryPath.resolve("tail.offset");
+        Files.write(this.filePath, List.of("line1", "line2"));
+    }
+
+    @After
+    public void tearDown() {
+        JMPath.getInstance().deleteAll(this.directoryPath);
+    }
+
+    private void append(String text) throws IOException {
+        Files.writeString(this.filePath, text, StandardOpenOption.APPEND);
+    }
+
+    @Test
+    public void testFollow() throws IOException {
+        List<String> resultList = new CopyOnWriteArrayList<>();
+        TailFilePublisher tailFilePublisher = new TailFilePublisher(this.offsetFilePath, true);
+        tailFilePublisher.subscribe(JMSubscriberBuilder.build(resultList::add));
+        tailFilePublisher.follow(this.filePath);
+        JMThread.sleep(500);
+        assertEquals(List.of("line1", "line2"), resultList);
+
+        append("line3\r\nli");
+        JMThread.sleep(1500);
+        assertEquals(List.of("line1", "line2", "line3"), resultList);
+        append("ne4\n");
+        JMThread.sleep(1500);
+        assertEquals(List.of("line1", "line2", "line3", "line4"), resultList);
+        assertEquals(Files.size(this.filePath), tailFilePublisher.getOffset(this.filePath));
+
+        Files.write(this.filePath, List.of("new1"), StandardOpenOption.TRUNCATE_EXISTING);
+        JMThread.sleep(1500);
+        assertEquals("new1", resultList.get(resultList.size() - 1));
+        tailFilePublisher.close();
+
+        append("new2\n");
+        resultList.clear();
+        tailFilePublisher = new TailFilePublisher(this.offsetFilePath, true);
+        tailFilePublisher.subscribe(JMSubscriberBuilder.build(resultList::add));
+        tailFilePublisher.follow(this.filePath);
+        JMThread.sleep(500);
+        assertEquals(List.of("new2"), resultList);
+
+        Files.move(this.filePath, this.directoryPath.resolve("tail.log.1"));
+        Files.write(this.filePath, Collections.singletonList("rotated1"));
+        JMThread.sleep(1500);
+        assertEquals(List.of("new2", "rotated1"), resultList);
+        tailFilePublisher.close();
+    }
+}
@@ -0,0 +1,102 @@
+package kr.jm.utils.flow.subscriber;
+
+import kr.jm.utils.JMStream;
+import kr.jm.utils.JMThread;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class JMSubscriberTest {
+
+    static {
+        System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "debug");
+    }
+
+    @Test
+    public void testPrefetch() {
+        List<Long> requestList = new ArrayList<>();
+        AtomicInteger count = new AtomicInteger();
+        JMSubscriber<Integer> subscriber = JMSubscriberBuilder.build(i -> count.incrementAndGet(), 8);
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                requestList.add(n);
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        JMStream.increaseRange(16).boxed().forEach(subscriber::onNext);
+        Assert.assertEquals(16, count.get());
+        Assert.assertEquals(List.of(8L, 4L, 4L, 4L, 4L), requestList);
+
+        List<Long> defaultRequestList = new ArrayList<>();
+        JMSubscriber<Integer> defaultSubscriber = JMSubscriberBuilder.build(i -> {});
+        defaultSubscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                defaultRequestList.add(n);
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        JMStream.increaseRange(3).boxed().forEach(defaultSubscriber::onNext);
+        Assert.assertEquals(List.of(1L, 1L, 1L, 1L), defaultRequestList);
+    }
+
+    @Test
+    public void testParallel() {
+        List<Long> requestList = new CopyOnWriteArrayList<>();
+        AtomicLong demand = new AtomicLong();
+        AtomicInteger concurrency = new AtomicInteger();
+        AtomicInteger maxConcurrency = new AtomicInteger();
+        List<Integer> resultList = new CopyOnWriteArrayList<>();
+        JMParallelSubscriber<Integer> subscriber = JMSubscriberBuilder.buildParallel(i -> {
+            maxConcurrency.accumulateAndGet(concurrency.incrementAndGet(), Math::max);
+            JMThread.sleep(10);
+            resultList.add(i);
+            concurrency.decrementAndGet();
+        }, 4, 8, true);
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                requestList.add(n);
+                demand.addAndGet(n);
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        int maxInFlight = 0;
+        int next = 1;
+        for (int i = 0; i < 2000 && next <= 40; i++) {
+            if (demand.get() == 0) {
+                JMThread.sleep(1);
+                continue;
+            }
+            demand.decrementAndGet();
+            subscriber.onNext(next++);
+            maxInFlight = Math.max(maxInFlight, subscriber.getInFlightCount());
+        }
+        Assert.assertEquals(41, next);
+        subscriber.onComplete();
+        Assert.assertTrue(subscriber.getCompletionFuture().isDone());
+        Assert.assertEquals(0, subscriber.getInFlightCount());
+        Assert.assertEquals(40, resultList.size());
+        Assert.assertTrue(maxConcurrency.get() <= 4);
+        Assert.assertTrue(maxInFlight <= 8);
+        Assert.assertEquals(8L, requestList.get(0).longValue());
+        Assert.assertTrue(requestList.stream().skip(1).allMatch(n -> n == 1));
+        subscriber.close();
+    }
+}
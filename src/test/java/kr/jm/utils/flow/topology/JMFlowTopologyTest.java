@@ -0,0 +1,48 @@
+package kr.jm.utils.flow.topology;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class JMFlowTopologyTest {
+
+    static {
+        System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "info");
+    }
+
+    @Test
+    public void testTopology() {
+        List<Integer> numberList = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+        List<String> mergedList = new CopyOnWriteArrayList<>();
+        List<Integer> broadcastList1 = new CopyOnWriteArrayList<>();
+        List<Integer> broadcastList2 = new CopyOnWriteArrayList<>();
+        try (JMFlowTopology topology = new JMFlowTopology("test")) {
+            List<JMFlowStage<Integer>> branchStageList = topology.source("numbers", numberList)
+                    .map("square", 4, i -> i * i).roundRobin("split", 2);
+            topology.merge("merged", branchStageList.get(0).map("even", 2, i -> "even-" + i),
+                    branchStageList.get(1).map("odd", 1, i -> "odd-" + i)).sink("mergedSink", mergedList::add);
+            List<JMFlowStage<Integer>> broadcastStageList =
+                    topology.getStage("numbers").map("copy", 1, i -> (Integer) i).broadcast("broadcast", 2);
+            broadcastStageList.get(0).sink("broadcastSink1", broadcastList1::add);
+            broadcastStageList.get(1).sink("broadcastSink2", broadcastList2::add);
+
+            Assert.assertEquals(List.of("numbers", "square", "split-0", "split-1", "even", "odd", "merged", "copy",
+                    "broadcast-0", "broadcast-1"), topology.getStageNameList());
+            Assert.assertTrue(topology.start().awaitCompletion(10000));
+        }
+        Assert.assertEquals(1000, mergedList.size());
+        Assert.assertEquals(numberList.stream().map(i -> i * i).collect(Collectors.toSet()),
+                mergedList.stream().map(s -> Integer.valueOf(s.substring(s.indexOf('-') + 1)))
+                        .collect(Collectors.toSet()));
+        Set<String> prefixSet = mergedList.stream().map(s -> s.substring(0, s.indexOf('-')))
+                .collect(Collectors.toSet());
+        Assert.assertEquals(Set.of("even", "odd"), prefixSet);
+        Assert.assertEquals(numberList, broadcastList1.stream().sorted().collect(Collectors.toList()));
+        Assert.assertEquals(numberList, broadcastList2.stream().sorted().collect(Collectors.toList()));
+    }
+}
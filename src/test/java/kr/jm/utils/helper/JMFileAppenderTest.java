@@ -0,0 +1,41 @@
+package kr.jm.utils.helper;
+
+import kr.jm.utils.JMResources;
+import kr.jm.utils.JMThread;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class JMFileAppenderTest {
+
+    private File file;
+
+    @Before
+    public void setUp() {
+        this.file = new File("test" + System.currentTimeMillis() + "/groupCommit.txt");
+    }
+
+    @After
+    public void tearDown() {
+        JMPath.getInstance().deleteAll(this.file.getParentFile().toPath());
+    }
+
+    @Test
+    public void testGroupCommit() {
+        List<String> lineList = JMResources.readLines("webAccessLogSample.txt");
+        JMFileAppender fileAppender = new JMFileAppender(this.file.getPath(), 64 * 1024, 50, true);
+        assertTrue(fileAppender.isGroupCommit());
+        lineList.subList(0, 10).forEach(fileAppender::appendLine);
+        JMThread.sleep(300);
+        assertEquals(lineList.subList(0, 10), JMFile.getInstance().readLines(this.file));
+        lineList.subList(10, lineList.size()).forEach(fileAppender::appendLine);
+        fileAppender.close();
+        assertEquals(lineList, JMFile.getInstance().readLines(this.file));
+    }
+}
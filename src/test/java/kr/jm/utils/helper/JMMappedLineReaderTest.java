@@ -0,0 +1,89 @@
+package kr.jm.utils.helper;
+
+import kr.jm.utils.JMResources;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JMMappedLineReaderTest {
+
+    private File file;
+
+    @Before
+    public void setUp() {
+        this.file = new File("test" + System.currentTimeMillis() + "/lines.txt");
+    }
+
+    @After
+    public void tearDown() {
+        JMPath.getInstance().deleteAll(this.file.getParentFile().toPath());
+    }
+
+    @Test
+    public void testGetLineStream() throws Exception {
+        Path path = Paths.get(JMResources.getURI("webAccessLogSample.txt"));
+        List<String> lineList = JMFile.getInstance().readLines(path.toFile());
+        try (JMMappedLineReader mappedLineReader = new JMMappedLineReader(path)) {
+            assertEquals(lineList, mappedLineReader.getLineStream().collect(Collectors.toList()));
+        }
+        try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            JMMappedLineReader mappedLineReader =
+                    new JMMappedLineReader(fileChannel, 0, fileChannel.size(), UTF_8, 1024);
+            List<Integer> chunkSizeList = new ArrayList<>();
+            List<String> resultList = new ArrayList<>();
+            assertEquals(1024, mappedLineReader.forEachChunk(100, chunk -> {
+                chunkSizeList.add(chunk.size());
+                resultList.addAll(chunk);
+            }));
+            assertEquals(11, chunkSizeList.size());
+            assertEquals(24, chunkSizeList.get(10).intValue());
+            assertEquals(lineList, resultList);
+        }
+    }
+
+    @Test
+    public void testLineEndings() {
+        JMFileAppender.appendAndClose(this.file.getPath(), UTF_8, "가나다\r\n\nabc\r\nlast");
+        try (JMMappedLineReader mappedLineReader = new JMMappedLineReader(this.file.toPath())) {
+            assertEquals(List.of("가나다", "", "abc", "last"),
+                    mappedLineReader.getLineStream().collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void testParallelLineStream() {
+        List<String> sampleLineList = JMFile.getInstance()
+                .readLines(Paths.get(JMResources.getURI("webAccessLogSample.txt")).toFile());
+        List<String> lineList = new ArrayList<>();
+        for (int i = 0; i < 16; i++)
+            lineList.addAll(sampleLineList);
+        JMFileAppender.appendLinesAndClose(this.file.getPath(), lineList);
+        try (Stream<String> lineStream = JMPath.getInstance().getParallelLineStream(this.file.toPath(), UTF_8, true)) {
+            assertTrue(lineStream.isParallel());
+            assertEquals(lineList, lineStream.collect(Collectors.toList()));
+        }
+        try (Stream<String> lineStream = JMPath.getInstance().getParallelLineStream(this.file.toPath())) {
+            assertEquals(lineList.stream().collect(Collectors.groupingBy(Function.identity(), Collectors.counting())),
+                    lineStream.collect(Collectors.groupingBy(Function.identity(), Collectors.counting())));
+        }
+        Spliterator<String> spliterator = new JMFileLineSpliterator(null, 0, 0, UTF_8, true, 0);
+        assertNull(spliterator.trySplit());
+    }
+}
@@ -1,12 +1,16 @@
 package kr.jm.utils.stats;
 
+import kr.jm.utils.JMStats;
 import kr.jm.utils.JMStream;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 public class NumberSummaryStatisticsTest {
 
@@ -44,4 +48,44 @@ public class NumberSummaryStatisticsTest {
         assertEquals(intNumberSummaryStatistics.getMax(), doubleNumberSummaryStatistics.getMax());
         assertEquals(intNumberSummaryStatistics.getAverage(), doubleNumberSummaryStatistics.getAverage());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testStreamingVariance() {
+        List<Double> doubleList = JMStream.buildRandomNumberStream(10000).map(d -> d * 1000 + 1e9).boxed()
+                .collect(Collectors.toList());
+        NumberSummaryStatistics numberSummaryStatistics = new NumberSummaryStatistics();
+        IntStream.range(0, 4).parallel().forEach(i -> numberSummaryStatistics
+                .addAll(doubleList.subList(i * 2500, (i + 1) * 2500).stream()));
+        System.out.println(numberSummaryStatistics);
+        DoubleSummaryStatistics doubleSummaryStatistics =
+                doubleList.stream().mapToDouble(Double::doubleValue).summaryStatistics();
+        assertEquals(10000L, numberSummaryStatistics.getCount());
+        assertEquals(doubleSummaryStatistics.getSum(), numberSummaryStatistics.getSum().doubleValue(), 1e-3);
+        assertEquals(doubleSummaryStatistics.getMin(), numberSummaryStatistics.getMin());
+        assertEquals(doubleSummaryStatistics.getMax(), numberSummaryStatistics.getMax());
+        double variance = JMStats.calVariance(doubleList);
+        assertEquals(variance, numberSummaryStatistics.getVariance().doubleValue(), variance * 1e-6);
+        assertTrue(numberSummaryStatistics.getNumberList().isEmpty());
+        assertFalse(numberSummaryStatistics.isRetainingNumbers());
+
+        NumberSummaryStatistics firstHalf =
+                new NumberSummaryStatistics(new ArrayList<>(doubleList.subList(0, 5000)), true);
+        NumberSummaryStatistics secondHalf = new NumberSummaryStatistics(
+                new ArrayList<>(doubleList.subList(5000, 10000)), true);
+        firstHalf.combine(secondHalf);
+        assertEquals(10000L, firstHalf.getCount());
+        assertEquals(variance, firstHalf.getVariance().doubleValue(), variance * 1e-6);
+        assertEquals(10000, firstHalf.getNumberList().size());
+        try {
+            firstHalf.combine(numberSummaryStatistics);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().startsWith("Can't combine"));
+        }
+        assertEquals(10000L, firstHalf.getCount());
+        firstHalf.combine(new NumberSummaryStatistics());
+        assertEquals(10000L, firstHalf.getCount());
+        numberSummaryStatistics.combine(firstHalf);
+        assertEquals(20000L, numberSummaryStatistics.getCount());
+    }
+}